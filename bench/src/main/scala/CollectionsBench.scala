@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.bench
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.Arrays
+import java.util.HashMap
+import java.util.concurrent.TimeUnit
+
+import scala.util.Random
+
+import memeid.collection.UUIDColumn
+import memeid.collection.UUIDIndex
+import memeid.collection.UUIDIndexWriter
+import memeid.collection.UUIDSet
+import memeid4s.UUID
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+object CollectionsStates {
+
+  final val Keys = 10000
+
+  @State(Scope.Benchmark)
+  class Generated {
+
+    val v1: Array[UUID] = UUID.V1.nextBatch(Keys)
+
+    val v4: Array[UUID] = Array.fill(Keys)(UUID.V4.random)
+
+    val v7: Array[UUID] = UUID.V7.nextBatch(Keys)
+
+    val juuids: Array[java.util.UUID] = v1.map(_.asJava)
+
+    /** Equal copies of the keys, so lookups can't succeed on reference equality alone. */
+    val v1Copies: Array[UUID] = v1.map(u => UUID.from(u.getMostSignificantBits, u.getLeastSignificantBits))
+
+    val v4Copies: Array[UUID] = v4.map(u => UUID.from(u.getMostSignificantBits, u.getLeastSignificantBits))
+
+    val v7Copies: Array[UUID] = v7.map(u => UUID.from(u.getMostSignificantBits, u.getLeastSignificantBits))
+
+    val javaCopies: Array[java.util.UUID] =
+      juuids.map(u => new java.util.UUID(u.getMostSignificantBits, u.getLeastSignificantBits))
+
+    val v1Map: HashMap[UUID, UUID] = map(v1)
+
+    val v4Map: HashMap[UUID, UUID] = map(v4)
+
+    val v7Map: HashMap[UUID, UUID] = map(v7)
+
+    val javaMap: HashMap[java.util.UUID, java.util.UUID] = map(juuids)
+
+    val v4Set: UUIDSet = set(v4)
+
+    val v1Shuffled: Array[AnyRef] = shuffle(v1)
+
+    val v4Shuffled: Array[AnyRef] = shuffle(v4)
+
+    val v7Shuffled: Array[AnyRef] = shuffle(v7)
+
+    val javaShuffled: Array[AnyRef] = shuffle(juuids)
+
+    val v4ShuffledMsbs: Array[Long] = v4Shuffled.collect { case uuid: UUID => uuid.getMostSignificantBits }
+
+    val v4ShuffledLsbs: Array[Long] = v4Shuffled.collect { case uuid: UUID => uuid.getLeastSignificantBits }
+
+    val v4Column: UUIDColumn = {
+      val column = new UUIDColumn(Keys)
+      column.appendAll(v4ShuffledMsbs, v4ShuffledLsbs, 0, Keys)
+      column.sort()
+      column
+    }
+
+    @SuppressWarnings(Array("scalafix:Disable.toString"))
+    val v4Strings: Array[String] = v4.map(_.toString)
+
+    val v4IndexPath: Path = {
+      val path = Files.createTempFile("uuids", ".idx")
+      path.toFile.deleteOnExit()
+      UUIDIndexWriter.write(path, v4Column)
+      path
+    }
+
+    val v4Index: UUIDIndex = UUIDIndex.open(v4IndexPath)
+
+  }
+
+  def shuffle(keys: Array[_ <: AnyRef]): Array[AnyRef] = new Random(42).shuffle(keys.toList).toArray[AnyRef]
+
+  def set(keys: Array[UUID]): UUIDSet = {
+    val set = new UUIDSet()
+    keys.foreach(set.add)
+    set
+  }
+
+  def map[A](keys: Array[A]): HashMap[A, A] = {
+    val map = new HashMap[A, A]()
+    keys.foreach(key => map.put(key, key))
+    map
+  }
+
+}
+
+/** `HashMap` puts/gets and `Arrays.sort` over `Keys` UUIDs of each version, with the `java.util.UUID` of the V1 keys
+  * as a reference, plus the same additions/lookups on a `UUIDSet`, sorts/binary searches on a `UUIDColumn` and
+  * lookups on a memory-mapped `UUIDIndex`.
+  */
+@Warmup(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@Measurement(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@OperationsPerInvocation(CollectionsStates.Keys)
+class CollectionsBenchmark {
+
+  import CollectionsStates._
+
+  @Benchmark
+  def hashMapPutV1(x: Generated): HashMap[UUID, UUID] = map(x.v1)
+
+  @Benchmark
+  def hashMapPutV4(x: Generated): HashMap[UUID, UUID] = map(x.v4)
+
+  @Benchmark
+  def hashMapPutV7(x: Generated): HashMap[UUID, UUID] = map(x.v7)
+
+  @Benchmark
+  def hashMapPutJava(x: Generated): HashMap[java.util.UUID, java.util.UUID] = map(x.juuids)
+
+  @Benchmark
+  def hashMapGetV1(x: Generated, bh: Blackhole): Unit = get(x.v1Map, x.v1Copies, bh)
+
+  @Benchmark
+  def hashMapGetV4(x: Generated, bh: Blackhole): Unit = get(x.v4Map, x.v4Copies, bh)
+
+  @Benchmark
+  def hashMapGetV7(x: Generated, bh: Blackhole): Unit = get(x.v7Map, x.v7Copies, bh)
+
+  @Benchmark
+  def hashMapGetJava(x: Generated, bh: Blackhole): Unit = get(x.javaMap, x.javaCopies, bh)
+
+  @Benchmark
+  def uuidSetAddV4(x: Generated): UUIDSet = set(x.v4)
+
+  @Benchmark
+  def uuidSetContainsV4(x: Generated, bh: Blackhole): Unit =
+    x.v4Copies.foreach(key => bh.consume(x.v4Set.contains(key)))
+
+  @Benchmark
+  def uuidColumnSortV4(x: Generated): UUIDColumn = {
+    val column = new UUIDColumn(Keys)
+    column.appendAll(x.v4ShuffledMsbs, x.v4ShuffledLsbs, 0, Keys)
+    column.sort()
+    column
+  }
+
+  @Benchmark
+  def uuidColumnSearchV4(x: Generated, bh: Blackhole): Unit =
+    x.v4Copies.foreach(key => bh.consume(x.v4Column.binarySearch(key)))
+
+  @Benchmark
+  def uuidIndexContainsV4(x: Generated, bh: Blackhole): Unit =
+    x.v4Copies.foreach(key => bh.consume(x.v4Index.contains(key)))
+
+  /** Loading known ids at startup by parsing their text into a set... */
+  @Benchmark
+  def startupParseText(x: Generated): UUIDSet = {
+    val set = new UUIDSet(Keys)
+    x.v4Strings.foreach(s => set.add(memeid.UUID.fromString(s)))
+    set
+  }
+
+  /** ...against mapping a prebuilt index file. */
+  @Benchmark
+  def startupOpenIndex(x: Generated): Long = {
+    val index = UUIDIndex.open(x.v4IndexPath)
+    try index.size
+    finally index.close()
+  }
+
+  @Benchmark
+  def sortV1(x: Generated): Array[AnyRef] = sort(x.v1Shuffled)
+
+  @Benchmark
+  def sortV4(x: Generated): Array[AnyRef] = sort(x.v4Shuffled)
+
+  @Benchmark
+  def sortV7(x: Generated): Array[AnyRef] = sort(x.v7Shuffled)
+
+  @Benchmark
+  def sortJava(x: Generated): Array[AnyRef] = sort(x.javaShuffled)
+
+  private def get[A](map: HashMap[A, A], keys: Array[A], bh: Blackhole): Unit =
+    keys.foreach(key => bh.consume(map.get(key)))
+
+  /** Sorts a copy, so every invocation does the same work. */
+  private def sort(keys: Array[AnyRef]): Array[AnyRef] = {
+    val copy = keys.clone()
+    Arrays.sort(copy)
+    copy
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid4s.bench
+
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.TimeUnit
+
+import memeid.collection.UUIDExternalSort
+import memeid.collection.UUIDExternalSort.Format
+import memeid4s.UUID
+import org.openjdk.jmh.annotations._
+
+object ExternalSortStates {
+
+  final val Records = 1 << 20
+
+  /** Small enough for the inputs to be split into 8 runs. */
+  final val RunSize = Records / 8
+
+  @State(Scope.Benchmark)
+  class Inputs {
+
+    val directory: Path = Files.createTempDirectory("external-sort")
+
+    /** V4 UUIDs, one in ten of them repeated. */
+    val uuids: Array[UUID] = {
+      val distinct = Array.fill(Records - Records / 10)(UUID.V4.random)
+      distinct ++ distinct.take(Records / 10)
+    }
+
+    val text: Path = {
+      val bytes = new Array[Byte](37 * Records)
+      uuids.zipWithIndex.foreach { case (uuid, i) =>
+        bytes(uuid.writeAscii(bytes, 37 * i)) = '\n'
+      }
+      Files.write(directory.resolve("uuids.txt"), bytes)
+    }
+
+    val binary: Path = {
+      val buffer = ByteBuffer.allocate(16 * Records)
+      uuids.foreach(uuid => buffer.putLong(uuid.getMostSignificantBits).putLong(uuid.getLeastSignificantBits))
+      Files.write(directory.resolve("uuids.bin"), buffer.array())
+    }
+
+    val output: Path = directory.resolve("sorted")
+
+    val sort: UUIDExternalSort = new UUIDExternalSort(RunSize, directory)
+
+    @TearDown
+    def delete(): Unit =
+      List(text, binary, output).foreach(Files.deleteIfExists)
+
+  }
+
+}
+
+/** Sorting and deduplicating `Records` UUIDs from text or binary files with `UUIDExternalSort`, spilling 8 runs to
+  * temporary files. Each sort returns its `Stats`, whose `peakTempBytes` and `tempBytesWritten` give the temporary disk
+  * space it needed: 16 bytes per input UUID here, as runs are merged in a single pass.
+  */
+@Warmup(
+  iterations = 3,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@Measurement(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@OperationsPerInvocation(ExternalSortStates.Records)
+class ExternalSortBenchmark {
+
+  import ExternalSortStates._
+
+  @Benchmark
+  def textToText(x: Inputs): UUIDExternalSort.Stats =
+    x.sort.sort(x.text, Format.TEXT, x.output, Format.TEXT)
+
+  @Benchmark
+  def textToBinary(x: Inputs): UUIDExternalSort.Stats =
+    x.sort.sort(x.text, Format.TEXT, x.output, Format.BINARY)
+
+  @Benchmark
+  def binaryToBinary(x: Inputs): UUIDExternalSort.Stats =
+    x.sort.sort(x.binary, Format.BINARY, x.output, Format.BINARY)
+
+  @Benchmark
+  def binaryToIndex(x: Inputs): UUIDExternalSort.Stats =
+    x.sort.sort(x.binary, Format.BINARY, x.output, Format.INDEX)
+
+}
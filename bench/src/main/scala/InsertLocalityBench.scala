@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.bench
+
+import java.util.Comparator
+import java.util.TreeSet
+import java.util.concurrent.TimeUnit
+
+import memeid4s.UUID
+import org.openjdk.jmh.annotations._
+
+object InsertLocalityStates {
+
+  final val Keys = 100000
+
+  /** Orders UUIDs bytewise, as databases (e.g. Postgres' `uuid` type) do in their indexes. */
+  val bytewise: Comparator[UUID] = (a: UUID, b: UUID) => {
+    val msb = java.lang.Long.compareUnsigned(a.getMostSignificantBits, b.getMostSignificantBits)
+    if (msb != 0) msb else java.lang.Long.compareUnsigned(a.getLeastSignificantBits, b.getLeastSignificantBits)
+  }
+
+  @State(Scope.Benchmark)
+  class Generated {
+
+    val v1: Array[UUID] = UUID.V1.nextBatch(Keys)
+
+    val v4: Array[UUID] = Array.fill(Keys)(UUID.V4.random)
+
+    val v7: Array[UUID] = UUID.V7.nextBatch(Keys)
+
+  }
+
+}
+
+/** Inserts keys, in generation order, into an index sorted bytewise. Random V4 keys land all over the index, while V7
+  * keys always land next to the previous one. V1 keys start with the lowest 32 bits of their timestamp, so they only
+  * look sequential here because those bits don't wrap while generating them: in a real table they wrap every few
+  * minutes and inserts jump back to the beginning of the index.
+  */
+@Warmup(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@Measurement(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@OperationsPerInvocation(InsertLocalityStates.Keys)
+class InsertLocalityBenchmark {
+
+  import InsertLocalityStates._
+
+  @Benchmark
+  def insertV1(x: Generated): TreeSet[UUID] = insert(x.v1)
+
+  @Benchmark
+  def insertV4(x: Generated): TreeSet[UUID] = insert(x.v4)
+
+  @Benchmark
+  def insertV7(x: Generated): TreeSet[UUID] = insert(x.v7)
+
+  private def insert(keys: Array[UUID]): TreeSet[UUID] = {
+    val index = new TreeSet[UUID](bytewise)
+    keys.foreach(index.add)
+    index
+  }
+
+}
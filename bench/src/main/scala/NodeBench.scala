@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid4s.bench
+
+import java.util.concurrent.TimeUnit
+
+import memeid4s.UUID
+import org.openjdk.jmh.annotations._
+
+/** Time to generate the first V1 UUID in a fresh JVM, which includes creating the `Node` of the JVM. Deriving its id
+  * from the network waits on the host's name and addresses being resolved, which can take seconds where DNS is slow,
+  * while deriving it from local sources only or configuring it doesn't make any lookup.
+  */
+@BenchmarkMode(Array(Mode.SingleShotTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+class NodeBenchmark {
+
+  @Benchmark
+  def coldStartNetwork(): UUID = UUID.V1.next
+
+  @Benchmark
+  @Fork(value = 10, jvmArgsAppend = Array("-Dmemeid.node.source=local"))
+  def coldStartLocal(): UUID = UUID.V1.next
+
+  @Benchmark
+  @Fork(value = 10, jvmArgsAppend = Array("-Dmemeid.node.id=01:23:45:67:89:ab"))
+  def coldStartConfigured(): UUID = UUID.V1.next
+
+}
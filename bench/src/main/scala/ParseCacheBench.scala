@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.bench
+
+import java.util.concurrent.ThreadLocalRandom
+import java.util.concurrent.TimeUnit
+
+import memeid.UUIDParseCache
+import memeid4s.UUID
+import org.openjdk.jmh.annotations._
+
+object ParseCacheStates {
+
+  /** A working set of hot UUID strings, and a cache big enough to hold them. */
+  abstract class HotIds(size: Int) {
+
+    // Distinct String instances, as the ones read from each request would be
+    @SuppressWarnings(Array("scalafix:Disable.toString"))
+    val names: Array[String] = Array.fill(size)(new String(UUID.V4.random.toString.toCharArray))
+
+    val cache: UUIDParseCache = new UUIDParseCache(2 * size)
+
+    def name: String = names(ThreadLocalRandom.current().nextInt(names.length))
+
+  }
+
+  /** Fits in the CPU caches. */
+  @State(Scope.Benchmark)
+  class Few extends HotIds(1 << 10)
+
+  /** Doesn't fit in the CPU caches, so each lookup is dominated by memory accesses. */
+  @State(Scope.Benchmark)
+  class Many extends HotIds(1 << 16)
+
+}
+
+/** Compares parsing a working set of hot UUID strings with and without a `UUIDParseCache`. */
+@Warmup(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@Measurement(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+class ParseCacheBenchmark {
+
+  import ParseCacheStates._
+
+  @Benchmark
+  def fromStringFew(x: Few): memeid.UUID = memeid.UUID.fromString(x.name)
+
+  @Benchmark
+  def fromFew(x: Few): Either[Throwable, UUID] = UUID.from(x.name)
+
+  @Benchmark
+  def cachedFromStringFew(x: Few): memeid.UUID = x.cache.fromString(x.name)
+
+  @Benchmark
+  def cachedTryParseFew(x: Few): Option[UUID] = UUID.tryParse(x.name, x.cache)
+
+  @Benchmark
+  def fromStringMany(x: Many): memeid.UUID = memeid.UUID.fromString(x.name)
+
+  @Benchmark
+  def fromMany(x: Many): Either[Throwable, UUID] = UUID.from(x.name)
+
+  @Benchmark
+  def cachedFromStringMany(x: Many): memeid.UUID = x.cache.fromString(x.name)
+
+  @Benchmark
+  def cachedTryParseMany(x: Many): Option[UUID] = UUID.tryParse(x.name, x.cache)
+
+}
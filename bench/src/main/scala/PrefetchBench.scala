@@ -0,0 +1,58 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.bench
+
+import java.util.concurrent.TimeUnit
+
+import memeid.PrefetchingV4Generator
+import memeid.RandomSource
+import memeid.UUID
+import org.openjdk.jmh.annotations._
+
+/** Compares the latency distribution (including its p99 and p99.9) of random UUIDs generated in the calling thread
+  * against the ones taken from a `PrefetchingV4Generator`.
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.SampleTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@Measurement(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+class PrefetchBenchmark {
+
+  val generator: PrefetchingV4Generator = PrefetchingV4Generator.start(1 << 16, 1 << 14)
+
+  @TearDown
+  def close(): Unit = generator.close()
+
+  @Benchmark
+  def random(): UUID = UUID.V4.random()
+
+  @Benchmark
+  def secure(): UUID = UUID.V4.random(() => RandomSource.secure())
+
+  @Benchmark
+  def prefetching(): UUID = generator.next()
+
+}
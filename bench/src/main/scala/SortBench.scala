@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid4s.bench
+
+import java.util.Arrays
+import java.util.Comparator
+import java.util.concurrent.TimeUnit
+
+import scala.util.Random
+
+import memeid.collection.UUIDSort
+import memeid4s.UUID
+import org.openjdk.jmh.annotations._
+
+object SortStates {
+
+  final val Keys = 1 << 20
+
+  @State(Scope.Benchmark)
+  class Mixed {
+
+    /** V1, V4 and V7 UUIDs, in a fixed random order. */
+    val uuids: Array[UUID] = new Random(42).shuffle(
+      UUID.V1.nextBatch(Keys / 4).toList ++ List.fill(Keys / 2)(UUID.V4.random) ++ UUID.V7.nextBatch(Keys / 4)
+    ).toArray
+
+    val msbs: Array[Long] = uuids.map(_.getMostSignificantBits)
+
+    val lsbs: Array[Long] = uuids.map(_.getLeastSignificantBits)
+
+  }
+
+}
+
+/** Sorting `Keys` mixed-version UUIDs with `compareTo`, against radix sorting them by their sort keys with `UUIDSort`,
+  * both as `UUID` instances and as bits in `Long` arrays, sequentially and in parallel. Every invocation sorts a fresh
+  * copy.
+  */
+@Warmup(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@Measurement(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@OperationsPerInvocation(SortStates.Keys)
+class SortBenchmark {
+
+  import SortStates._
+
+  @Benchmark
+  def arraysSort(x: Mixed): Array[UUID] = {
+    val copy = x.uuids.clone()
+    Arrays.sort(copy, Comparator.naturalOrder[UUID]())
+    copy
+  }
+
+  @Benchmark
+  def arraysParallelSort(x: Mixed): Array[UUID] = {
+    val copy = x.uuids.clone()
+    Arrays.parallelSort(copy, Comparator.naturalOrder[UUID]())
+    copy
+  }
+
+  @Benchmark
+  def radixSort(x: Mixed): Array[UUID] = {
+    val copy = x.uuids.clone()
+    UUIDSort.sort(copy)
+    copy
+  }
+
+  @Benchmark
+  def parallelRadixSort(x: Mixed): Array[UUID] = {
+    val copy = x.uuids.clone()
+    UUIDSort.parallelSort(copy)
+    copy
+  }
+
+  @Benchmark
+  def radixSortBits(x: Mixed): Array[Long] = {
+    val msbs = x.msbs.clone()
+    UUIDSort.sort(msbs, x.lsbs.clone())
+    msbs
+  }
+
+  @Benchmark
+  def parallelRadixSortBits(x: Mixed): Array[Long] = {
+    val msbs = x.msbs.clone()
+    UUIDSort.parallelSort(msbs, x.lsbs.clone())
+    msbs
+  }
+
+}
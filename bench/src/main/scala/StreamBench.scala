@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.bench
+
+import java.util.SplittableRandom
+import java.util.concurrent.TimeUnit
+
+import memeid.Node
+import memeid.UUID
+import org.openjdk.jmh.annotations._
+
+/** Compares generating a million UUIDs one by one against sequential and parallel streams, and against filling arrays
+  * with their bits.
+  */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@Measurement(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+class StreamBenchmark {
+
+  val size: Int = 1 << 20
+
+  val node: Node = Node.getInstance()
+
+  val msbs: Array[Long] = new Array[Long](size)
+
+  val lsbs: Array[Long] = new Array[Long](size)
+
+  // Folds the streams, as counting a sized stream doesn't generate its elements
+
+  @Benchmark
+  def v1Loop(): Array[UUID] = Array.fill(size)(UUID.V1.next(node))
+
+  @Benchmark
+  def v1Stream(): Long = UUID.V1.stream(node, size.toLong).mapToLong(_.getMostSignificantBits).reduce(0L, _ ^ _)
+
+  @Benchmark
+  def v1ParallelStream(): Long = UUID.V1.stream(node, size.toLong).parallel().mapToLong(_.getMostSignificantBits).reduce(0L, _ ^ _)
+
+  @Benchmark
+  def v1Fill(): Array[Long] = {
+    UUID.V1.fill(node, msbs, lsbs)
+    msbs
+  }
+
+  @Benchmark
+  def v4Loop(): Array[UUID] = Array.fill(size)(UUID.V4.random())
+
+  @Benchmark
+  def v4ParallelStream(): Long = UUID.V4.stream(size.toLong).parallel().mapToLong(_.getMostSignificantBits).reduce(0L, _ ^ _)
+
+  @Benchmark
+  def v4SplittableParallelStream(): Long = UUID.V4.stream(new SplittableRandom(), size.toLong).parallel().mapToLong(_.getMostSignificantBits).reduce(0L, _ ^ _)
+
+  @Benchmark
+  def v4SplittableFill(): Array[Long] = {
+    UUID.V4.fill(new SplittableRandom(), msbs, lsbs)
+    msbs
+  }
+
+}
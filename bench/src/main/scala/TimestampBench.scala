@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.bench
+
+import java.util.concurrent.TimeUnit
+
+import memeid.Timestamp
+import org.openjdk.jmh.annotations._
+
+/** Compares `Timestamp.monotonic` against the previous `AtomicReference`-based clock ([[ReferenceTimestamp]]) with a
+  * growing number of threads.
+  */
+@Warmup(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@Measurement(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+class TimestampBenchmark {
+
+  @Benchmark
+  @Threads(1)
+  def monotonic1(): Long = Timestamp.monotonic()
+
+  @Benchmark
+  @Threads(8)
+  def monotonic8(): Long = Timestamp.monotonic()
+
+  @Benchmark
+  @Threads(32)
+  def monotonic32(): Long = Timestamp.monotonic()
+
+  @Benchmark
+  @Threads(64)
+  def monotonic64(): Long = Timestamp.monotonic()
+
+  @Benchmark
+  @Threads(1)
+  def reference1(): Long = ReferenceTimestamp.monotonic()
+
+  @Benchmark
+  @Threads(8)
+  def reference8(): Long = ReferenceTimestamp.monotonic()
+
+  @Benchmark
+  @Threads(32)
+  def reference32(): Long = ReferenceTimestamp.monotonic()
+
+  @Benchmark
+  @Threads(64)
+  def reference64(): Long = ReferenceTimestamp.monotonic()
+
+}
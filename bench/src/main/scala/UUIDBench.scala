@@ -16,28 +16,119 @@
 
 package memeid4s.bench
 
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.util.SplittableRandom
 import java.util.concurrent.ThreadLocalRandom
 import java.util.concurrent.TimeUnit
 
 import memeid4s.UUID
+import memeid4s.random.RandomSource
+import memeid4s.time.Time
 import org.openjdk.jmh.annotations._
 
 object UUIDStates {
 
   val namespace = UUID.V1.next
 
+  val namespaceV3 = UUID.V3.generator(namespace)
+
+  val namespaceV5 = UUID.V5.generator(namespace)
+
   @SuppressWarnings(Array("scalafix:Disable.toString"))
   val uuids: Array[String] = (1 to 100).map(_ => UUID.V1.next.toString).toArray
 
+  @State(Scope.Thread)
+  class Splittable {
+
+    private val random = new SplittableRandom()
+
+    val source: RandomSource = new RandomSource {
+
+      override def nextLong: Long = random.nextLong()
+
+    }
+
+  }
+
+  val uuidBytes: Array[Array[Byte]] = uuids.map(_.getBytes(StandardCharsets.UTF_8))
+
+  /** All of `uuids`, each one taking 36 ASCII bytes. */
+  val uuidsBuffer: ByteBuffer = {
+    val buffer = ByteBuffer.allocateDirect(uuids.length * 36)
+    uuidBytes.foreach(buffer.put)
+    buffer
+  }
+
   @State(Scope.Benchmark)
   class RNG {
 
     def uuid: String = uuids(ThreadLocalRandom.current().nextInt(uuids.length))
 
+    def bytes: Array[Byte] = uuidBytes(ThreadLocalRandom.current().nextInt(uuidBytes.length))
+
+    def index: Int = ThreadLocalRandom.current().nextInt(uuids.length) * 36
+
+    val builders: Array[java.lang.StringBuilder] = uuids.map(new java.lang.StringBuilder(_))
+
+    def builder: java.lang.StringBuilder = builders(ThreadLocalRandom.current().nextInt(builders.length))
+
+  }
+
+  @State(Scope.Thread)
+  class Longs {
+
+    val out: Array[Long] = new Array[Long](2)
+
+  }
+
+  @State(Scope.Thread)
+  class Buffers {
+
+    val builder: java.lang.StringBuilder = new java.lang.StringBuilder(36)
+
+    val bytes: Array[Byte] = new Array[Byte](36)
+
+    val direct: ByteBuffer = ByteBuffer.allocateDirect(36)
+
+  }
+
+  @State(Scope.Thread)
+  class V1Msbs {
+
+    val msbs: Array[Long] = Array.fill(4096)(UUID.V1.next.getMostSignificantBits)
+
+    val out: Array[Long] = new Array[Long](4096)
+
+  }
+
+  val parsed: Array[UUID] = uuids.map(UUID.from(_).getOrElse(UUID.Nil))
+
+  @State(Scope.Benchmark)
+  class Parsed {
+
+    def uuid: UUID = parsed(ThreadLocalRandom.current().nextInt(parsed.length))
+
   }
 
 }
 
+/** Allocation per operation (`runAvgtimeGc`, `gc.alloc.rate.norm`) before and after storing msb/lsb directly in
+  * `memeid.UUID` instead of wrapping a `java.util.UUID`:
+  *
+  * {{{
+  * Benchmark      Before     After
+  * fromString     48 B/op    32 B/op
+  * timeBased      72 B/op    56 B/op
+  * random        144 B/op   128 B/op
+  * squuid        176 B/op   128 B/op
+  * namespacedV3  472 B/op   424 B/op
+  * namespacedV5  456 B/op   440 B/op
+  * }}}
+  *
+  * Since hashing reuses a per-thread scratch buffer, `namespacedV3`/`namespacedV5` go down to 104 B/op (the name's
+  * bytes plus the UUID), and `namespacedV5CharSequence`/`namespacedV5Bytes` only allocate the resulting UUID (32 B/op).
+  */
 @Warmup(
   iterations = 5,
   time = 1,
@@ -56,14 +147,63 @@ class UUIDBenchmark {
   def timeBased(): UUID =
     UUID.V1.next
 
+  @Benchmark
+  def timeBasedHighResolution(): UUID =
+    UUID.V1.next(implicitly, Time.highResolution)
+
+  @Benchmark
+  @OperationsPerInvocation(1000)
+  def timeBasedBatch(): Array[UUID] =
+    UUID.V1.nextBatch(1000)
+
+  @Benchmark
+  def reorderedTimeBased(): UUID =
+    UUID.V6.next
+
+  @Benchmark
+  @OperationsPerInvocation(4096)
+  def convertV1ToV6(x: V1Msbs): Array[Long] = {
+    memeid.UUID.V6.fromV1(x.msbs, 0, x.out, 0, 4096)
+    x.out
+  }
+
+  @Benchmark
+  def timeOrdered(): UUID =
+    UUID.V7.next
+
+  @Benchmark
+  def timeOrderedThreadLocal(): UUID =
+    UUID.V7.next(RandomSource.threadLocal)
+
+  @Benchmark
+  @OperationsPerInvocation(1000)
+  def timeOrderedBatch(): Array[UUID] =
+    UUID.V7.nextBatch(1000)
+
   @Benchmark
   def random(): UUID =
     UUID.V4.random
 
+  @Benchmark
+  def randomThreadLocal(): UUID =
+    UUID.V4.random(RandomSource.threadLocal)
+
+  @Benchmark
+  def randomSecure(): UUID =
+    UUID.V4.random(RandomSource.secure)
+
+  @Benchmark
+  def randomSplittable(x: Splittable): UUID =
+    UUID.V4.random(x.source)
+
   @Benchmark
   def squuid(): UUID =
     UUID.V4.squuid
 
+  @Benchmark
+  def squuidThreadLocal(): UUID =
+    UUID.V4.squuid(RandomSource.threadLocal)
+
   @Benchmark
   def namespacedV3(x: RNG): UUID =
     UUID.V3(namespace, x.uuid)
@@ -72,8 +212,88 @@ class UUIDBenchmark {
   def namespacedV5(x: RNG): UUID =
     UUID.V5(namespace, x.uuid)
 
+  @Benchmark
+  def namespacedV3Generator(x: RNG): UUID =
+    namespaceV3(x.uuid)
+
+  @Benchmark
+  def namespacedV5Generator(x: RNG): UUID =
+    namespaceV5(x.uuid)
+
+  @Benchmark
+  def namespacedV5CharSequence(x: RNG): UUID =
+    memeid.UUID.V5.from(namespace, x.uuid: CharSequence)
+
+  @Benchmark
+  def namespacedV5Bytes(x: RNG): UUID = {
+    val bytes = x.bytes
+    memeid.UUID.V5.from(namespace, bytes, 0, bytes.length)
+  }
+
   @Benchmark
   def fromString(x: RNG): UUID =
     memeid.UUID.fromString(x.uuid)
 
+  @Benchmark
+  @SuppressWarnings(Array("scalafix:Disable.toString"))
+  def toStringJava(x: Parsed): String = {
+    val uuid = x.uuid
+    new java.util.UUID(uuid.getMostSignificantBits, uuid.getLeastSignificantBits).toString
+  }
+
+  @Benchmark
+  @SuppressWarnings(Array("scalafix:Disable.toString"))
+  def toStringMemeid(x: Parsed): String =
+    x.uuid.toString
+
+  @Benchmark
+  def appendTo(x: Parsed, y: Buffers): java.lang.StringBuilder = {
+    y.builder.setLength(0)
+    x.uuid.appendTo(y.builder)
+  }
+
+  @Benchmark
+  def writeAsciiBytes(x: Parsed, y: Buffers): Array[Byte] = {
+    x.uuid.writeAscii(y.bytes, 0)
+    y.bytes
+  }
+
+  @Benchmark
+  def writeAsciiByteBuffer(x: Parsed, y: Buffers): ByteBuffer = {
+    y.direct.clear()
+    x.uuid.writeAscii(y.direct)
+  }
+
+  @Benchmark
+  def fromInvalid(): Either[Throwable, UUID] =
+    UUID.from("not-a-uuid")
+
+  @Benchmark
+  def tryParseInvalid(): UUID =
+    memeid.UUID.tryParse("not-a-uuid")
+
+  @Benchmark
+  def fromCharSequence(x: RNG): UUID =
+    memeid.UUID.fromCharSequence(x.builder)
+
+  @Benchmark
+  def fromAsciiBytes(x: RNG): UUID =
+    memeid.UUID.fromAscii(x.bytes, 0)
+
+  @Benchmark
+  def fromAsciiByteBuffer(x: RNG): UUID =
+    memeid.UUID.fromAscii(uuidsBuffer, x.index)
+
+  @Benchmark
+  def parseLongs(x: RNG, y: Longs): Array[Long] = {
+    memeid.UUID.parse(x.uuid, y.out, 0)
+    y.out
+  }
+
+  @Benchmark
+  def parseLongsFromAscii(x: RNG, y: Longs): Array[Long] = {
+    memeid.UUID.parse(x.bytes, 0, y.out, 0)
+    y.out
+  }
+
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.bench
+
+import java.util.concurrent.TimeUnit
+
+import memeid.Node
+import memeid.UUID
+import memeid.V1Generator
+import org.openjdk.jmh.annotations._
+
+/** Compares `UUID.V1.next`, whose threads share a single clock, against a striped `V1Generator` with a growing number
+  * of threads.
+  */
+@State(Scope.Benchmark)
+@Warmup(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+@Measurement(
+  iterations = 5,
+  time = 1,
+  timeUnit = TimeUnit.SECONDS
+)
+class V1GeneratorBenchmark {
+
+  val generator: V1Generator = new V1Generator(Node.getInstance(), 64)
+
+  @Benchmark
+  @Threads(1)
+  def shared1(): UUID = UUID.V1.next()
+
+  @Benchmark
+  @Threads(8)
+  def shared8(): UUID = UUID.V1.next()
+
+  @Benchmark
+  @Threads(32)
+  def shared32(): UUID = UUID.V1.next()
+
+  @Benchmark
+  @Threads(64)
+  def shared64(): UUID = UUID.V1.next()
+
+  @Benchmark
+  @Threads(1)
+  def striped1(): UUID = generator.next()
+
+  @Benchmark
+  @Threads(8)
+  def striped8(): UUID = generator.next()
+
+  @Benchmark
+  @Threads(32)
+  def striped32(): UUID = generator.next()
+
+  @Benchmark
+  @Threads(64)
+  def striped64(): UUID = generator.next()
+
+}
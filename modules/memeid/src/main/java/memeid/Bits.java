@@ -46,6 +46,25 @@ public final class Bits {
 		return l;
 	}
 
+	/* Write a Long in the byte array starting at `offset`. */
+	public static void toBytes(final long x, final byte[] bytes, final int offset) {
+		for (int i = 0; i < 8; i++) {
+			bytes[offset + i] = (byte) (x >> (56 - 8 * i));
+		}
+	}
+
+	/* Convert to a Long from the 8 bytes of the array starting at `offset`. */
+	public static long fromBytes(final byte[] bytes, final int offset) {
+		long l = 0;
+
+		for (int i = offset; i < offset + 8; i++) {
+			l <<= 8;
+			l |= bytes[i] & 0xFF;
+		}
+
+		return l;
+	}
+
 	/* Read the byte(s) from `num` specified by the `bitmask`. */
 	public static long readByte(final long bitmask, final long num) {
 		final long off = maskOffset(bitmask);
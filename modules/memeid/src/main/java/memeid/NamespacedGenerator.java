@@ -0,0 +1,274 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static memeid.Bits.fromBytes;
+import static memeid.Bits.toBytes;
+
+/**
+ * Generator of name-based ({@link UUID.V3} or {@link UUID.V5}) UUIDs bound to
+ * a single namespace.
+ * <p>
+ * The namespace bytes are computed once and each thread reuses its own
+ * {@link MessageDigest} and scratch buffer, so generating a UUID doesn't need
+ * to look up the hashing algorithm. The {@link CharSequence},
+ * {@link ByteBuffer} and byte range variants don't allocate anything but the
+ * resulting UUID. Instances are thread-safe and meant to be kept and
+ * reused, for example:
+ *
+ * <pre>
+ * {@code
+ * NamespacedGenerator users = NamespacedGenerator.v5(namespace);
+ *
+ * UUID uuid = users.from("user-name");
+ * }
+ * </pre>
+ */
+public final class NamespacedGenerator {
+
+    /**
+     * Creates a generator of {@link UUID.V3} UUIDs (which use MD5 as hash
+     * algorithm) for the provided namespace.
+     *
+     * @param namespace {@link UUID} used for the {@link UUID.V3} generation
+     * @return a generator of {@link UUID.V3} UUIDs
+     */
+    public static NamespacedGenerator v3(UUID namespace) {
+        return new NamespacedGenerator(namespace, MD5);
+    }
+
+    /**
+     * Creates a generator of {@link UUID.V5} UUIDs (which use SHA1 as hash
+     * algorithm) for the provided namespace.
+     *
+     * @param namespace {@link UUID} used for the {@link UUID.V5} generation
+     * @return a generator of {@link UUID.V5} UUIDs
+     */
+    public static NamespacedGenerator v5(UUID namespace) {
+        return new NamespacedGenerator(namespace, SHA1);
+    }
+
+    /**
+     * Construct a name-based UUID for this generator's namespace.
+     *
+     * @param name name used for the UUID generation in string format
+     * @return a name-based UUID
+     */
+    public UUID from(String name) {
+        if (Hasher.DEFAULT_CHARSET_IS_UTF_8)
+            return from((CharSequence) name);
+
+        return from(name, String::getBytes);
+    }
+
+    /**
+     * Construct a name-based UUID for this generator's namespace from the UTF-8
+     * encoding of the provided characters, without allocating intermediate
+     * arrays.
+     *
+     * @param name name used for the UUID generation
+     * @return a name-based UUID
+     */
+    public UUID from(CharSequence name) {
+        Objects.requireNonNull(name, "name");
+
+        final Hasher hasher = hashers.get().reset();
+        hasher.update(namespace, 0, namespace.length);
+        hasher.update(name);
+        return hasher.digest();
+    }
+
+    /**
+     * Construct a name-based UUID for this generator's namespace from a range of
+     * a byte array.
+     *
+     * @param name   array containing the name used for the UUID generation
+     * @param offset index of the first byte of the name
+     * @param length number of bytes of the name
+     * @return a name-based UUID
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array
+     */
+    public UUID from(byte[] name, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, name.length);
+
+        final Hasher hasher = hashers.get().reset();
+        hasher.update(namespace, 0, namespace.length);
+        hasher.update(name, offset, length);
+        return hasher.digest();
+    }
+
+    /**
+     * Construct a name-based UUID for this generator's namespace from the
+     * remaining bytes of a {@link ByteBuffer}. The buffer's position is left
+     * unchanged.
+     *
+     * @param name buffer containing the name used for the UUID generation
+     * @return a name-based UUID
+     */
+    public UUID from(ByteBuffer name) {
+        Objects.requireNonNull(name, "name");
+
+        final Hasher hasher = hashers.get().reset();
+        hasher.update(namespace, 0, namespace.length);
+        hasher.update(name);
+        return hasher.digest();
+    }
+
+    /**
+     * Construct a name-based UUID for this generator's namespace.
+     *
+     * @param name        name used for the UUID generation
+     * @param nameToBytes function used to convert the name to a byte array
+     * @param <A>         the type of the name parameter
+     * @return a name-based UUID
+     */
+    public <A> UUID from(A name, Function<A, byte[]> nameToBytes) {
+        final byte[] bytes = nameToBytes.apply(name);
+
+        final Hasher hasher = hashers.get().reset();
+        hasher.update(namespace, 0, namespace.length);
+        hasher.update(bytes, 0, bytes.length);
+        return hasher.digest();
+    }
+
+    /* Per-thread MD5 hashers, shared by every V3 generation. */
+    static final ThreadLocal<Hasher> MD5 = ThreadLocal.withInitial(() -> new Hasher("MD5", 3));
+
+    /* Per-thread SHA1 hashers, shared by every V5 generation. */
+    static final ThreadLocal<Hasher> SHA1 = ThreadLocal.withInitial(() -> new Hasher("SHA1", 5));
+
+    /*
+     * A digest together with a scratch buffer, so namespaces, names and the
+     * resulting hash can be processed without allocating. It must only be used
+     * by the thread owning it.
+     */
+    static final class Hasher {
+
+        static final boolean DEFAULT_CHARSET_IS_UTF_8 = UTF_8.equals(Charset.defaultCharset());
+
+        private final MessageDigest md;
+
+        private final int version;
+
+        private final byte[] buffer = new byte[128];
+
+        private Hasher(String algorithm, int version) {
+            try {
+                this.md = MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException nsae) {
+                throw new InternalError(algorithm + " not supported", nsae);
+            }
+            this.version = version;
+        }
+
+        /* Discards anything left over by a generation that failed halfway, returning this hasher. */
+        Hasher reset() {
+            md.reset();
+            return this;
+        }
+
+        void update(long msb, long lsb) {
+            toBytes(msb, buffer, 0);
+            toBytes(lsb, buffer, 8);
+            md.update(buffer, 0, 16);
+        }
+
+        void update(byte[] bytes, int offset, int length) {
+            md.update(bytes, offset, length);
+        }
+
+        void update(ByteBuffer bytes) {
+            final int position = bytes.position();
+            md.update(bytes);
+            bytes.position(position);
+        }
+
+        /* Feeds the UTF-8 encoding of `chars`, replacing unpaired surrogates with '?' like `String#getBytes`. */
+        void update(CharSequence chars) {
+            final int length = chars.length();
+            int pos = 0;
+
+            for (int i = 0; i < length; i++) {
+                if (pos > buffer.length - 4) {
+                    md.update(buffer, 0, pos);
+                    pos = 0;
+                }
+
+                final char c = chars.charAt(i);
+
+                if (c < 0x80) {
+                    buffer[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[pos++] = (byte) (0xC0 | (c >> 6));
+                    buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    final char next = i + 1 < length ? chars.charAt(i + 1) : 0;
+
+                    if (Character.isHighSurrogate(c) && Character.isLowSurrogate(next)) {
+                        final int cp = Character.toCodePoint(c, next);
+                        buffer[pos++] = (byte) (0xF0 | (cp >> 18));
+                        buffer[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                        buffer[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                        buffer[pos++] = (byte) (0x80 | (cp & 0x3F));
+                        i++;
+                    } else {
+                        buffer[pos++] = '?';
+                    }
+                } else {
+                    buffer[pos++] = (byte) (0xE0 | (c >> 12));
+                    buffer[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[pos++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+
+            md.update(buffer, 0, pos);
+        }
+
+        /* Completes the hash and builds the name-based UUID from its first 16 bytes. */
+        UUID digest() {
+            try {
+                md.digest(buffer, 0, buffer.length);
+            } catch (DigestException de) {
+                throw new InternalError(de);
+            }
+
+            return UUID.fromDigest(version, fromBytes(buffer, 0), fromBytes(buffer, 8));
+        }
+
+    }
+
+    private final byte[] namespace;
+
+    private final ThreadLocal<Hasher> hashers;
+
+    private NamespacedGenerator(UUID namespace, ThreadLocal<Hasher> hashers) {
+        this.namespace = new byte[16];
+        toBytes(namespace.getMostSignificantBits(), this.namespace, 0);
+        toBytes(namespace.getLeastSignificantBits(), this.namespace, 8);
+        this.hashers = hashers;
+    }
+
+}
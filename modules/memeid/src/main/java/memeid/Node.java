@@ -16,33 +16,97 @@
 
 package memeid;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static memeid.Bits.fromBytes;
 
+/**
+ * The node a V1 or V6 UUID is generated in: its 48-bit id and its clock
+ * sequence.
+ * <p>
+ * The node returned by {@link #getInstance()} is created once, on first use,
+ * as configured by these system properties or, if a property isn't set, by the
+ * environment variable named after it in upper case with underscores
+ * ({@code memeid.node.id} becomes {@code MEMEID_NODE_ID}):
+ *
+ * <ul>
+ * <li>{@code memeid.node.id}: the node id, as up to 12 hexadecimal digits,
+ * optionally separated by colons or dashes like a MAC address.</li>
+ * <li>{@code memeid.node.clock-sequence}: the clock sequence, from 0 to
+ * 32767. It is random by default.</li>
+ * <li>{@code memeid.node.source}: where the node id is derived from when it
+ * isn't set, either {@code network} (the default) for the host's name,
+ * addresses and interfaces, or {@code local} for local sources only (see
+ * {@link #local()}), which doesn't wait on DNS lookups. If the network can't
+ * be queried, local sources are used too.</li>
+ * <li>{@code memeid.node.file}: a file to store the node in and reuse it
+ * from on later runs (see {@link #persisted(Path, Supplier)}).</li>
+ * <li>{@code memeid.node.lease-directory}: a directory shared by the
+ * processes of the host to lease a slot from, so each one gets a distinct
+ * node id (see {@link NodeLease}). The lease is held until the JVM shuts
+ * down.</li>
+ * <li>{@code memeid.node.lease-slots}: the number of slots of the lease
+ * directory, {@value #DEFAULT_LEASE_SLOTS} by default.</li>
+ * </ul>
+ */
 public class Node {
 
-    private static Node instance;
+    /* Created on the first successful call to getInstance(), so a failure can be retried instead of failing for good. */
+    private static volatile Node instance;
 
+    /**
+     * Returns the node of this JVM, created on first use as configured by
+     * system properties or environment variables.
+     * <p>
+     * If creating it fails, the exception is thrown and the next call tries
+     * again.
+     *
+     * @return the node of this JVM
+     * @throws IllegalArgumentException if the configuration is invalid
+     * @throws UncheckedIOException     if the configured file can't be read or
+     *                                  written, or no node can be leased
+     */
     public static Node getInstance() {
-        if (instance == null) {
-            try {
-                instance = new Node();
-            } catch (SocketException | UnknownHostException | NoSuchAlgorithmException e) {
-                throw new RuntimeException("Unable to instantiate Node", e);
+        Node node = instance;
+
+        if (node == null) {
+            synchronized (Node.class) {
+                node = instance;
+
+                if (node == null) {
+                    node = fromConfiguration(System::getProperty, System::getenv);
+                    instance = node;
+                }
             }
         }
 
-        return instance;
+        return node;
     }
 
+    /**
+     * The number of slots leased from the {@code memeid.node.lease-directory}
+     * when {@code memeid.node.lease-slots} is not set.
+     */
+    public static final int DEFAULT_LEASE_SLOTS = 256;
+
     /**
      * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.5">RFC-4122</a>
      */
@@ -54,8 +118,214 @@ public class Node {
     public final long id;
 
     public Node() throws SocketException, UnknownHostException, NoSuchAlgorithmException {
-        MessageDigest messageDigest = MessageDigest.getInstance("MD5");
+        this(randomClockSequence(), networkId());
+    }
+
+    public Node(short clockSequence, long id) {
+        this.clockSequence = clockSequence;
+        this.id = id;
+    }
+
+    /**
+     * Creates a node with a random clock sequence and an id derived only from
+     * local sources, with no network lookups: some system properties, the host
+     * name in the environment or in {@code /etc/hostname} and the
+     * {@code /etc/machine-id} of Linux hosts.
+     *
+     * @return a node with an id derived from local sources
+     */
+    public static Node local() {
+        Stream.Builder<String> builder = Stream.builder();
+
+        for (String key : DATA_SOURCES) {
+            builder.accept(System.getProperty(key));
+        }
+
+        for (String key : LOCAL_DATA_SOURCES) {
+            builder.accept(System.getProperty(key));
+        }
+
+        builder.accept(System.getenv("HOSTNAME"));
+        builder.accept(System.getenv("COMPUTERNAME"));
+
+        for (String file : LOCAL_FILES) {
+            try {
+                builder.accept(new String(Files.readAllBytes(Paths.get(file)), StandardCharsets.UTF_8).trim());
+            } catch (IOException | SecurityException e) {
+                // Not every host has them
+            }
+        }
+
+        return new Node(randomClockSequence(), idFrom(builder.build()));
+    }
+
+    /**
+     * Returns the node stored in the provided file, or creates one with
+     * {@code generator} if there is no such file yet.
+     * <p>
+     * As RFC 4122 recommends when the previous clock sequence is known, a stored
+     * node is returned with its clock sequence incremented, so UUIDs generated
+     * after a restart don't collide with earlier ones even if the clock went
+     * backwards meanwhile. Either way, the returned node is stored in the file,
+     * replacing it atomically.
+     *
+     * @param path      the file storing the node
+     * @param generator creates the node if the file doesn't exist
+     * @return the node stored in the file, or the new one
+     * @throws IOException if the file can't be read or written, or is invalid
+     */
+    public static Node persisted(Path path, Supplier<Node> generator) throws IOException {
+        final Node node;
+
+        if (Files.exists(path)) {
+            final Properties properties = new Properties();
+
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+
+            try {
+                final short stored = parseClockSequence(properties.getProperty("clockSequence"));
+
+                node = new Node((short) ((stored + 1) & Short.MAX_VALUE), parseId(properties.getProperty("id")));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IOException("Invalid node file: " + path, e);
+            }
+        } else {
+            node = generator.get();
+        }
+
+        final Properties properties = new Properties();
+        properties.setProperty("id", String.format("%012x", node.id));
+        properties.setProperty("clockSequence", Integer.toString(node.clockSequence & Short.MAX_VALUE));
+
+        final Path absolute = path.toAbsolutePath();
+        final Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, "memeid node");
+            }
+
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        return node;
+    }
 
+    /* Creates the node configured by the provided settings, as described in the class documentation. */
+    static Node fromConfiguration(Function<String, String> properties, Function<String, String> environment) {
+        final Function<String, String> setting = key -> {
+            final String property = properties.apply(key);
+
+            return property != null ? property
+                    : environment.apply(key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+        };
+
+        final String id = setting.apply("memeid.node.id");
+        final String clockSequence = setting.apply("memeid.node.clock-sequence");
+        final String source = setting.apply("memeid.node.source");
+        final String file = setting.apply("memeid.node.file");
+        final String leaseDirectory = setting.apply("memeid.node.lease-directory");
+        final String leaseSlots = setting.apply("memeid.node.lease-slots");
+
+        if (source != null && !source.equals("network") && !source.equals("local")) {
+            throw new IllegalArgumentException("Invalid node source: " + source);
+        }
+
+        final Supplier<Node> generator = () -> {
+            final short sequence = clockSequence != null ? parseClockSequence(clockSequence) : randomClockSequence();
+
+            if (id != null) {
+                return new Node(sequence, parseId(id));
+            }
+
+            if ("local".equals(source)) {
+                return new Node(sequence, local().id);
+            }
+
+            try {
+                return new Node(sequence, networkId());
+            } catch (SocketException | UnknownHostException e) {
+                return new Node(sequence, local().id);
+            }
+        };
+
+        final Node node;
+
+        try {
+            node = file == null ? generator.get() : persisted(Paths.get(file), generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to persist Node to " + file, e);
+        }
+
+        if (leaseDirectory == null) {
+            return node;
+        }
+
+        final int slots = leaseSlots != null ? parseSlots(leaseSlots) : DEFAULT_LEASE_SLOTS;
+
+        try {
+            final NodeLease lease = NodeLease.acquire(Paths.get(leaseDirectory), node, slots);
+
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    lease.close();
+                } catch (IOException e) {
+                    // The slot is released when the process ends anyway
+                }
+            }, "memeid-node-lease"));
+
+            return lease.node();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to lease a Node from " + leaseDirectory, e);
+        }
+    }
+
+    private static int parseSlots(String slots) {
+        try {
+            return Integer.parseInt(slots.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number of slots: " + slots, e);
+        }
+    }
+
+    /* Parses a node id of up to 12 hex digits, which may be separated by colons or dashes. */
+    static long parseId(String id) {
+        final String digits = id.trim().replace(":", "").replace("-", "");
+
+        if (digits.isEmpty() || digits.length() > 12) {
+            throw new IllegalArgumentException("Invalid node id: " + id);
+        }
+
+        try {
+            return Long.parseLong(digits, 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid node id: " + id, e);
+        }
+    }
+
+    static short parseClockSequence(String clockSequence) {
+        try {
+            final int sequence = Integer.parseInt(clockSequence.trim());
+
+            if (sequence >= 0 && sequence <= Short.MAX_VALUE) {
+                return (short) sequence;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+
+        throw new IllegalArgumentException("Invalid clock sequence: " + clockSequence);
+    }
+
+    private static short randomClockSequence() {
+        return (short) new Random().nextInt(Short.MAX_VALUE + 1);
+    }
+
+    private static long networkId() throws SocketException, UnknownHostException {
         Stream.Builder<String> builder = Stream.builder();
 
         for (String key : DATA_SOURCES) {
@@ -76,8 +346,20 @@ public class Node {
             builder.accept(n.toString());
         }
 
-        builder.build()
-                .filter(Objects::nonNull)
+        return idFrom(builder.build());
+    }
+
+    /* Hashes the distinct, non-null sources into an id, with the multicast bit set as it isn't a MAC address. */
+    private static long idFrom(Stream<String> sources) {
+        final MessageDigest messageDigest;
+
+        try {
+            messageDigest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+
+        sources.filter(Objects::nonNull)
                 .distinct()
                 .map(String::getBytes)
                 .forEach(messageDigest::update);
@@ -86,15 +368,13 @@ public class Node {
 
         byte[] bytes = {0, 0, digest[0], digest[1], digest[2], digest[3], digest[4], (byte) (digest[5] | 0x01)};
 
-        clockSequence = (short) new Random().nextInt(Short.MAX_VALUE + 1);
-        id = fromBytes(bytes);
-    }
-
-    public Node(short clockSequence, long id) {
-        this.clockSequence = clockSequence;
-        this.id = id;
+        return fromBytes(bytes);
     }
 
     private static final List<String> DATA_SOURCES = Arrays.asList("java.vendor", "java.vendor.url", "java.version", "os.arch", "os.name", "os.version");
 
+    private static final List<String> LOCAL_DATA_SOURCES = Arrays.asList("user.name", "user.home");
+
+    private static final List<String> LOCAL_FILES = Arrays.asList("/etc/hostname", "/etc/machine-id");
+
 }
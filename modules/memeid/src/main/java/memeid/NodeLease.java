@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lease of one of several node slots shared by the processes of a host
+ * through a local directory, giving each process that holds one a distinct
+ * {@link Node}.
+ * <p>
+ * Processes on the same host derive the same node id from the same sources,
+ * so their V1 UUIDs only differ by their random clock sequences. A lease
+ * locks a file of the directory ({@code node-<slot>.lock}) with
+ * {@link FileChannel#tryLock()} and mixes the slot into the id of the base
+ * node (above its lowest bit, which marks it as not being a MAC address), so
+ * no two live processes sharing the directory ever use the same node id.
+ * <p>
+ * The slot is released when the lease is closed, or by the operating system
+ * when the process ends, however it ends. Leases are also exclusive between
+ * threads of the same JVM.
+ */
+public final class NodeLease implements Closeable {
+
+    /**
+     * The maximum number of slots of a lease directory.
+     */
+    public static final int MAX_SLOTS = 1 << 16;
+
+    private final Node node;
+
+    private final int slot;
+
+    private final FileChannel channel;
+
+    private final FileLock lock;
+
+    private NodeLease(Node base, int slot, FileChannel channel, FileLock lock) {
+        this.node = new Node(base.clockSequence, base.id ^ ((long) slot << 1));
+        this.slot = slot;
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * Leases the first free slot out of {@code slots} in the provided
+     * directory, which is created if needed.
+     *
+     * @param directory the directory shared by the processes of the host
+     * @param base      the node whose id is made unique with the slot
+     * @param slots     the number of slots of the directory
+     * @return the lease of the slot
+     * @throws IllegalArgumentException if {@code slots} is not between 1 and
+     *                                  {@link #MAX_SLOTS}
+     * @throws IOException              if every slot is leased, or the
+     *                                  directory can't be written
+     */
+    public static NodeLease acquire(Path directory, Node base, int slots) throws IOException {
+        if (slots < 1 || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException("Invalid number of slots: " + slots);
+        }
+
+        Files.createDirectories(directory);
+
+        for (int slot = 0; slot < slots; slot++) {
+            final FileChannel channel = FileChannel.open(directory.resolve("node-" + slot + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+
+            FileLock lock = null;
+
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                // Already leased by this JVM
+            } finally {
+                if (lock == null) {
+                    channel.close();
+                }
+            }
+
+            if (lock != null) {
+                return new NodeLease(base, slot, channel, lock);
+            }
+        }
+
+        throw new IOException("All " + slots + " node slots in " + directory + " are leased");
+    }
+
+    /**
+     * Returns the node of this lease: the base node with the slot mixed into its
+     * id.
+     *
+     * @return the leased node
+     */
+    public Node node() {
+        return node;
+    }
+
+    /**
+     * Returns the leased slot.
+     *
+     * @return the leased slot
+     */
+    public int slot() {
+        return slot;
+    }
+
+    /**
+     * Releases the slot. The node must not be used to generate UUIDs afterwards.
+     *
+     * @throws IOException if the lock can't be released
+     */
+    @Override
+    public void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+
+        try {
+            lock.release();
+        } finally {
+            channel.close();
+        }
+    }
+
+}
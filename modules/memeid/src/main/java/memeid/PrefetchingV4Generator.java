@@ -0,0 +1,260 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid;
+
+import java.io.Closeable;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generator of random ({@link UUID.V4}) UUIDs that are prepared ahead of time
+ * by a background thread, so getting one doesn't pay for
+ * {@link java.security.SecureRandom} (nor for its occasional reseeding) in
+ * the calling thread.
+ * <p>
+ * The random bits are kept in a lock-free ring buffer that any number of
+ * threads take from. Once the buffer is down to its low watermark, the
+ * background thread is woken up to fill it up to its capacity again, and then
+ * parks until it is needed. If the buffer is ever empty, the UUID is generated
+ * in the calling thread from {@link RandomSource#secure()}, and the miss is
+ * counted in {@link #misses()}.
+ * <p>
+ * The bits come from {@link RandomSource#secure()} too, so the UUIDs are as
+ * unguessable as the ones of {@link UUID.V4#random()}. Create a generator once,
+ * reuse it and close it when it's no longer needed, for example:
+ *
+ * <pre>
+ * {@code
+ * PrefetchingV4Generator generator = PrefetchingV4Generator.start(4096, 1024);
+ *
+ * UUID uuid = generator.next();
+ * }
+ * </pre>
+ */
+public final class PrefetchingV4Generator implements Closeable {
+
+    /**
+     * The capacity of the buffer of {@link #start()}.
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final int lowWatermark;
+
+    /* The random bits of each slot: msb at 2 * i and lsb at 2 * i + 1. */
+    private final long[] bits;
+
+    /*
+     * The position each slot is ready for: `p` when it can be filled for
+     * position `p` and `p + 1` when it holds the bits of position `p`.
+     */
+    private final AtomicLongArray sequences;
+
+    /* The next positions to take from and to fill, on cache lines of their own. */
+    private final AtomicLongArray positions = new AtomicLongArray(3 * PADDING);
+
+    private final LongAdder misses = new LongAdder();
+
+    private final Thread filler;
+
+    private volatile boolean parked;
+
+    private volatile boolean closed;
+
+    private PrefetchingV4Generator(int capacity, int lowWatermark, ThreadFactory threadFactory) {
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.lowWatermark = lowWatermark;
+        this.bits = new long[2 * capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.filler = threadFactory.newThread(this::fill);
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Starts a generator with a buffer of {@value #DEFAULT_CAPACITY} UUIDs that
+     * is refilled once a quarter of it is left, in a daemon thread.
+     *
+     * @return the started generator
+     */
+    public static PrefetchingV4Generator start() {
+        return start(DEFAULT_CAPACITY, DEFAULT_CAPACITY / 4);
+    }
+
+    /**
+     * Starts a generator with the given buffer capacity and low watermark, in a
+     * daemon thread.
+     *
+     * @param capacity     number of UUIDs the buffer holds, a power of two
+     * @param lowWatermark number of UUIDs left in the buffer when it starts being
+     *                     refilled
+     * @return the started generator
+     * @throws IllegalArgumentException if {@code capacity} is not a power of two
+     *                                  greater than 1, or {@code lowWatermark}
+     *                                  is not between 0 and {@code capacity - 1}
+     */
+    public static PrefetchingV4Generator start(int capacity, int lowWatermark) {
+        return start(capacity, lowWatermark, runnable -> {
+            final Thread thread = new Thread(runnable, "memeid-v4-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a generator with the given buffer capacity and low watermark, in a
+     * thread created by the provided factory (which could create virtual
+     * threads, where available).
+     *
+     * @param capacity      number of UUIDs the buffer holds, a power of two
+     * @param lowWatermark  number of UUIDs left in the buffer when it starts
+     *                      being refilled
+     * @param threadFactory creates the thread filling the buffer
+     * @return the started generator
+     * @throws IllegalArgumentException if {@code capacity} is not a power of two
+     *                                  greater than 1, or {@code lowWatermark}
+     *                                  is not between 0 and {@code capacity - 1}
+     */
+    public static PrefetchingV4Generator start(int capacity, int lowWatermark, ThreadFactory threadFactory) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+
+        if (lowWatermark < 0 || lowWatermark >= capacity) {
+            throw new IllegalArgumentException("Invalid low watermark: " + lowWatermark);
+        }
+
+        final PrefetchingV4Generator generator = new PrefetchingV4Generator(capacity, lowWatermark, threadFactory);
+        generator.filler.start();
+        return generator;
+    }
+
+    /**
+     * Returns a {@link UUID.V4} random UUID from the buffer, or generated in the
+     * calling thread if the buffer is empty.
+     *
+     * @return a {@link UUID.V4} random UUID
+     */
+    public UUID next() {
+        while (true) {
+            final long head = positions.get(HEAD);
+            final int index = (int) head & mask;
+            final long sequence = sequences.get(index);
+
+            if (sequence == head + 1) {
+                if (positions.compareAndSet(HEAD, head, head + 1)) {
+                    final long msb = bits[2 * index];
+                    final long lsb = bits[2 * index + 1];
+
+                    sequences.lazySet(index, head + capacity);
+
+                    if (parked && positions.get(TAIL) - head <= lowWatermark + 1) {
+                        LockSupport.unpark(filler);
+                    }
+
+                    return UUID.V4.from(msb, lsb);
+                }
+            } else if (sequence <= head) {
+                // Empty: don't wait for the filler
+                misses.increment();
+
+                if (parked) {
+                    LockSupport.unpark(filler);
+                }
+
+                return UUID.V4.random(RandomSource::secure);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of UUIDs currently in the buffer.
+     *
+     * @return the number of UUIDs currently in the buffer
+     */
+    public int available() {
+        return (int) Math.max(0, positions.get(TAIL) - positions.get(HEAD));
+    }
+
+    /**
+     * Returns the number of UUIDs that were generated in the calling thread
+     * because the buffer was empty. If it keeps growing, the capacity or the low
+     * watermark should be increased.
+     *
+     * @return the number of UUIDs not taken from the buffer
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Stops the thread filling the buffer. UUIDs left in the buffer are still
+     * handed out, and then generated in the calling thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(filler);
+    }
+
+    /* Fills the buffer up to its capacity, then parks until it's down to its low watermark. */
+    private void fill() {
+        long tail = positions.get(TAIL);
+
+        while (!closed) {
+            final int index = (int) tail & mask;
+
+            if (sequences.get(index) == tail) {
+                bits[2 * index] = RandomSource.secure();
+                bits[2 * index + 1] = RandomSource.secure();
+
+                sequences.lazySet(index, tail + 1);
+                positions.lazySet(TAIL, ++tail);
+                continue;
+            }
+
+            parked = true;
+
+            while (!closed && tail - positions.get(HEAD) > lowWatermark) {
+                LockSupport.parkNanos(this, PARK_TIMEOUT);
+            }
+
+            parked = false;
+        }
+    }
+
+    /* Longs between the positions, so each one sits on its own cache lines. */
+    private static final int PADDING = 16;
+
+    private static final int HEAD = PADDING;
+
+    private static final int TAIL = 2 * PADDING;
+
+    /* Upper bound of each park of the filler, in case a wake-up is missed. */
+    private static final long PARK_TIMEOUT = TimeUnit.MILLISECONDS.toNanos(10);
+
+}
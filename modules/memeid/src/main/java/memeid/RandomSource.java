@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sources of random {@code long} values to be used as the {@code LongSupplier}
+ * passed to {@link UUID.V4#random(java.util.function.LongSupplier)} and
+ * {@link UUID.V4#squuid(java.util.function.LongSupplier)}, for example:
+ *
+ * <pre>
+ * {@code
+ * UUID.V4.random(RandomSource::threadLocal);
+ * }
+ * </pre>
+ */
+public final class RandomSource {
+
+    /**
+     * Returns a random {@code long} from {@link ThreadLocalRandom}.
+     * <p>
+     * This source is not cryptographically strong, so it must not be used for
+     * UUIDs that need to be unguessable.
+     *
+     * @return a random {@code long}
+     */
+    public static long threadLocal() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Returns a random {@code long} from a {@link SecureRandom} owned by the
+     * calling thread.
+     * <p>
+     * Each thread reads its random bytes in blocks of 4 KB, so threads don't
+     * contend on a shared {@link SecureRandom} and most calls just read from
+     * memory.
+     *
+     * @return a cryptographically strong random {@code long}
+     */
+    public static long secure() {
+        return secureBuffers.get().nextLong();
+    }
+
+    private static final class SecureBuffer {
+
+        private final SecureRandom random = new SecureRandom();
+
+        private final byte[] bytes = new byte[4096];
+
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        private SecureBuffer() {
+            buffer.position(buffer.limit());
+        }
+
+        private long nextLong() {
+            if (buffer.remaining() < Long.BYTES) {
+                random.nextBytes(bytes);
+                buffer.clear();
+            }
+
+            return buffer.getLong();
+        }
+
+    }
+
+    private static final ThreadLocal<SecureBuffer> secureBuffers = ThreadLocal.withInitial(SecureBuffer::new);
+
+    private RandomSource() {
+    }
+
+}
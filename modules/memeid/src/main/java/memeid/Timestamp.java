@@ -16,45 +16,409 @@
 
 package memeid;
 
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
 
 /**
  * Class to ensure unique gregorian timestamps. It works by keeping a sequence of
  * generated IDs and shifting the `millis` value adding the `stamp`.
+ * <p>
+ * Both values are packed into a single {@code long} ({@code millis * 1000 + stamp})
+ * so a new timestamp is reserved with a single compare-and-set and without
+ * allocating. Once the 1000 stamps of a millisecond are taken,
+ * {@link #monotonic()} waits for the clock as set by its {@link WaitStrategy},
+ * while {@link #monotonicAsync()} doesn't block.
  */
 public final class Timestamp {
 
     /**
-     * Returns a gregorian time monotonic timestamp.
+     * How {@link #monotonic()} waits for the clock once all the timestamps of the
+     * current millisecond are taken.
+     * <p>
+     * The default is {@link #PARK}, and it can be changed with the
+     * {@code memeid.timestamp.wait-strategy} system property or the
+     * {@code MEMEID_TIMESTAMP_WAIT_STRATEGY} environment variable, set to the
+     * name of a strategy in lower case with dashes (like {@code spin-wait}).
+     * The setting is read on the first call to {@link #monotonic()}, which
+     * throws an {@link IllegalArgumentException} if it's invalid.
+     */
+    public enum WaitStrategy {
+
+        /**
+         * Reads the clock in a loop until it moves. It returns as soon as it does,
+         * but keeps the CPU busy, as well as the carrier thread of a virtual thread.
+         */
+        SPIN,
+
+        /**
+         * Like {@link #SPIN}, but calling {@link Thread#onSpinWait()} between reads
+         * of the clock, which lets the CPU save power or run sibling threads.
+         */
+        SPIN_WAIT,
+
+        /**
+         * Parks the thread until the next millisecond, freeing the CPU and
+         * unmounting virtual threads from their carrier. It may oversleep by the
+         * timer slack of the operating system.
+         */
+        PARK,
+
+        /**
+         * Doesn't wait, throwing an {@link IllegalStateException} instead.
+         */
+        FAIL_FAST
+
+    }
+
+    /**
+     * Returns a gregorian time monotonic timestamp, waiting for the clock with
+     * the configured {@link WaitStrategy} if all the timestamps of the current
+     * millisecond are taken.
      *
      * @return a gregorian time monotonic timestamp
+     * @throws IllegalArgumentException if the configured wait strategy is
+     *                                  invalid
      */
     public static long monotonic() {
-        final State s = state.updateAndGet(state -> {
-            long newMillis;
-            do {
-                newMillis = System.currentTimeMillis();
-                if (state.millis != newMillis) {
-                    return new State(0, newMillis);
-                } else if (state.stamp < 999) {
-                    return new State(state.stamp + 1, state.millis);
+        return monotonic(waitStrategy());
+    }
+
+    /**
+     * Returns a gregorian time monotonic timestamp, waiting for the clock with
+     * the provided strategy if all the timestamps of the current millisecond are
+     * taken.
+     *
+     * @param waitStrategy how to wait for the clock
+     * @return a gregorian time monotonic timestamp
+     * @throws IllegalStateException if the strategy is
+     *                               {@link WaitStrategy#FAIL_FAST} and all the
+     *                               timestamps of the current millisecond are
+     *                               taken
+     */
+    public static long monotonic(WaitStrategy waitStrategy) {
+        while (true) {
+            final long timestamp = tryMonotonic();
+
+            if (timestamp != EXHAUSTED) {
+                return timestamp;
+            }
+
+            await(waitStrategy, state.get() / STAMPS);
+        }
+    }
+
+    /**
+     * Returns a future completed with a gregorian time monotonic timestamp. If
+     * all the timestamps of the current millisecond are taken, the future is
+     * completed in another thread once the clock moves, instead of waiting for
+     * it.
+     *
+     * @return a future gregorian time monotonic timestamp
+     */
+    public static CompletableFuture<Long> monotonicAsync() {
+        final CompletableFuture<Long> future = new CompletableFuture<>();
+        completeWhenAvailable(future);
+        return future;
+    }
+
+    /* Returns a timestamp like monotonic(), or EXHAUSTED if the clock would have to be waited for. */
+    static long tryMonotonic() {
+        final long millis = System.currentTimeMillis();
+
+        while (true) {
+            final long current = state.get();
+            final long next;
+
+            if (millis * STAMPS > current) {
+                next = millis * STAMPS;
+            } else if (current % STAMPS < STAMPS - 1) {
+                next = current + 1;
+            } else if (millis == current / STAMPS) {
+                return EXHAUSTED;
+            } else {
+                // The clock has gone backwards, so we keep counting
+                next = current + 1;
+            }
+
+            if (state.compareAndSet(current, next)) {
+                return next + 100103040000000000L + (STAMPS * 2208988800000L);
+            }
+        }
+    }
+
+    private static void completeWhenAvailable(CompletableFuture<Long> future) {
+        final long timestamp = tryMonotonic();
+
+        if (timestamp != EXHAUSTED) {
+            future.complete(timestamp);
+        } else {
+            NEXT_MILLISECOND.execute(() -> completeWhenAvailable(future));
+        }
+    }
+
+    /* Waits with the provided strategy until the clock is past the given millisecond. */
+    private static void await(WaitStrategy waitStrategy, long millis) {
+        switch (waitStrategy) {
+            case SPIN:
+                while (System.currentTimeMillis() <= millis) {
+                    // Busy wait
+                }
+                break;
+            case SPIN_WAIT:
+                while (System.currentTimeMillis() <= millis) {
+                    Thread.onSpinWait();
                 }
-            } while (true);
-        });
+                break;
+            case PARK:
+                while (System.currentTimeMillis() <= millis) {
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                break;
+            default:
+                throw new IllegalStateException("All the timestamps of millisecond " + millis + " are taken");
+        }
+    }
+
+    /* The configured wait strategy, read on first use so an invalid setting only fails the calls that need it. */
+    private static WaitStrategy waitStrategy() {
+        WaitStrategy strategy = waitStrategy;
+
+        if (strategy == null) {
+            strategy = waitStrategy(System::getProperty, System::getenv);
+            waitStrategy = strategy;
+        }
 
-        return s.stamp + 100103040000000000L + (1000 * (s.millis + 2208988800000L));
+        return strategy;
     }
 
-    private static final class State {
-        private final int stamp;
-        private final long millis;
+    /* Reads the wait strategy from the system property or environment variable described in WaitStrategy. */
+    static WaitStrategy waitStrategy(Function<String, String> properties, Function<String, String> environment) {
+        final String property = properties.apply("memeid.timestamp.wait-strategy");
+        final String setting = property != null ? property : environment.apply("MEMEID_TIMESTAMP_WAIT_STRATEGY");
 
-        private State(int stamp, long millis) {
-            this.stamp = stamp;
-            this.millis = millis;
+        if (setting == null) {
+            return WaitStrategy.PARK;
+        }
+
+        try {
+            return WaitStrategy.valueOf(setting.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid wait strategy: " + setting, e);
         }
     }
 
-    private final static AtomicReference<State> state = new AtomicReference<>(new State(0, 0));
+    /**
+     * Reserves {@code count} consecutive gregorian time monotonic timestamps in a
+     * single atomic step, returning the first of them.
+     * <p>
+     * Unlike {@link #monotonic()} this never waits for the clock: if the block
+     * spans more stamps than are left in the current millisecond, it continues
+     * into the following ones, moving the clock ahead of the wall clock until it
+     * catches up.
+     *
+     * @param count the number of timestamps to reserve
+     * @return the first timestamp of the reserved block
+     * @throws IllegalArgumentException if {@code count} is less than 1
+     */
+    public static long monotonic(int count) {
+        checkCount(count);
+
+        final long millis = System.currentTimeMillis();
+
+        while (true) {
+            final long current = state.get();
+            final long first = Math.max(millis * STAMPS, current + 1);
+
+            if (state.compareAndSet(current, first + count - 1)) {
+                return first + 100103040000000000L + (STAMPS * 2208988800000L);
+            }
+        }
+    }
+
+    /**
+     * Returns a gregorian time monotonic timestamp counting 100-nanosecond
+     * intervals since 00:00:00.00, 15 October 1582, as described in RFC-4122.
+     * <p>
+     * The wall clock is advanced using {@link System#nanoTime()}, so every one of
+     * the 10,000 ticks in a millisecond can be used. It's read again at most
+     * once per millisecond, and the clock is re-anchored to it when they drift
+     * more than 20 milliseconds apart, as after the system time is adjusted.
+     * Returned values never go backwards: if the clock is moved back or more
+     * timestamps are requested than ticks have elapsed, the returned value keeps
+     * counting ahead of the clock instead of waiting for it.
+     * <p>
+     * This clock keeps its own state, so its timestamps are not ordered with the
+     * ones returned by {@link #monotonic()}.
+     *
+     * @return a gregorian time monotonic timestamp in 100-nanosecond units
+     * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.4">RFC-4122</a>
+     */
+    public static long highResolution() {
+        return ticks.accumulateAndGet(ticksNow(), (current, tick) -> Math.max(tick, current + 1));
+    }
+
+    /**
+     * Reserves {@code count} consecutive timestamps from
+     * {@link #highResolution()} in a single atomic step, returning the first of
+     * them.
+     *
+     * @param count the number of timestamps to reserve
+     * @return the first timestamp of the reserved block, in 100-nanosecond units
+     * @throws IllegalArgumentException if {@code count} is less than 1
+     */
+    public static long highResolution(int count) {
+        checkCount(count);
+
+        final long now = ticksNow();
+
+        while (true) {
+            final long current = ticks.get();
+            final long first = Math.max(now, current + 1);
+
+            if (ticks.compareAndSet(current, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+
+    /**
+     * Returns a strictly increasing Unix timestamp for {@link UUID.V7} UUIDs: the
+     * milliseconds since the Unix epoch shifted left by 12 bits, with a counter in
+     * the 12 lower bits.
+     * <p>
+     * The counter restarts at zero every millisecond. If more than 4096
+     * timestamps are requested in the same millisecond, the counter overflows
+     * into the milliseconds, so the returned value runs ahead of the wall clock
+     * until it catches up, instead of waiting for it.
+     *
+     * @return the Unix milliseconds and the counter, packed as
+     *         {@code millis << 12 | counter}
+     * @see <a href="https://www.rfc-editor.org/rfc/rfc9562#section-6.2">RFC-9562</a>
+     */
+    public static long unixMillisWithCounter() {
+        return unixStamps.accumulateAndGet(System.currentTimeMillis() << COUNTER_BITS,
+                (current, stamp) -> Math.max(stamp, current + 1));
+    }
+
+    /**
+     * Reserves {@code count} consecutive timestamps from
+     * {@link #unixMillisWithCounter()} in a single atomic step, returning the
+     * first of them.
+     *
+     * @param count the number of timestamps to reserve
+     * @return the first timestamp of the reserved block, packed as
+     *         {@code millis << 12 | counter}
+     * @throws IllegalArgumentException if {@code count} is less than 1
+     */
+    public static long unixMillisWithCounter(int count) {
+        checkCount(count);
+
+        final long now = System.currentTimeMillis() << COUNTER_BITS;
+
+        while (true) {
+            final long current = unixStamps.get();
+            final long first = Math.max(now, current + 1);
+
+            if (unixStamps.compareAndSet(current, first + count - 1)) {
+                return first;
+            }
+        }
+    }
+
+    /* Checks the number of timestamps to reserve, as reserving none or less would move the clock backwards. */
+    private static void checkCount(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid number of timestamps: " + count);
+        }
+    }
+
+    /* The current time in 100-nanosecond intervals since the gregorian epoch, as advanced by System.nanoTime(). */
+    static long ticksNow() {
+        final long nanos = System.nanoTime();
+        Anchor anchor = Timestamp.anchor;
+
+        if (nanos - anchor.checkAt >= 0) {
+            anchor = anchor.check(nanos, System.currentTimeMillis());
+            Timestamp.anchor = anchor;
+        }
+
+        return anchor.ticksAt(nanos);
+    }
+
+    /* A reading of the wall clock in ticks and the System.nanoTime() it was taken at, which ticksNow() advances. */
+    static final class Anchor {
+
+        /* How often the wall clock is read again. */
+        private static final long CHECK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+        /* How far, in ticks, the clock may drift from the wall clock: 20 ms, coarser than the wall clock anywhere. */
+        static final long MAX_DRIFT = 20 * 10_000;
+
+        final long ticks;
+
+        final long nanos;
+
+        final long checkAt;
+
+        Anchor(long ticks, long nanos, long checkAt) {
+            this.ticks = ticks;
+            this.nanos = nanos;
+            this.checkAt = checkAt;
+        }
+
+        /* Anchors the clock to the wall clock read at the provided nanoTime. */
+        static Anchor of(long nanos, long millis) {
+            return new Anchor(millis * 10_000 + GREGORIAN_OFFSET, nanos, nanos + CHECK_NANOS);
+        }
+
+        long ticksAt(long nanos) {
+            return ticks + (nanos - this.nanos) / 100;
+        }
+
+        /* Re-anchors the clock if it drifted too far from the wall clock, and schedules the next check. */
+        Anchor check(long nanos, long millis) {
+            final long drift = ticksAt(nanos) - (millis * 10_000 + GREGORIAN_OFFSET);
+
+            if (Math.abs(drift) > MAX_DRIFT) {
+                return of(nanos, millis);
+            }
+
+            return new Anchor(ticks, this.nanos, nanos + CHECK_NANOS);
+        }
+
+    }
+
+    /* Number of stamps available per millisecond. */
+    private static final long STAMPS = 1000;
+
+    /* Returned by tryMonotonic() when all the stamps of the current millisecond are taken. */
+    static final long EXHAUSTED = Long.MIN_VALUE;
+
+    private static volatile WaitStrategy waitStrategy;
+
+    /* Runs tasks once the clock is likely to have moved to the next millisecond. */
+    static final Executor NEXT_MILLISECOND = CompletableFuture.delayedExecutor(1, TimeUnit.MILLISECONDS);
+
+    /* How long PARK parks before reading the clock again. */
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final static AtomicLong state = new AtomicLong();
+
+    /* 100-nanosecond intervals between the gregorian and the unix epochs. */
+    private static final long GREGORIAN_OFFSET = 0x01B21DD213814000L;
+
+    private static volatile Anchor anchor = Anchor.of(System.nanoTime(), System.currentTimeMillis());
+
+    private final static AtomicLong ticks = new AtomicLong();
+
+    /* Bits of the counter appended to the Unix milliseconds. */
+    private static final int COUNTER_BITS = 12;
+
+    private final static AtomicLong unixStamps = new AtomicLong();
 
-}
\ No newline at end of file
+}
@@ -16,12 +16,20 @@
 
 package memeid;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
 import java.util.function.Function;
+import java.util.function.IntToLongFunction;
 import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static memeid.Bits.*;
@@ -61,13 +69,24 @@ public class UUID implements Comparable<UUID> {
 		nibbles['f'] = 15;
 	}
 
+	/* The two lower-case hex digits of every byte value, as ASCII. */
+	private static final byte[] HEX = new byte[512];
+
+	static {
+		final byte[] digits = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+		for (int b = 0; b < 256; b++) {
+			HEX[b << 1] = digits[b >>> 4];
+			HEX[(b << 1) + 1] = digits[b & 0xF];
+		}
+	}
+
 	/**
 	 * The nil UUID is special form of UUID that is specified to have all 128 bits
 	 * set to zero.
 	 *
 	 * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.7">RFC-4122</a>
 	 */
-	public static final UUID NIL = new UUID(new java.util.UUID(0, 0));
+	public static final UUID NIL = new UUID(0, 0);
 
 	/**
 	 * Creates a valid {@link UUID} from two {@code long} values representing the
@@ -78,7 +97,24 @@ public class UUID implements Comparable<UUID> {
 	 * @return a new {@link UUID} constructed from msb and lsb
 	 */
 	public static UUID from(long msb, long lsb) {
-		return fromUUID(new java.util.UUID(msb, lsb));
+		switch ((int) ((msb >> 12) & 0x0f)) {
+		case 7:
+			return new V7(msb, lsb);
+		case 6:
+			return new V6(msb, lsb);
+		case 5:
+			return new V5(msb, lsb);
+		case 4:
+			return new V4(msb, lsb);
+		case 3:
+			return new V3(msb, lsb);
+		case 2:
+			return new V2(msb, lsb);
+		case 1:
+			return new V1(msb, lsb);
+		default:
+			return new UnknownVersion(msb, lsb);
+		}
 	}
 
 	/**
@@ -88,23 +124,13 @@ public class UUID implements Comparable<UUID> {
 	 * @return a valid {@link UUID} created from a {@link java.util.UUID}
 	 */
 	public static UUID fromUUID(java.util.UUID juuid) {
-		switch (juuid.version()) {
-		case 5:
-			return new V5(juuid);
-		case 4:
-			return new V4(juuid);
-		case 3:
-			return new V3(juuid);
-		case 2:
-			return new V2(juuid);
-		case 1:
-			return new V1(juuid);
-		case 0:
-			if (juuid == NIL.juuid)
-				return NIL;
-		default:
-			return new UnknownVersion(juuid);
-		}
+		final long msb = juuid.getMostSignificantBits();
+		final long lsb = juuid.getLeastSignificantBits();
+
+		if (msb == 0 && lsb == 0)
+			return NIL;
+
+		return from(msb, lsb);
 	}
 
 	/**
@@ -118,27 +144,324 @@ public class UUID implements Comparable<UUID> {
 	 *                                  {@link #toString}
 	 */
 	public static UUID fromString(String name) {
+		return fromCharSequence(name);
+	}
+
+	/**
+	 * Creates a {@code UUID} from the string standard representation as described
+	 * in the {@link #toString} method, without copying the characters into a
+	 * {@link String}.
+	 *
+	 * @param name A character sequence that specifies a {@code UUID}
+	 * @return A {@code UUID} with the specified value
+	 * @throws IllegalArgumentException If name does not conform to the string
+	 *                                  representation as described in
+	 *                                  {@link #toString}
+	 */
+	public static UUID fromCharSequence(CharSequence name) {
+		Objects.requireNonNull(name, "name");
+
+		final UUID uuid = tryParse(name);
+		if (uuid == null)
+			throw invalid(name);
+		return uuid;
+	}
+
+	/**
+	 * Creates a {@code UUID} from the 36 ASCII bytes of its string standard
+	 * representation (as described in the {@link #toString} method) starting at
+	 * {@code offset}.
+	 *
+	 * @param ascii  An array containing the ASCII representation of a {@code UUID}
+	 * @param offset The index of the first byte of the representation
+	 * @return A {@code UUID} with the specified value
+	 * @throws IllegalArgumentException  If the bytes do not conform to the string
+	 *                                   representation as described in
+	 *                                   {@link #toString}
+	 * @throws IndexOutOfBoundsException If there are less than 36 bytes from
+	 *                                   {@code offset}
+	 */
+	public static UUID fromAscii(byte[] ascii, int offset) {
+		final UUID uuid = tryParse(ascii, offset);
+		if (uuid == null)
+			throw invalid(ascii, offset);
+		return uuid;
+	}
+
+	/**
+	 * Creates a {@code UUID} from the 36 ASCII bytes of its string standard
+	 * representation (as described in the {@link #toString} method) starting at
+	 * {@code index}. The buffer's position is left unchanged.
+	 *
+	 * @param ascii A buffer containing the ASCII representation of a {@code UUID}
+	 * @param index The index of the first byte of the representation
+	 * @return A {@code UUID} with the specified value
+	 * @throws IllegalArgumentException  If the bytes do not conform to the string
+	 *                                   representation as described in
+	 *                                   {@link #toString}
+	 * @throws IndexOutOfBoundsException If there are less than 36 bytes from
+	 *                                   {@code index} before the buffer's limit
+	 */
+	public static UUID fromAscii(ByteBuffer ascii, int index) {
+		final UUID uuid = tryParse(ascii, index);
+		if (uuid == null)
+			throw invalid(ascii, index);
+		return uuid;
+	}
+
+	/**
+	 * Parses the string standard representation of a {@code UUID} (as described
+	 * in the {@link #toString} method) into its most and least significant bits,
+	 * which are written to {@code out[offset]} and {@code out[offset + 1]}.
+	 * No {@code UUID} instance is created.
+	 *
+	 * @param name   A character sequence that specifies a {@code UUID}
+	 * @param out    The array receiving the most/least significant bits
+	 * @param offset The index at which the most significant bits are written
+	 * @throws IllegalArgumentException If name does not conform to the string
+	 *                                  representation as described in
+	 *                                  {@link #toString}
+	 */
+	public static void parse(CharSequence name, long[] out, int offset) {
+		if (!tryParse(name, out, offset))
+			throw invalid(name);
+	}
+
+	/**
+	 * Parses the 36 ASCII bytes of the string standard representation of a
+	 * {@code UUID} starting at {@code asciiOffset} into its most and least
+	 * significant bits, which are written to {@code out[offset]} and
+	 * {@code out[offset + 1]}. No {@code UUID} instance is created.
+	 *
+	 * @param ascii       An array containing the ASCII representation of a
+	 *                    {@code UUID}
+	 * @param asciiOffset The index of the first byte of the representation
+	 * @param out         The array receiving the most/least significant bits
+	 * @param offset      The index at which the most significant bits are written
+	 * @throws IllegalArgumentException  If the bytes do not conform to the string
+	 *                                   representation as described in
+	 *                                   {@link #toString}
+	 * @throws IndexOutOfBoundsException If there are less than 36 bytes from
+	 *                                   {@code asciiOffset}
+	 */
+	public static void parse(byte[] ascii, int asciiOffset, long[] out, int offset) {
+		if (!tryParse(ascii, asciiOffset, out, offset))
+			throw invalid(ascii, asciiOffset);
+	}
+
+	/**
+	 * Creates a {@code UUID} from the string standard representation as described
+	 * in the {@link #toString} method, returning {@code null} instead of throwing
+	 * when it doesn't conform to it.
+	 * <p>
+	 * Use this instead of {@link #fromString} when invalid values are expected
+	 * (e.g. ids coming from clients), as no exception is built for them.
+	 *
+	 * @param name A character sequence that may specify a {@code UUID}
+	 * @return A {@code UUID} with the specified value, or {@code null} if name
+	 *         is {@code null} or does not conform to the string representation
+	 */
+	public static UUID tryParse(CharSequence name) {
+		return parse(name, null, 0, CREATE, null);
+	}
+
+	/**
+	 * Creates a {@code UUID} from the 36 ASCII bytes of its string standard
+	 * representation starting at {@code offset}, returning {@code null} instead
+	 * of throwing when they don't conform to it.
+	 *
+	 * @param ascii  An array that may contain the ASCII representation of a
+	 *               {@code UUID}
+	 * @param offset The index of the first byte of the representation
+	 * @return A {@code UUID} with the specified value, or {@code null} if the
+	 *         bytes do not conform to the string representation
+	 * @throws IndexOutOfBoundsException If there are less than 36 bytes from
+	 *                                   {@code offset}
+	 */
+	public static UUID tryParse(byte[] ascii, int offset) {
+		return parse(ascii, offset, null, 0, CREATE, null);
+	}
+
+	/**
+	 * Creates a {@code UUID} from the 36 ASCII bytes of its string standard
+	 * representation starting at {@code index}, returning {@code null} instead
+	 * of throwing when they don't conform to it. The buffer's position is left
+	 * unchanged.
+	 *
+	 * @param ascii A buffer that may contain the ASCII representation of a
+	 *              {@code UUID}
+	 * @param index The index of the first byte of the representation
+	 * @return A {@code UUID} with the specified value, or {@code null} if the
+	 *         bytes do not conform to the string representation
+	 * @throws IndexOutOfBoundsException If there are less than 36 bytes from
+	 *                                   {@code index} before the buffer's limit
+	 */
+	public static UUID tryParse(ByteBuffer ascii, int index) {
+		Objects.checkFromIndexSize(index, 36, ascii.limit());
+
+		if (ascii.hasArray())
+			return tryParse(ascii.array(), ascii.arrayOffset() + index);
+
+		return parse(ascii, index, null, 0, CREATE, null);
+	}
+
+	/**
+	 * Parses the string standard representation of a {@code UUID} into its most
+	 * and least significant bits, which are written to {@code out[offset]} and
+	 * {@code out[offset + 1]}, returning {@code false} instead of throwing when it
+	 * doesn't conform to it. Nothing is written in that case.
+	 *
+	 * @param name   A character sequence that may specify a {@code UUID}
+	 * @param out    The array receiving the most/least significant bits
+	 * @param offset The index at which the most significant bits are written
+	 * @return {@code true} if name was a valid {@code UUID} and has been written
+	 *         to {@code out}; {@code false} otherwise
+	 */
+	public static boolean tryParse(CharSequence name, long[] out, int offset) {
+		Objects.checkFromIndexSize(offset, 2, out.length);
+
+		return parse(name, out, offset, WRITE, Boolean.FALSE);
+	}
+
+	/**
+	 * Parses the 36 ASCII bytes of the string standard representation of a
+	 * {@code UUID} starting at {@code asciiOffset} into its most and least
+	 * significant bits, which are written to {@code out[offset]} and
+	 * {@code out[offset + 1]}, returning {@code false} instead of throwing when
+	 * they don't conform to it. Nothing is written in that case.
+	 *
+	 * @param ascii       An array that may contain the ASCII representation of a
+	 *                    {@code UUID}
+	 * @param asciiOffset The index of the first byte of the representation
+	 * @param out         The array receiving the most/least significant bits
+	 * @param offset      The index at which the most significant bits are written
+	 * @return {@code true} if the bytes were a valid {@code UUID} and have been
+	 *         written to {@code out}; {@code false} otherwise
+	 * @throws IndexOutOfBoundsException If there are less than 36 bytes from
+	 *                                   {@code asciiOffset}
+	 */
+	public static boolean tryParse(byte[] ascii, int asciiOffset, long[] out, int offset) {
+		Objects.checkFromIndexSize(offset, 2, out.length);
+
+		return parse(ascii, asciiOffset, out, offset, WRITE, Boolean.FALSE);
+	}
+
+	/* Parses the string representation into the instance interned by the cache, or null, without allocating. */
+	static UUID tryParse(CharSequence name, UUIDParseCache cache) {
+		return parse(name, cache, 0, INTERN, null);
+	}
+
+	/* Parses the ASCII representation into the instance interned by the cache, or null, without allocating. */
+	static UUID tryParse(byte[] ascii, int offset, UUIDParseCache cache) {
+		return parse(ascii, offset, cache, 0, INTERN, null);
+	}
+
+	/* Receives the bits of a UUID read by parse(), along with the target and index parse() was given. */
+	@FunctionalInterface
+	private interface BitsReceiver<T, R> {
+
+		R receive(T target, int index, long msb, long lsb);
+
+	}
+
+	private static final BitsReceiver<Object, UUID> CREATE = (target, index, msb, lsb) -> from(msb, lsb);
+
+	private static final BitsReceiver<long[], Boolean> WRITE = (out, index, msb, lsb) -> {
+		out[index] = msb;
+		out[index + 1] = lsb;
+		return Boolean.TRUE;
+	};
+
+	private static final BitsReceiver<UUIDParseCache, UUID> INTERN = (cache, index, msb, lsb) -> cache.intern(msb, lsb);
+
+	/*
+	 * Parses the string representation, handing its bits to the receiver, or
+	 * returns invalid if it's null or doesn't conform to it. The receivers are
+	 * constants so nothing is allocated but what they create.
+	 */
+	private static <T, R> R parse(CharSequence name, T target, int index, BitsReceiver<? super T, R> receiver,
+			R invalid) {
+		if (name == null || !isDashed(name))
+			return invalid;
+
 		byte[] ns = nibbles;
-		if (name.length() == 36 && name.charAt(8) == '-' && name.charAt(13) == '-' && name.charAt(18) == '-'
-				&& name.charAt(23) == '-') {
-			int msb1 = parse4Nibbles(name, ns, 0);
-			int msb2 = parse4Nibbles(name, ns, 4);
-			int msb3 = parse4Nibbles(name, ns, 9);
-			int msb4 = parse4Nibbles(name, ns, 14);
-			if ((msb1 | msb2 | msb3 | msb4) >= 0) {
-				int lsb1 = parse4Nibbles(name, ns, 19);
-				int lsb2 = parse4Nibbles(name, ns, 24);
-				int lsb3 = parse4Nibbles(name, ns, 28);
-				int lsb4 = parse4Nibbles(name, ns, 32);
-				if ((lsb1 | lsb2 | lsb3 | lsb4) >= 0)
-					return from((long) msb1 << 48 | (long) msb2 << 32 | (long) msb3 << 16 | msb4,
-							(long) lsb1 << 48 | (long) lsb2 << 32 | (long) lsb3 << 16 | lsb4);
-			}
-		}
-		throw new IllegalArgumentException("Invalid UUID string: " + name);
+		int msb1 = parse4Nibbles(name, ns, 0);
+		int msb2 = parse4Nibbles(name, ns, 4);
+		int msb3 = parse4Nibbles(name, ns, 9);
+		int msb4 = parse4Nibbles(name, ns, 14);
+		int lsb1 = parse4Nibbles(name, ns, 19);
+		int lsb2 = parse4Nibbles(name, ns, 24);
+		int lsb3 = parse4Nibbles(name, ns, 28);
+		int lsb4 = parse4Nibbles(name, ns, 32);
+		if ((msb1 | msb2 | msb3 | msb4 | lsb1 | lsb2 | lsb3 | lsb4) < 0)
+			return invalid;
+
+		return receiver.receive(target, index, (long) msb1 << 48 | (long) msb2 << 32 | (long) msb3 << 16 | msb4,
+				(long) lsb1 << 48 | (long) lsb2 << 32 | (long) lsb3 << 16 | lsb4);
+	}
+
+	/* Parses the 36 ASCII bytes from the offset like parse(CharSequence, ...). */
+	private static <T, R> R parse(byte[] ascii, int offset, T target, int index, BitsReceiver<? super T, R> receiver,
+			R invalid) {
+		Objects.checkFromIndexSize(offset, 36, ascii.length);
+
+		if (!isDashed(ascii, offset))
+			return invalid;
+
+		byte[] ns = nibbles;
+		int msb1 = parse4Nibbles(ascii, ns, offset);
+		int msb2 = parse4Nibbles(ascii, ns, offset + 4);
+		int msb3 = parse4Nibbles(ascii, ns, offset + 9);
+		int msb4 = parse4Nibbles(ascii, ns, offset + 14);
+		int lsb1 = parse4Nibbles(ascii, ns, offset + 19);
+		int lsb2 = parse4Nibbles(ascii, ns, offset + 24);
+		int lsb3 = parse4Nibbles(ascii, ns, offset + 28);
+		int lsb4 = parse4Nibbles(ascii, ns, offset + 32);
+		if ((msb1 | msb2 | msb3 | msb4 | lsb1 | lsb2 | lsb3 | lsb4) < 0)
+			return invalid;
+
+		return receiver.receive(target, index, (long) msb1 << 48 | (long) msb2 << 32 | (long) msb3 << 16 | msb4,
+				(long) lsb1 << 48 | (long) lsb2 << 32 | (long) lsb3 << 16 | lsb4);
+	}
+
+	/* Parses the 36 ASCII bytes of a buffer without an array from the index like parse(CharSequence, ...). */
+	private static <T, R> R parse(ByteBuffer ascii, int index, T target, int targetIndex,
+			BitsReceiver<? super T, R> receiver, R invalid) {
+		if (!isDashed(ascii, index))
+			return invalid;
+
+		byte[] ns = nibbles;
+		int msb1 = parse4Nibbles(ascii, ns, index);
+		int msb2 = parse4Nibbles(ascii, ns, index + 4);
+		int msb3 = parse4Nibbles(ascii, ns, index + 9);
+		int msb4 = parse4Nibbles(ascii, ns, index + 14);
+		int lsb1 = parse4Nibbles(ascii, ns, index + 19);
+		int lsb2 = parse4Nibbles(ascii, ns, index + 24);
+		int lsb3 = parse4Nibbles(ascii, ns, index + 28);
+		int lsb4 = parse4Nibbles(ascii, ns, index + 32);
+		if ((msb1 | msb2 | msb3 | msb4 | lsb1 | lsb2 | lsb3 | lsb4) < 0)
+			return invalid;
+
+		return receiver.receive(target, targetIndex, (long) msb1 << 48 | (long) msb2 << 32 | (long) msb3 << 16 | msb4,
+				(long) lsb1 << 48 | (long) lsb2 << 32 | (long) lsb3 << 16 | lsb4);
+	}
+
+	private static boolean isDashed(CharSequence name) {
+		return name.length() == 36 && name.charAt(8) == '-' && name.charAt(13) == '-' && name.charAt(18) == '-'
+				&& name.charAt(23) == '-';
+	}
+
+	private static boolean isDashed(byte[] ascii, int offset) {
+		return ascii[offset + 8] == '-' && ascii[offset + 13] == '-' && ascii[offset + 18] == '-'
+				&& ascii[offset + 23] == '-';
+	}
+
+	private static boolean isDashed(ByteBuffer ascii, int index) {
+		return ascii.get(index + 8) == '-' && ascii.get(index + 13) == '-' && ascii.get(index + 18) == '-'
+				&& ascii.get(index + 23) == '-';
 	}
 
-	private static int parse4Nibbles(String name, byte[] ns, int pos) {
+	private static int parse4Nibbles(CharSequence name, byte[] ns, int pos) {
 		char ch1 = name.charAt(pos);
 		char ch2 = name.charAt(pos + 1);
 		char ch3 = name.charAt(pos + 2);
@@ -146,13 +469,44 @@ public class UUID implements Comparable<UUID> {
 		return (ch1 | ch2 | ch3 | ch4) > 0xFF ? -1 : ns[ch1] << 12 | ns[ch2] << 8 | ns[ch3] << 4 | ns[ch4];
 	}
 
+	private static int parse4Nibbles(byte[] ascii, byte[] ns, int pos) {
+		return ns[ascii[pos] & 0xFF] << 12 | ns[ascii[pos + 1] & 0xFF] << 8 | ns[ascii[pos + 2] & 0xFF] << 4
+				| ns[ascii[pos + 3] & 0xFF];
+	}
+
+	private static int parse4Nibbles(ByteBuffer ascii, byte[] ns, int pos) {
+		return ns[ascii.get(pos) & 0xFF] << 12 | ns[ascii.get(pos + 1) & 0xFF] << 8 | ns[ascii.get(pos + 2) & 0xFF] << 4
+				| ns[ascii.get(pos + 3) & 0xFF];
+	}
+
+	static IllegalArgumentException invalid(CharSequence name) {
+		return new IllegalArgumentException("Invalid UUID string: " + name);
+	}
+
+	static IllegalArgumentException invalid(byte[] ascii, int offset) {
+		return invalid(new String(ascii, offset, 36, StandardCharsets.ISO_8859_1));
+	}
+
+	private static IllegalArgumentException invalid(ByteBuffer ascii, int index) {
+		final byte[] bytes = new byte[36];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = ascii.get(index + i);
+		return invalid(bytes, 0);
+	}
+
+	/* Checks the number of UUIDs of a batch, which may be empty. */
+	static void checkBatchSize(int n) {
+		if (n < 0)
+			throw new IllegalArgumentException("Invalid number of UUIDs: " + n);
+	}
+
 	/**
 	 * Returns the most significant 64 bits of this UUID's 128 bit value.
 	 *
 	 * @return The most significant 64 bits of this UUID's 128 bit value
 	 */
 	public long getMostSignificantBits() {
-		return this.juuid.getMostSignificantBits();
+		return this.msb;
 	}
 
 	/**
@@ -161,7 +515,7 @@ public class UUID implements Comparable<UUID> {
 	 * @return The most significant 64 bits of this UUID's 128 bit value
 	 */
 	public long getLeastSignificantBits() {
-		return this.juuid.getLeastSignificantBits();
+		return this.lsb;
 	}
 
 	/**
@@ -187,7 +541,9 @@ public class UUID implements Comparable<UUID> {
 	 * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.1">RFC-4122</a>
 	 */
 	public int variant() {
-		return this.juuid.variant();
+		// This field is composed of a varying number of bits:
+		// 0 - -, 1 0 -, 1 1 0, 1 1 1
+		return (int) ((lsb >>> (64 - (lsb >>> 62))) & (lsb >> 63));
 	}
 
 	/**
@@ -202,56 +558,137 @@ public class UUID implements Comparable<UUID> {
 	 * <li>'''3''': Name-based UUID</li>
 	 * <li>'''4''': Randomly generated UUID</li>
 	 * <li>'''5''': The name-based version that uses SHA-1 hashing</li>
+	 * <li>'''6''': Reordered time-based UUID</li>
+	 * <li>'''7''': Unix epoch time-ordered UUID</li>
 	 * </ul>
 	 *
 	 * @return The version number of this {@link UUID}
 	 * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.3">RFC-4122</a>
 	 */
 	public int version() {
-		return this.juuid.version();
+		return (int) ((msb >> 12) & 0x0f);
 	}
 
+	/**
+	 * Two UUIDs are equal if they have the same most and least significant bits,
+	 * which also implies they have the same version.
+	 *
+	 * @param obj the object to be compared
+	 * @return {@code true} if the objects are the same; {@code false} otherwise
+	 */
 	@Override
 	public boolean equals(Object obj) {
-		if ((obj == null) || !(UUID.class.isAssignableFrom(obj.getClass())))
+		if (this == obj)
+			return true;
+
+		if (!(obj instanceof UUID))
 			return false;
 
-		return compareTo((UUID) obj) == 0;
+		final UUID other = (UUID) obj;
+
+		return msb == other.msb && lsb == other.lsb;
 	}
 
+	/**
+	 * UUIDs are sorted by version first. Then, {@link V1} UUIDs are sorted by their
+	 * 60-bit timestamp and the rest by their unsigned most significant bits.
+	 * Finally, by their unsigned least significant bits.
+	 *
+	 * @param o the {@link UUID} to which this one is compared
+	 * @return a negative integer, zero, or a positive integer as this UUID is
+	 *         less than, equal to, or greater than {@code o}
+	 */
 	@Override
 	public int compareTo(UUID o) {
-		// When versions differ, we sort UUIDs by version
-		int v = this.version();
-		int maybeDifferentVersions = v - o.version();
-		if (maybeDifferentVersions != 0) {
-			return maybeDifferentVersions;
-		}
-		// For V1 UUIDs, we sort them by their fields
-		if (v == 1) {
-			// first, compare the the 60-bit timestamp
-			int timeComparison = Long.compareUnsigned(this.juuid.timestamp(), o.juuid.timestamp());
-
-			// the rest of the fields (clock sequence & node ID) are in the LSB so we just
-			// compare that
-			if (timeComparison == 0) {
-				return Long.compareUnsigned(getLeastSignificantBits(), o.getLeastSignificantBits());
-			} else
-				return timeComparison;
-		} else {
-			// For any other UUID we order lexicographically
-			int comparison = Long.compareUnsigned(getMostSignificantBits(), o.getMostSignificantBits());
-
-			if (comparison == 0) {
-				return Long.compareUnsigned(getLeastSignificantBits(), o.getLeastSignificantBits());
-			} else
-				return comparison;
-		}
+		return compare(msb, lsb, o.msb, o.lsb);
 	}
 
+	/**
+	 * Returns a hash code for this {@code UUID}.
+	 * <p>
+	 * Unlike {@link java.util.UUID#hashCode()}, which XOR-folds both halves, the
+	 * bits are mixed with the MurmurHash3 64-bit finalizer, so UUIDs that only
+	 * differ in a few bits (like consecutive {@link V1}, {@link V6} or
+	 * {@link V7} ones) spread over all the buckets of a hash table.
+	 *
+	 * @return a hash code value for this {@code UUID}
+	 */
 	@Override
 	public int hashCode() {
-		return this.juuid.hashCode();
+		return hashCode(msb, lsb);
+	}
+
+	/**
+	 * Returns the hash code of the {@link UUID} with the provided bits, the same
+	 * one returned by {@link #hashCode()}.
+	 *
+	 * @param msb the most significant bits of the UUID
+	 * @param lsb the least significant bits of the UUID
+	 * @return a hash code value for the UUID with those bits
+	 */
+	public static int hashCode(long msb, long lsb) {
+		long h = msb * 0x9E3779B97F4A7C15L + lsb;
+
+		h = (h ^ (h >>> 33)) * 0xFF51AFD7ED558CCDL;
+		h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+
+		return (int) (h ^ (h >>> 33));
+	}
+
+	/**
+	 * Compares two UUIDs, given as their bits, in the same order as
+	 * {@link #compareTo(UUID)}.
+	 *
+	 * @param msb1 the most significant bits of the first UUID
+	 * @param lsb1 the least significant bits of the first UUID
+	 * @param msb2 the most significant bits of the second UUID
+	 * @param lsb2 the least significant bits of the second UUID
+	 * @return a negative integer, zero, or a positive integer as the first UUID
+	 *         is less than, equal to, or greater than the second one
+	 */
+	public static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+		final int comparison = Long.compareUnsigned(sortKey(msb1), sortKey(msb2));
+
+		return comparison != 0 ? comparison : Long.compareUnsigned(lsb1, lsb2);
+	}
+
+	/**
+	 * Maps the most significant bits of a UUID to a key whose unsigned order,
+	 * followed by the unsigned order of the least significant bits, is the order
+	 * of {@link #compareTo(UUID)}.
+	 * <p>
+	 * The key holds the version in its 4 highest bits, followed by the 60-bit
+	 * timestamp for {@link V1} UUIDs (whose time fields are stored from low to
+	 * high) or by the rest of the bits, in the same order, for any other version.
+	 * This makes it suitable for sorting by comparing plain {@code long} values,
+	 * or for radix sorting. It can be reverted with {@link #fromSortKey(long)}.
+	 *
+	 * @param msb the most significant bits of a UUID
+	 * @return the sort key of those bits
+	 */
+	public static long sortKey(long msb) {
+		final long version = (msb >>> 12) & 0x0FL;
+
+		if (version == 1)
+			return version << 60 | timestamp(msb);
+		else
+			return version << 60 | (msb >>> 16) << 12 | (msb & 0x0FFFL);
+	}
+
+	/**
+	 * Returns the most significant bits of a UUID from its
+	 * {@link #sortKey(long)}.
+	 *
+	 * @param key the sort key of a UUID
+	 * @return the most significant bits of the UUID
+	 */
+	public static long fromSortKey(long key) {
+		final long version = key >>> 60;
+
+		if (version == 1)
+			return V1.msb(key);
+		else
+			return (key << 4) >>> 16 << 16 | version << 12 | (key & 0x0FFFL);
 	}
 
 	/**
@@ -285,16 +722,153 @@ public class UUID implements Comparable<UUID> {
 	 */
 	@Override
 	public String toString() {
-		return this.juuid.toString();
+		return new java.util.UUID(msb, lsb).toString();
+	}
+
+	/**
+	 * Appends the string representation of this {@code UUID} (as described in
+	 * the {@link #toString} method) to the provided {@link StringBuilder}, without
+	 * creating an intermediate {@link String}.
+	 *
+	 * @param sb the {@link StringBuilder} to append to
+	 * @return the provided {@link StringBuilder}
+	 */
+	public StringBuilder appendTo(StringBuilder sb) {
+		final int start = sb.length();
+		sb.setLength(start + 36);
+		writeHex(sb, start, msb >>> 32, 4);
+		sb.setCharAt(start + 8, '-');
+		writeHex(sb, start + 9, msb >>> 16, 2);
+		sb.setCharAt(start + 13, '-');
+		writeHex(sb, start + 14, msb, 2);
+		sb.setCharAt(start + 18, '-');
+		writeHex(sb, start + 19, lsb >>> 48, 2);
+		sb.setCharAt(start + 23, '-');
+		writeHex(sb, start + 24, lsb, 6);
+		return sb;
+	}
+
+	/**
+	 * Writes the string representation of this {@code UUID} (as described in the
+	 * {@link #toString} method) as 36 ASCII bytes starting at {@code offset}.
+	 *
+	 * @param out    the array to write to
+	 * @param offset the index of the first byte to write
+	 * @return the index following the last written byte
+	 * @throws IndexOutOfBoundsException If there is no room for 36 bytes from
+	 *                                   {@code offset}
+	 */
+	public int writeAscii(byte[] out, int offset) {
+		return writeAscii(msb, lsb, out, offset);
+	}
+
+	/**
+	 * Writes the string representation of the {@code UUID} with the provided
+	 * bits (as described in the {@link #toString} method) as 36 ASCII bytes
+	 * starting at {@code offset}, without creating a {@code UUID}.
+	 *
+	 * @param msb    the most significant bits of the {@code UUID}
+	 * @param lsb    the least significant bits of the {@code UUID}
+	 * @param out    the array to write to
+	 * @param offset the index of the first byte to write
+	 * @return the index following the last written byte
+	 * @throws IndexOutOfBoundsException If there is no room for 36 bytes from
+	 *                                   {@code offset}
+	 */
+	public static int writeAscii(long msb, long lsb, byte[] out, int offset) {
+		Objects.checkFromIndexSize(offset, 36, out.length);
+		writeHex(out, offset, msb >>> 32, 4);
+		out[offset + 8] = '-';
+		writeHex(out, offset + 9, msb >>> 16, 2);
+		out[offset + 13] = '-';
+		writeHex(out, offset + 14, msb, 2);
+		out[offset + 18] = '-';
+		writeHex(out, offset + 19, lsb >>> 48, 2);
+		out[offset + 23] = '-';
+		writeHex(out, offset + 24, lsb, 6);
+		return offset + 36;
+	}
+
+	/**
+	 * Writes the string representation of this {@code UUID} (as described in the
+	 * {@link #toString} method) as 36 ASCII bytes at the buffer's current
+	 * position, which is then incremented by 36.
+	 *
+	 * @param out the buffer to write to
+	 * @return the provided buffer
+	 * @throws java.nio.BufferOverflowException If there are fewer than 36 bytes
+	 *                                          remaining in the buffer
+	 * @throws java.nio.ReadOnlyBufferException If the buffer is read-only
+	 */
+	public ByteBuffer writeAscii(ByteBuffer out) {
+		final int position = out.position();
+		if (out.remaining() < 36)
+			throw new BufferOverflowException();
+
+		if (out.hasArray()) {
+			writeAscii(out.array(), out.arrayOffset() + position);
+		} else {
+			if (out.isReadOnly())
+				throw new ReadOnlyBufferException();
+
+			writeHex(out, position, msb >>> 32, 4);
+			out.put(position + 8, (byte) '-');
+			writeHex(out, position + 9, msb >>> 16, 2);
+			out.put(position + 13, (byte) '-');
+			writeHex(out, position + 14, msb, 2);
+			out.put(position + 18, (byte) '-');
+			writeHex(out, position + 19, lsb >>> 48, 2);
+			out.put(position + 23, (byte) '-');
+			writeHex(out, position + 24, lsb, 6);
+		}
+
+		out.position(position + 36);
+		return out;
+	}
+
+	/* Writes the hex digits of the `bytes` lower bytes of `value`, most significant first. */
+	private static void writeHex(byte[] out, int offset, long value, int bytes) {
+		final byte[] hex = HEX;
+		for (int i = bytes - 1, pos = offset + 2 * i; i >= 0; i--, pos -= 2, value >>>= 8) {
+			final int b = ((int) value & 0xFF) << 1;
+			out[pos] = hex[b];
+			out[pos + 1] = hex[b + 1];
+		}
+	}
+
+	private static void writeHex(ByteBuffer out, int index, long value, int bytes) {
+		final byte[] hex = HEX;
+		for (int i = bytes - 1, pos = index + 2 * i; i >= 0; i--, pos -= 2, value >>>= 8) {
+			final int b = ((int) value & 0xFF) << 1;
+			out.put(pos, hex[b]);
+			out.put(pos + 1, hex[b + 1]);
+		}
+	}
+
+	private static void writeHex(StringBuilder sb, int index, long value, int bytes) {
+		final byte[] hex = HEX;
+		for (int i = bytes - 1, pos = index + 2 * i; i >= 0; i--, pos -= 2, value >>>= 8) {
+			final int b = ((int) value & 0xFF) << 1;
+			sb.setCharAt(pos, (char) hex[b]);
+			sb.setCharAt(pos + 1, (char) hex[b + 1]);
+		}
 	}
 
 	/**
 	 * Returns this {@link UUID} as a {@link java.util.UUID}.
+	 * <p>
+	 * The {@link java.util.UUID} is only created the first time this method is
+	 * called and reused afterwards.
 	 *
 	 * @return this {@link UUID} as a {@link java.util.UUID}
 	 */
 	public java.util.UUID asJava() {
-		return this.juuid;
+		java.util.UUID juuid = this.juuid;
+		if (juuid == null) {
+			juuid = new java.util.UUID(msb, lsb);
+			this.juuid = juuid;
+		}
+		return juuid;
 	}
 
 	/**
@@ -367,6 +941,34 @@ public class UUID implements Comparable<UUID> {
 			return Optional.empty();
 	}
 
+	/**
+	 * Returns this {@link UUID} as a {@link V6} if versions match; otherwise,
+	 * returns {@link Optional#empty}.
+	 *
+	 * @return this {@link UUID} as a {@link V6} if versions match; otherwise,
+	 *         returns {@link Optional#empty}.
+	 */
+	public Optional<V6> asV6() {
+		if (isV6())
+			return Optional.of((V6) this);
+		else
+			return Optional.empty();
+	}
+
+	/**
+	 * Returns this {@link UUID} as a {@link V7} if versions match; otherwise,
+	 * returns {@link Optional#empty}.
+	 *
+	 * @return this {@link UUID} as a {@link V7} if versions match; otherwise,
+	 *         returns {@link Optional#empty}.
+	 */
+	public Optional<V7> asV7() {
+		if (isV7())
+			return Optional.of((V7) this);
+		else
+			return Optional.empty();
+	}
+
 	/**
 	 * Returns {@code true} if this UUID is a
 	 * <a href="https://tools.ietf.org/html/rfc4122#section-4.1.7">NIL UUID</a>;
@@ -434,6 +1036,28 @@ public class UUID implements Comparable<UUID> {
 		return this instanceof V5;
 	}
 
+	/**
+	 * Returns {@code true} if this UUID is a {@link V6}; otherwise, returns
+	 * {@code false}.
+	 *
+	 * @return {@code true} if this {@link UUID} is a {@link V6}; {@code false}
+	 *         otherwise
+	 */
+	public boolean isV6() {
+		return this instanceof V6;
+	}
+
+	/**
+	 * Returns {@code true} if this UUID is a {@link V7}; otherwise, returns
+	 * {@code false}.
+	 *
+	 * @return {@code true} if this {@link UUID} is a {@link V7}; {@code false}
+	 *         otherwise
+	 */
+	public boolean isV7() {
+		return this instanceof V7;
+	}
+
 	/**
 	 * Version 1 UUIDs are those generated using a timestamp and the MAC address of
 	 * the computer on which it was generated.
@@ -449,7 +1073,7 @@ public class UUID implements Comparable<UUID> {
 		 * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.2">RFC-4122</a>
 		 */
 		public final long timeLow() {
-			return Bits.readByte(Mask.TIME_LOW, Offset.TIME_LOW, this.asJava().timestamp());
+			return Bits.readByte(Mask.TIME_LOW, Offset.TIME_LOW, timestamp(getMostSignificantBits()));
 		}
 
 		/**
@@ -459,7 +1083,7 @@ public class UUID implements Comparable<UUID> {
 		 * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.2">RFC-4122</a>
 		 */
 		public final long timeMid() {
-			return Bits.readByte(Mask.TIME_MID, Offset.TIME_MID, this.asJava().timestamp());
+			return Bits.readByte(Mask.TIME_MID, Offset.TIME_MID, timestamp(getMostSignificantBits()));
 		}
 
 		/**
@@ -469,7 +1093,7 @@ public class UUID implements Comparable<UUID> {
 		 * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.2">RFC-4122</a>
 		 */
 		public final long timeHigh() {
-			return Bits.readByte(Mask.TIME_HIGH, Offset.TIME_HIGH, this.asJava().timestamp());
+			return Bits.readByte(Mask.TIME_HIGH, Offset.TIME_HIGH, timestamp(getMostSignificantBits()));
 		}
 
 		/**
@@ -479,7 +1103,7 @@ public class UUID implements Comparable<UUID> {
 		 * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.2">RFC-4122</a>
 		 */
 		public final long clockSeqLow() {
-			return Bits.readByte(Mask.CLOCK_SEQ_LOW, Offset.CLOCK_SEQ_LOW, this.asJava().clockSequence());
+			return Bits.readByte(Mask.CLOCK_SEQ_LOW, Offset.CLOCK_SEQ_LOW, clockSequence(getLeastSignificantBits()));
 		}
 
 		/**
@@ -489,11 +1113,21 @@ public class UUID implements Comparable<UUID> {
 		 * @see <a href="https://tools.ietf.org/html/rfc4122#section-4.1.2">RFC-4122</a>
 		 */
 		public final long clockSeqHigh() {
-			return Bits.readByte(Mask.CLOCK_SEQ_HIGH, Offset.CLOCK_SEQ_HIGH, this.asJava().clockSequence());
+			return Bits.readByte(Mask.CLOCK_SEQ_HIGH, Offset.CLOCK_SEQ_HIGH, clockSequence(getLeastSignificantBits()));
+		}
+
+		/**
+		 * Returns the {@link V6} UUID with the same timestamp, clock sequence and
+		 * node as this one.
+		 *
+		 * @return this UUID in the {@link V6} layout
+		 */
+		public final UUID toV6() {
+			return new V6(V6.msb(timestamp(getMostSignificantBits())), getLeastSignificantBits());
 		}
 
-		private V1(java.util.UUID uuid) {
-			super(uuid);
+		private V1(long msb, long lsb) {
+			super(msb, lsb);
 		}
 
 		/**
@@ -527,21 +1161,230 @@ public class UUID implements Comparable<UUID> {
 		 * @return a {@link V1} UUID
 		 */
 		public static UUID next(Node node, LongSupplier monotonicSupplier) {
-			final long timestamp = monotonicSupplier.getAsLong();
-			final long low = readByte(Mask.TIME_LOW, Offset.TIME_LOW, timestamp);
-			final long mid = readByte(Mask.TIME_MID, Offset.TIME_MID, timestamp);
-			final long high = readByte(Mask.TIME_HIGH, Offset.TIME_HIGH, timestamp);
-			final long msb = writeByte(Mask.VERSION, Offset.VERSION, high, 1) | (low << 32) | (mid << 16);
-
-			final long clkHigh = writeByte(Mask.CLOCK_SEQ_HIGH, Offset.CLOCK_SEQ_HIGH,
-					readByte(Mask.CLOCK_SEQ_HIGH, Offset.CLOCK_SEQ_HIGH, node.id), 0x2);
-
-			final long clkLow = readByte(Mask.CLOCK_SEQ_LOW, Offset.CLOCK_SEQ_LOW, node.clockSequence);
+			return new UUID.V1(msb(monotonicSupplier.getAsLong()), lsb(node));
+		}
 
-			final long lsb = writeByte(Mask.MASKS_56, Offset.OFFSET_56,
-					writeByte(Mask.MASKS_48, Offset.OFFSET_48, node.id, clkLow), clkHigh);
+		/**
+		 * Constructs a time-based {@link V1} UUID using the default {@link Node} and
+		 * {@link Timestamp#monotonicAsync()}, so it doesn't block if all the
+		 * timestamps of the current millisecond are taken.
+		 *
+		 * @return a future {@link V1} UUID
+		 */
+		public static CompletableFuture<UUID> nextAsync() {
+			return nextAsync(Node.getInstance());
+		}
+
+		/**
+		 * Constructs a time-based {@link V1} UUID using the provided {@link Node} and
+		 * {@link Timestamp#monotonicAsync()}, so it doesn't block if all the
+		 * timestamps of the current millisecond are taken.
+		 *
+		 * @param node node for the V1 UUID generation
+		 * @return a future {@link V1} UUID
+		 */
+		public static CompletableFuture<UUID> nextAsync(Node node) {
+			final long lsb = lsb(node);
+
+			return Timestamp.monotonicAsync().thenApply(timestamp -> of(timestamp, lsb));
+		}
+
+		/**
+		 * Returns a publisher of an endless sequence of time-based {@link V1} UUIDs
+		 * for the default {@link Node}, like {@link #publisher(Node)}.
+		 *
+		 * @return a publisher of {@link V1} UUIDs
+		 */
+		public static Flow.Publisher<UUID> publisher() {
+			return publisher(Node.getInstance());
+		}
+
+		/**
+		 * Returns a publisher of an endless sequence of time-based {@link V1} UUIDs
+		 * for the provided {@link Node}, with timestamps from the same clock as
+		 * {@link Timestamp#monotonic()}.
+		 * <p>
+		 * Each subscriber gets as many UUIDs as it requests, emitted in the thread
+		 * requesting them. If all the timestamps of the current millisecond are
+		 * taken, the rest are emitted from another thread once the clock moves, so
+		 * requesting UUIDs never blocks.
+		 *
+		 * @param node node for the V1 UUID generation
+		 * @return a publisher of {@link V1} UUIDs
+		 */
+		public static Flow.Publisher<UUID> publisher(Node node) {
+			return new V1Publisher(node);
+		}
+
+		/**
+		 * Constructs {@code n} time-based {@link V1} UUIDs using the default
+		 * {@link Node} and {@link Timestamp#monotonic(int)} to reserve their
+		 * timestamps.
+		 *
+		 * @param n number of UUIDs to generate
+		 * @return an array with {@code n} {@link V1} UUIDs
+		 * @throws IllegalArgumentException if {@code n} is negative
+		 */
+		public static UUID[] nextBatch(int n) {
+			return nextBatch(Node.getInstance(), n);
+		}
+
+		/**
+		 * Constructs {@code n} time-based {@link V1} UUIDs using the provided
+		 * {@link Node} and {@link Timestamp#monotonic(int)} to reserve their
+		 * timestamps.
+		 *
+		 * @param node node for the V1 UUID generation
+		 * @param n    number of UUIDs to generate
+		 * @return an array with {@code n} {@link V1} UUIDs
+		 * @throws IllegalArgumentException if {@code n} is negative
+		 */
+		public static UUID[] nextBatch(Node node, int n) {
+			return nextBatch(node, Timestamp::monotonic, n);
+		}
+
+		/**
+		 * Constructs {@code n} time-based {@link V1} UUIDs using the provided
+		 * {@link Node} and a function reserving a block of consecutive monotonic
+		 * timestamps.
+		 *
+		 * @param node       node for the V1 UUID generation
+		 * @param reserveFor function that reserves the given number of consecutive
+		 *                   timestamps in a single step and returns the first one
+		 * @param n          number of UUIDs to generate
+		 * @return an array with {@code n} {@link V1} UUIDs
+		 * @throws IllegalArgumentException if {@code n} is negative
+		 */
+		public static UUID[] nextBatch(Node node, IntToLongFunction reserveFor, int n) {
+			checkBatchSize(n);
+
+			final UUID[] uuids = new UUID[n];
+
+			if (n == 0)
+				return uuids;
+
+			final long first = reserveFor.applyAsLong(n);
+			final long lsb = lsb(node);
+
+			for (int i = 0; i < n; i++) {
+				uuids[i] = new UUID.V1(msb(first + i), lsb);
+			}
+
+			return uuids;
+		}
 
-			return new UUID.V1(new java.util.UUID(msb, lsb));
+		/**
+		 * Writes the bits of {@code n} time-based {@link V1} UUIDs in the provided
+		 * arrays, using the provided {@link Node} and
+		 * {@link Timestamp#monotonic(int)} to reserve their timestamps.
+		 *
+		 * @param node   node for the V1 UUID generation
+		 * @param n      number of UUIDs to generate
+		 * @param msbOut array where the most significant bits of each UUID are
+		 *               written, starting at index 0
+		 * @param lsbOut array where the least significant bits of each UUID are
+		 *               written, starting at index 0
+		 * @throws IllegalArgumentException  if {@code n} is negative
+		 * @throws IndexOutOfBoundsException if any of the arrays is shorter than
+		 *                                   {@code n}
+		 */
+		public static void nextBatch(Node node, int n, long[] msbOut, long[] lsbOut) {
+			nextBatch(node, Timestamp::monotonic, n, msbOut, lsbOut);
+		}
+
+		/**
+		 * Writes the bits of {@code n} time-based {@link V1} UUIDs in the provided
+		 * arrays, using the provided {@link Node} and a function reserving a block of
+		 * consecutive monotonic timestamps.
+		 *
+		 * @param node       node for the V1 UUID generation
+		 * @param reserveFor function that reserves the given number of consecutive
+		 *                   timestamps in a single step and returns the first one
+		 * @param n          number of UUIDs to generate
+		 * @param msbOut     array where the most significant bits of each UUID are
+		 *                   written, starting at index 0
+		 * @param lsbOut     array where the least significant bits of each UUID are
+		 *                   written, starting at index 0
+		 * @throws IllegalArgumentException  if {@code n} is negative
+		 * @throws IndexOutOfBoundsException if any of the arrays is shorter than
+		 *                                   {@code n}
+		 */
+		public static void nextBatch(Node node, IntToLongFunction reserveFor, int n, long[] msbOut,
+				long[] lsbOut) {
+			checkBatchSize(n);
+			Objects.checkFromIndexSize(0, n, msbOut.length);
+			Objects.checkFromIndexSize(0, n, lsbOut.length);
+
+			if (n == 0)
+				return;
+
+			final long first = reserveFor.applyAsLong(n);
+			final long lsb = lsb(node);
+
+			for (int i = 0; i < n; i++) {
+				msbOut[i] = msb(first + i);
+				lsbOut[i] = lsb;
+			}
+		}
+
+		/**
+		 * Returns a stream of {@code count} time-based {@link V1} UUIDs using the
+		 * provided {@link Node} and {@link Timestamp#monotonic(int)} to reserve their
+		 * timestamps.
+		 * <p>
+		 * Timestamps are reserved in blocks, one for each part of a parallel stream,
+		 * so threads don't contend on the clock. As with
+		 * {@link #nextBatch(Node, int)}, large streams move the clock ahead of the
+		 * wall clock until it catches up.
+		 *
+		 * @param node  node for the V1 UUID generation
+		 * @param count number of UUIDs of the stream
+		 * @return a stream of {@link V1} UUIDs
+		 * @throws IllegalArgumentException if {@code count} is negative
+		 */
+		public static Stream<UUID> stream(Node node, long count) {
+			return StreamSupport.stream(new UUIDSpliterator.V1(lsb(node), 0, UUIDSpliterator.checkCount(count)), false);
+		}
+
+		/**
+		 * Writes the bits of time-based {@link V1} UUIDs in the provided arrays,
+		 * filling them in parallel, using the provided {@link Node} and
+		 * {@link Timestamp#monotonic(int)} to reserve their timestamps in blocks.
+		 *
+		 * @param node   node for the V1 UUID generation
+		 * @param msbOut array where the most significant bits of each UUID are
+		 *               written
+		 * @param lsbOut array where the least significant bits of each UUID are
+		 *               written
+		 * @throws IllegalArgumentException if the arrays have different lengths
+		 */
+		public static void fill(Node node, long[] msbOut, long[] lsbOut) {
+			UUIDSpliterator.fill(new UUIDSpliterator.V1(lsb(node), 0, msbOut.length), msbOut, lsbOut);
+		}
+
+		/* Lays out the time fields and version of a V1 UUID. */
+		static long msb(long timestamp) {
+			final long low = readByte(Mask.TIME_LOW, Offset.TIME_LOW, timestamp);
+			final long mid = readByte(Mask.TIME_MID, Offset.TIME_MID, timestamp);
+			final long high = readByte(Mask.TIME_HIGH, Offset.TIME_HIGH, timestamp);
+
+			return writeByte(Mask.VERSION, Offset.VERSION, high, 1) | (low << 32) | (mid << 16);
+		}
+
+		/* Constructs a V1 UUID from a timestamp and the least significant bits laid out by lsb(Node). */
+		static UUID of(long timestamp, long lsb) {
+			return new UUID.V1(msb(timestamp), lsb);
+		}
+
+		/* Lays out the clock sequence, variant and node id of a V1 UUID. */
+		static long lsb(Node node) {
+			final long clkHigh = writeByte(Mask.CLOCK_SEQ_HIGH, Offset.CLOCK_SEQ_HIGH,
+					readByte(Mask.CLOCK_SEQ_HIGH, Offset.CLOCK_SEQ_HIGH, node.id), 0x2);
+
+			final long clkLow = readByte(Mask.CLOCK_SEQ_LOW, Offset.CLOCK_SEQ_LOW, node.clockSequence);
+
+			return writeByte(Mask.MASKS_56, Offset.OFFSET_56,
+					writeByte(Mask.MASKS_48, Offset.OFFSET_48, node.id, clkLow), clkHigh);
 		}
 
 	}
@@ -553,8 +1396,8 @@ public class UUID implements Comparable<UUID> {
 	 */
 	public final static class V2 extends UUID {
 
-		private V2(java.util.UUID uuid) {
-			super(uuid);
+		private V2(long msb, long lsb) {
+			super(msb, lsb);
 		}
 
 	}
@@ -576,9 +1419,68 @@ public class UUID implements Comparable<UUID> {
 		 * @return a {@link V3} UUID
 		 */
 		public static UUID from(UUID namespace, String name) {
+			if (NamespacedGenerator.Hasher.DEFAULT_CHARSET_IS_UTF_8)
+				return from(namespace, (CharSequence) name);
+
 			return from(namespace, name, String::getBytes);
 		}
 
+		/**
+		 * Construct a namespace name-based {@link V3} UUID from the UTF-8
+		 * encoding of the provided characters. Uses MD5 as a hash algorithm and
+		 * doesn't allocate intermediate arrays.
+		 *
+		 * @param namespace {@link UUID} used for the {@link V3} generation
+		 * @param name      name used for the {@link V3} generation
+		 * @return a {@link V3} UUID
+		 */
+		public static UUID from(UUID namespace, CharSequence name) {
+			Objects.requireNonNull(name, "name");
+
+			final NamespacedGenerator.Hasher hasher = NamespacedGenerator.MD5.get().reset();
+			hasher.update(namespace.msb, namespace.lsb);
+			hasher.update(name);
+			return hasher.digest();
+		}
+
+		/**
+		 * Construct a namespace name-based {@link V3} UUID from a range of a byte
+		 * array. Uses MD5 as a hash algorithm.
+		 *
+		 * @param namespace {@link UUID} used for the {@link V3} generation
+		 * @param name      array containing the name used for the {@link V3} generation
+		 * @param offset    index of the first byte of the name
+		 * @param length    number of bytes of the name
+		 * @return a {@link V3} UUID
+		 * @throws IndexOutOfBoundsException if the range is out of the bounds of the array
+		 */
+		public static UUID from(UUID namespace, byte[] name, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, name.length);
+
+			final NamespacedGenerator.Hasher hasher = NamespacedGenerator.MD5.get().reset();
+			hasher.update(namespace.msb, namespace.lsb);
+			hasher.update(name, offset, length);
+			return hasher.digest();
+		}
+
+		/**
+		 * Construct a namespace name-based {@link V3} UUID from the remaining bytes
+		 * of a {@link ByteBuffer}. Uses MD5 as a hash algorithm. The buffer's
+		 * position is left unchanged.
+		 *
+		 * @param namespace {@link UUID} used for the {@link V3} generation
+		 * @param name      buffer containing the name used for the {@link V3} generation
+		 * @return a {@link V3} UUID
+		 */
+		public static UUID from(UUID namespace, ByteBuffer name) {
+			Objects.requireNonNull(name, "name");
+
+			final NamespacedGenerator.Hasher hasher = NamespacedGenerator.MD5.get().reset();
+			hasher.update(namespace.msb, namespace.lsb);
+			hasher.update(name);
+			return hasher.digest();
+		}
+
 		/**
 		 * Construct a namespace name-based {@link V3} UUID. Uses MD5 as a hash
 		 * algorithm
@@ -590,31 +1492,16 @@ public class UUID implements Comparable<UUID> {
 		 * @return a {@link V3} UUID
 		 */
 		public static <A> UUID from(UUID namespace, A name, Function<A, byte[]> nameToBytes) {
-			MessageDigest md;
-
-			try {
-				md = MessageDigest.getInstance("MD5");
-			} catch (NoSuchAlgorithmException nsae) {
-				throw new InternalError("MD5 not supported", nsae);
-			}
-
-			md.update(toBytes(namespace.getMostSignificantBits()));
-			md.update(toBytes(namespace.getLeastSignificantBits()));
-			md.update(nameToBytes.apply(name));
-
-			byte[] bytes = md.digest();
-
-			long rawMsb = fromBytes(Arrays.copyOfRange(bytes, 0, 8));
-			long rawLsb = fromBytes(Arrays.copyOfRange(bytes, 8, 16));
-
-			long msb = writeByte(Mask.VERSION, Offset.VERSION, rawMsb, 3);
-			long lsb = writeByte(Mask.HASHED, Offset.HASHED, rawLsb, 0x2);
+			final byte[] bytes = nameToBytes.apply(name);
 
-			return new V3(new java.util.UUID(msb, lsb));
+			final NamespacedGenerator.Hasher hasher = NamespacedGenerator.MD5.get().reset();
+			hasher.update(namespace.msb, namespace.lsb);
+			hasher.update(bytes, 0, bytes.length);
+			return hasher.digest();
 		}
 
-		private V3(java.util.UUID uuid) {
-			super(uuid);
+		private V3(long msb, long lsb) {
+			super(msb, lsb);
 		}
 
 	}
@@ -633,8 +1520,17 @@ public class UUID implements Comparable<UUID> {
 		 * @param lsb Least significant bit in long representation
 		 */
 		public static UUID from(long msb, long lsb) {
-			return new UUID.V4(new java.util.UUID(writeByte(Mask.VERSION, Offset.VERSION, msb, 0x4),
-					writeByte(Mask.V4_LSB, Offset.V4_LSB, lsb, 0x2)));
+			return new UUID.V4(msb(msb), lsb(lsb));
+		}
+
+		/* Sets the version of a V4 UUID in random most significant bits. */
+		static long msb(long random) {
+			return writeByte(Mask.VERSION, Offset.VERSION, random, 0x4);
+		}
+
+		/* Sets the variant of a V4 UUID in random least significant bits. */
+		static long lsb(long random) {
+			return writeByte(Mask.V4_LSB, Offset.V4_LSB, random, 0x2);
 		}
 
 		/**
@@ -643,7 +1539,21 @@ public class UUID implements Comparable<UUID> {
 		 * @return the {@link V4} random UUID
 		 */
 		public static UUID random() {
-			return new V4(java.util.UUID.randomUUID());
+			final java.util.UUID juuid = java.util.UUID.randomUUID();
+
+			return new V4(juuid.getMostSignificantBits(), juuid.getLeastSignificantBits());
+		}
+
+		/**
+		 * Construct a {@link V4} random UUID using the provided source of random
+		 * {@code long} values.
+		 *
+		 * @param random supplier of random {@code long} values, like the ones in
+		 *               {@link RandomSource}
+		 * @return the {@link V4} random UUID
+		 */
+		public static UUID random(LongSupplier random) {
+			return from(random.getAsLong(), random.getAsLong());
 		}
 
 		/**
@@ -653,11 +1563,11 @@ public class UUID implements Comparable<UUID> {
 		 * @return a {@link V4} SQUUID.
 		 */
 		public static UUID squuid(long posix) {
-			final UUID uuid = random();
+			final java.util.UUID juuid = java.util.UUID.randomUUID();
 
-			final long msb = (posix << 32) | (uuid.getMostSignificantBits() & Mask.UB32);
+			final long msb = (posix << 32) | (juuid.getMostSignificantBits() & Mask.UB32);
 
-			return new UUID.V4(new java.util.UUID(msb, uuid.getLeastSignificantBits()));
+			return new UUID.V4(msb, juuid.getLeastSignificantBits());
 		}
 
 		/**
@@ -670,8 +1580,101 @@ public class UUID implements Comparable<UUID> {
 			return squuid(MILLISECONDS.toSeconds(System.currentTimeMillis()));
 		}
 
-		private V4(java.util.UUID uuid) {
-			super(uuid);
+		/**
+		 * Constructs a SQUUID (random, time-based) {@link V4} UUID using the provided
+		 * source of random {@code long} values.
+		 *
+		 * @param posix  the posix timestamp to be used to construct the UUID
+		 * @param random supplier of random {@code long} values, like the ones in
+		 *               {@link RandomSource}
+		 * @return a {@link V4} SQUUID.
+		 */
+		public static UUID squuid(long posix, LongSupplier random) {
+			final long msb = (posix << 32)
+					| (writeByte(Mask.VERSION, Offset.VERSION, random.getAsLong(), 0x4) & Mask.UB32);
+
+			return new UUID.V4(msb, writeByte(Mask.V4_LSB, Offset.V4_LSB, random.getAsLong(), 0x2));
+		}
+
+		/**
+		 * Constructs a SQUUID (random, time-based) {@link V4} UUID using the result of
+		 * {@link System#currentTimeMillis()} as posix timestamp and the provided source
+		 * of random {@code long} values.
+		 *
+		 * @param random supplier of random {@code long} values, like the ones in
+		 *               {@link RandomSource}
+		 * @return a {@link V4} SQUUID.
+		 */
+		public static UUID squuid(LongSupplier random) {
+			return squuid(MILLISECONDS.toSeconds(System.currentTimeMillis()), random);
+		}
+
+		/**
+		 * Returns a stream of {@code count} {@link V4} random UUIDs, from the
+		 * {@link RandomSource#secure()} source of the thread generating each one.
+		 * <p>
+		 * When the stream is parallel, each thread uses its own
+		 * {@link java.security.SecureRandom}, so threads don't contend.
+		 *
+		 * @param count number of UUIDs of the stream
+		 * @return a stream of {@link V4} UUIDs
+		 * @throws IllegalArgumentException if {@code count} is negative
+		 */
+		public static Stream<UUID> stream(long count) {
+			return StreamSupport.stream(new UUIDSpliterator.SecureV4(0, UUIDSpliterator.checkCount(count)), false);
+		}
+
+		/**
+		 * Returns a stream of {@code count} {@link V4} random UUIDs from the provided
+		 * generator, which is split for each part of a parallel stream.
+		 * <p>
+		 * {@link SplittableRandom} is not cryptographically strong, so this must not
+		 * be used for UUIDs that need to be unguessable.
+		 *
+		 * @param random source of the random bits, not to be used afterwards
+		 * @param count  number of UUIDs of the stream
+		 * @return a stream of {@link V4} UUIDs
+		 * @throws IllegalArgumentException if {@code count} is negative
+		 */
+		public static Stream<UUID> stream(SplittableRandom random, long count) {
+			return StreamSupport.stream(new UUIDSpliterator.V4(random, 0, UUIDSpliterator.checkCount(count)), false);
+		}
+
+		/**
+		 * Writes the bits of {@link V4} random UUIDs in the provided arrays, filling
+		 * them in parallel, from the {@link RandomSource#secure()} source of each
+		 * thread.
+		 *
+		 * @param msbOut array where the most significant bits of each UUID are
+		 *               written
+		 * @param lsbOut array where the least significant bits of each UUID are
+		 *               written
+		 * @throws IllegalArgumentException if the arrays have different lengths
+		 */
+		public static void fill(long[] msbOut, long[] lsbOut) {
+			UUIDSpliterator.fill(new UUIDSpliterator.SecureV4(0, msbOut.length), msbOut, lsbOut);
+		}
+
+		/**
+		 * Writes the bits of {@link V4} random UUIDs in the provided arrays, filling
+		 * them in parallel, from the provided generator.
+		 * <p>
+		 * {@link SplittableRandom} is not cryptographically strong, so this must not
+		 * be used for UUIDs that need to be unguessable.
+		 *
+		 * @param random source of the random bits, not to be used afterwards
+		 * @param msbOut array where the most significant bits of each UUID are
+		 *               written
+		 * @param lsbOut array where the least significant bits of each UUID are
+		 *               written
+		 * @throws IllegalArgumentException if the arrays have different lengths
+		 */
+		public static void fill(SplittableRandom random, long[] msbOut, long[] lsbOut) {
+			UUIDSpliterator.fill(new UUIDSpliterator.V4(random, 0, msbOut.length), msbOut, lsbOut);
+		}
+
+		private V4(long msb, long lsb) {
+			super(msb, lsb);
 		}
 
 	}
@@ -693,9 +1696,68 @@ public class UUID implements Comparable<UUID> {
 		 * @return a {@link V5} UUID
 		 */
 		public static UUID from(UUID namespace, String name) {
+			if (NamespacedGenerator.Hasher.DEFAULT_CHARSET_IS_UTF_8)
+				return from(namespace, (CharSequence) name);
+
 			return from(namespace, name, String::getBytes);
 		}
 
+		/**
+		 * Construct a namespace name-based {@link V5} UUID from the UTF-8
+		 * encoding of the provided characters. Uses SHA1 as a hash algorithm and
+		 * doesn't allocate intermediate arrays.
+		 *
+		 * @param namespace {@link UUID} used for the {@link V5} generation
+		 * @param name      name used for the {@link V5} generation
+		 * @return a {@link V5} UUID
+		 */
+		public static UUID from(UUID namespace, CharSequence name) {
+			Objects.requireNonNull(name, "name");
+
+			final NamespacedGenerator.Hasher hasher = NamespacedGenerator.SHA1.get().reset();
+			hasher.update(namespace.msb, namespace.lsb);
+			hasher.update(name);
+			return hasher.digest();
+		}
+
+		/**
+		 * Construct a namespace name-based {@link V5} UUID from a range of a byte
+		 * array. Uses SHA1 as a hash algorithm.
+		 *
+		 * @param namespace {@link UUID} used for the {@link V5} generation
+		 * @param name      array containing the name used for the {@link V5} generation
+		 * @param offset    index of the first byte of the name
+		 * @param length    number of bytes of the name
+		 * @return a {@link V5} UUID
+		 * @throws IndexOutOfBoundsException if the range is out of the bounds of the array
+		 */
+		public static UUID from(UUID namespace, byte[] name, int offset, int length) {
+			Objects.checkFromIndexSize(offset, length, name.length);
+
+			final NamespacedGenerator.Hasher hasher = NamespacedGenerator.SHA1.get().reset();
+			hasher.update(namespace.msb, namespace.lsb);
+			hasher.update(name, offset, length);
+			return hasher.digest();
+		}
+
+		/**
+		 * Construct a namespace name-based {@link V5} UUID from the remaining bytes
+		 * of a {@link ByteBuffer}. Uses SHA1 as a hash algorithm. The buffer's
+		 * position is left unchanged.
+		 *
+		 * @param namespace {@link UUID} used for the {@link V5} generation
+		 * @param name      buffer containing the name used for the {@link V5} generation
+		 * @return a {@link V5} UUID
+		 */
+		public static UUID from(UUID namespace, ByteBuffer name) {
+			Objects.requireNonNull(name, "name");
+
+			final NamespacedGenerator.Hasher hasher = NamespacedGenerator.SHA1.get().reset();
+			hasher.update(namespace.msb, namespace.lsb);
+			hasher.update(name);
+			return hasher.digest();
+		}
+
 		/**
 		 * Construct a namespace name-based {@link V5} UUID. Uses MD5 as a hash
 		 * algorithm
@@ -707,30 +1769,354 @@ public class UUID implements Comparable<UUID> {
 		 * @return a {@link V5} UUID
 		 */
 		public static <A> UUID from(UUID namespace, A name, Function<A, byte[]> nameToBytes) {
-			MessageDigest md;
+			final byte[] bytes = nameToBytes.apply(name);
+
+			final NamespacedGenerator.Hasher hasher = NamespacedGenerator.SHA1.get().reset();
+			hasher.update(namespace.msb, namespace.lsb);
+			hasher.update(bytes, 0, bytes.length);
+			return hasher.digest();
+		}
+
+		/**
+		 * Returns a stream of the namespace name-based {@link V5} UUIDs of the
+		 * provided names, in the same order. Uses SHA1 as a hash algorithm.
+		 * <p>
+		 * The stream is parallel if the names are, and each thread hashes with its
+		 * own digest.
+		 *
+		 * @param namespace {@link UUID} used for the {@link V5} generation
+		 * @param names     names used for the {@link V5} generation
+		 * @return a stream of {@link V5} UUIDs
+		 */
+		public static Stream<UUID> stream(UUID namespace, Stream<? extends CharSequence> names) {
+			final NamespacedGenerator generator = NamespacedGenerator.v5(namespace);
+
+			return names.map(generator::from);
+		}
+
+		/**
+		 * Returns a stream of the namespace name-based {@link V5} UUIDs of the
+		 * provided names, in the same order. Uses SHA1 as a hash algorithm.
+		 * <p>
+		 * The stream is parallel if the names are, and each thread hashes with its
+		 * own digest.
+		 *
+		 * @param namespace   {@link UUID} used for the {@link V5} generation
+		 * @param names       names used for the {@link V5} generation
+		 * @param nameToBytes function used to convert each name to a byte array
+		 * @param <A>         the type of the names
+		 * @return a stream of {@link V5} UUIDs
+		 */
+		public static <A> Stream<UUID> stream(UUID namespace, Stream<A> names, Function<A, byte[]> nameToBytes) {
+			final NamespacedGenerator generator = NamespacedGenerator.v5(namespace);
+
+			return names.map(name -> generator.from(name, nameToBytes));
+		}
+
+		private V5(long msb, long lsb) {
+			super(msb, lsb);
+		}
+
+	}
+
+	/**
+	 * Version 6 UUIDs contain the same fields as {@link V1} ones, but their
+	 * timestamp is stored from its most to its least significant bits, so they
+	 * sort by creation time both with {@link #compareTo} and bytewise.
+	 * <p>
+	 * Conversion between {@link V1} and {@link V6} is lossless: see
+	 * {@link V1#toV6()}, {@link #toV1()} and the bulk {@link #fromV1(long[], int,
+	 * long[], int, int)} and {@link #toV1(long[], int, long[], int, int)}.
+	 *
+	 * @see <a href="https://www.rfc-editor.org/rfc/rfc9562#section-5.6">RFC-9562</a>
+	 */
+	public final static class V6 extends UUID {
 
-			try {
-				md = MessageDigest.getInstance("SHA1");
-			} catch (NoSuchAlgorithmException nsae) {
-				throw new InternalError("SHA1 not supported", nsae);
+		/**
+		 * Get the 60-bit timestamp of this UUID, in the same units as the one of a
+		 * {@link V1} UUID.
+		 *
+		 * @return the timestamp of this UUID
+		 */
+		public final long timestamp() {
+			return V6.timestamp(getMostSignificantBits());
+		}
+
+		/**
+		 * Returns the {@link V1} UUID with the same timestamp, clock sequence and
+		 * node as this one.
+		 *
+		 * @return this UUID in the {@link V1} layout
+		 */
+		public final UUID toV1() {
+			return new V1(V1.msb(timestamp()), getLeastSignificantBits());
+		}
+
+		/**
+		 * Constructs a time-based {@link V6} UUID using the default {@link Node} and
+		 * {@link Timestamp#monotonic()} as the monotonic timestamp supplier.
+		 *
+		 * @return a {@link V6} UUID
+		 */
+		public static UUID next() {
+			return next(Node.getInstance());
+		}
+
+		/**
+		 * Constructs a time-based {@link V6} UUID using the provided {@link Node} and
+		 * {@link Timestamp#monotonic()} as the monotonic timestamp supplier.
+		 *
+		 * @param node Node for the V6 UUID generation
+		 * @return a {@link V6} UUID
+		 */
+		public static UUID next(Node node) {
+			return next(node, Timestamp::monotonic);
+		}
+
+		/**
+		 * Constructs a time-based {@link V6} UUID using the provided {@link Node} and
+		 * monotonic timestamp supplier.
+		 *
+		 * @param node              node for the V6 UUID generation
+		 * @param monotonicSupplier monotonic timestamp which assures the V6 UUID time
+		 *                          is unique
+		 * @return a {@link V6} UUID
+		 */
+		public static UUID next(Node node, LongSupplier monotonicSupplier) {
+			return new V6(msb(monotonicSupplier.getAsLong()), V1.lsb(node));
+		}
+
+		/**
+		 * Rewrites the most significant bits of {@link V1} UUIDs in the {@link V6}
+		 * layout. The least significant bits are the same in both versions, so they
+		 * don't need to be converted.
+		 * <p>
+		 * Values that don't belong to a {@link V1} UUID are copied unchanged. The
+		 * input and output ranges may be the same, to convert in place.
+		 *
+		 * @param src     the most significant bits of the UUIDs to convert
+		 * @param srcPos  starting position in the source array
+		 * @param dest    the array receiving the converted bits
+		 * @param destPos starting position in the destination array
+		 * @param length  the number of values to convert
+		 * @throws IndexOutOfBoundsException if any of the ranges is out of its
+		 *                                   array's bounds
+		 */
+		public static void fromV1(long[] src, int srcPos, long[] dest, int destPos, int length) {
+			Objects.checkFromIndexSize(srcPos, length, src.length);
+			Objects.checkFromIndexSize(destPos, length, dest.length);
+
+			for (int i = 0; i < length; i++) {
+				final long msb = src[srcPos + i];
+				dest[destPos + i] = (msb & Mask.VERSION) == 0x1000L ? msb(UUID.timestamp(msb)) : msb;
 			}
+		}
 
-			md.update(toBytes(namespace.getMostSignificantBits()));
-			md.update(toBytes(namespace.getLeastSignificantBits()));
-			md.update(nameToBytes.apply(name));
-			byte[] bytes = md.digest();
+		/**
+		 * Rewrites the most significant bits of {@link V6} UUIDs in the {@link V1}
+		 * layout. The least significant bits are the same in both versions, so they
+		 * don't need to be converted.
+		 * <p>
+		 * Values that don't belong to a {@link V6} UUID are copied unchanged. The
+		 * input and output ranges may be the same, to convert in place.
+		 *
+		 * @param src     the most significant bits of the UUIDs to convert
+		 * @param srcPos  starting position in the source array
+		 * @param dest    the array receiving the converted bits
+		 * @param destPos starting position in the destination array
+		 * @param length  the number of values to convert
+		 * @throws IndexOutOfBoundsException if any of the ranges is out of its
+		 *                                   array's bounds
+		 */
+		public static void toV1(long[] src, int srcPos, long[] dest, int destPos, int length) {
+			Objects.checkFromIndexSize(srcPos, length, src.length);
+			Objects.checkFromIndexSize(destPos, length, dest.length);
 
-			long rawMsb = fromBytes(Arrays.copyOfRange(bytes, 0, 8));
-			long rawLsb = fromBytes(Arrays.copyOfRange(bytes, 8, 16));
+			for (int i = 0; i < length; i++) {
+				final long msb = src[srcPos + i];
+				dest[destPos + i] = (msb & Mask.VERSION) == 0x6000L ? V1.msb(V6.timestamp(msb)) : msb;
+			}
+		}
 
-			long msb = writeByte(Mask.VERSION, Offset.VERSION, rawMsb, 5);
-			long lsb = writeByte(Mask.HASHED, Offset.HASHED, rawLsb, 0x2);
+		private V6(long msb, long lsb) {
+			super(msb, lsb);
+		}
 
-			return new V5(new java.util.UUID(msb, lsb));
+		/* Lays out the time fields, from most to least significant, and version of a V6 UUID. */
+		private static long msb(long timestamp) {
+			return writeByte(Mask.VERSION, Offset.VERSION, (timestamp >>> 12) << 16 | (timestamp & 0x0FFFL), 6);
 		}
 
-		private V5(java.util.UUID uuid) {
-			super(uuid);
+		/* Reads the 60-bit timestamp from the `msb` of a V6 UUID. */
+		private static long timestamp(long msb) {
+			return (msb >>> 16) << 12 | (msb & 0x0FFFL);
+		}
+
+	}
+
+	/**
+	 * Version 7 UUIDs are time-ordered: their 48 most significant bits are the
+	 * milliseconds since the Unix epoch, followed by a 12-bit counter (method 1 in
+	 * RFC-9562) and 62 random bits. This makes them sort by creation time, both
+	 * with {@link #compareTo} and bytewise, so they keep B-tree inserts local.
+	 * <p>
+	 * UUIDs created with {@link Timestamp#unixMillisWithCounter()} are strictly
+	 * increasing within the JVM, even when created from different threads.
+	 *
+	 * @see <a href="https://www.rfc-editor.org/rfc/rfc9562#section-5.7">RFC-9562</a>
+	 */
+	public final static class V7 extends UUID {
+
+		/**
+		 * Get the milliseconds since the Unix epoch stored in this UUID.
+		 *
+		 * @return the unix_ts_ms field of this UUID
+		 */
+		public final long unixMillis() {
+			return getMostSignificantBits() >>> 16;
+		}
+
+		/**
+		 * Get the 12-bit counter (the rand_a field) of this UUID.
+		 *
+		 * @return the counter of this UUID
+		 */
+		public final int counter() {
+			return (int) (getMostSignificantBits() & 0x0FFF);
+		}
+
+		/**
+		 * Constructs a time-ordered {@link V7} UUID using
+		 * {@link Timestamp#unixMillisWithCounter()} and
+		 * {@link RandomSource#secure()} for its random bits.
+		 *
+		 * @return a {@link V7} UUID
+		 */
+		public static UUID next() {
+			return next(Timestamp::unixMillisWithCounter, RandomSource::secure);
+		}
+
+		/**
+		 * Constructs a time-ordered {@link V7} UUID using the provided timestamp and
+		 * random suppliers.
+		 *
+		 * @param stamps supplier of Unix milliseconds and counter, packed as
+		 *               {@code millis << 12 | counter} (see
+		 *               {@link Timestamp#unixMillisWithCounter()})
+		 * @param random supplier of the random bits
+		 * @return a {@link V7} UUID
+		 */
+		public static UUID next(LongSupplier stamps, LongSupplier random) {
+			return new V7(msb(stamps.getAsLong()), lsb(random.getAsLong()));
+		}
+
+		/**
+		 * Constructs {@code n} time-ordered {@link V7} UUIDs, reserving their
+		 * timestamps with {@link Timestamp#unixMillisWithCounter(int)} and using
+		 * {@link RandomSource#secure()} for their random bits.
+		 *
+		 * @param n number of UUIDs to generate
+		 * @return an array with {@code n} increasing {@link V7} UUIDs
+		 * @throws IllegalArgumentException if {@code n} is negative
+		 */
+		public static UUID[] nextBatch(int n) {
+			return nextBatch(Timestamp::unixMillisWithCounter, RandomSource::secure, n);
+		}
+
+		/**
+		 * Constructs {@code n} time-ordered {@link V7} UUIDs using a function
+		 * reserving a block of consecutive timestamps and the provided random
+		 * supplier.
+		 *
+		 * @param reserveFor function that reserves the given number of consecutive
+		 *                   timestamps in a single step and returns the first one
+		 * @param random     supplier of the random bits
+		 * @param n          number of UUIDs to generate
+		 * @return an array with {@code n} increasing {@link V7} UUIDs
+		 * @throws IllegalArgumentException if {@code n} is negative
+		 */
+		public static UUID[] nextBatch(IntToLongFunction reserveFor, LongSupplier random, int n) {
+			checkBatchSize(n);
+
+			final UUID[] uuids = new UUID[n];
+
+			if (n == 0)
+				return uuids;
+
+			final long first = reserveFor.applyAsLong(n);
+
+			for (int i = 0; i < n; i++) {
+				uuids[i] = new V7(msb(first + i), lsb(random.getAsLong()));
+			}
+
+			return uuids;
+		}
+
+		/**
+		 * Writes the bits of {@code n} time-ordered {@link V7} UUIDs in the provided
+		 * arrays, reserving their timestamps with
+		 * {@link Timestamp#unixMillisWithCounter(int)} and using
+		 * {@link RandomSource#secure()} for their random bits.
+		 *
+		 * @param n      number of UUIDs to generate
+		 * @param msbOut array where the most significant bits of each UUID are
+		 *               written, starting at index 0
+		 * @param lsbOut array where the least significant bits of each UUID are
+		 *               written, starting at index 0
+		 * @throws IllegalArgumentException  if {@code n} is negative
+		 * @throws IndexOutOfBoundsException if any of the arrays is shorter than
+		 *                                   {@code n}
+		 */
+		public static void nextBatch(int n, long[] msbOut, long[] lsbOut) {
+			nextBatch(Timestamp::unixMillisWithCounter, RandomSource::secure, n, msbOut, lsbOut);
+		}
+
+		/**
+		 * Writes the bits of {@code n} time-ordered {@link V7} UUIDs in the provided
+		 * arrays, using a function reserving a block of consecutive timestamps and
+		 * the provided random supplier.
+		 *
+		 * @param reserveFor function that reserves the given number of consecutive
+		 *                   timestamps in a single step and returns the first one
+		 * @param random     supplier of the random bits
+		 * @param n          number of UUIDs to generate
+		 * @param msbOut     array where the most significant bits of each UUID are
+		 *                   written, starting at index 0
+		 * @param lsbOut     array where the least significant bits of each UUID are
+		 *                   written, starting at index 0
+		 * @throws IllegalArgumentException  if {@code n} is negative
+		 * @throws IndexOutOfBoundsException if any of the arrays is shorter than
+		 *                                   {@code n}
+		 */
+		public static void nextBatch(IntToLongFunction reserveFor, LongSupplier random, int n, long[] msbOut,
+				long[] lsbOut) {
+			checkBatchSize(n);
+			Objects.checkFromIndexSize(0, n, msbOut.length);
+			Objects.checkFromIndexSize(0, n, lsbOut.length);
+
+			if (n == 0)
+				return;
+
+			final long first = reserveFor.applyAsLong(n);
+
+			for (int i = 0; i < n; i++) {
+				msbOut[i] = msb(first + i);
+				lsbOut[i] = lsb(random.getAsLong());
+			}
+		}
+
+		private V7(long msb, long lsb) {
+			super(msb, lsb);
+		}
+
+		/* Lays out the Unix milliseconds, version and counter of a V7 UUID. */
+		private static long msb(long stamp) {
+			return (stamp >>> 12) << 16 | 0x7000L | (stamp & 0x0FFFL);
+		}
+
+		/* Lays out the variant and random bits of a V7 UUID. */
+		private static long lsb(long random) {
+			return writeByte(Mask.HASHED, Offset.HASHED, random, 0x2);
 		}
 
 	}
@@ -742,16 +2128,40 @@ public class UUID implements Comparable<UUID> {
 	 */
 	public final static class UnknownVersion extends UUID {
 
-		private UnknownVersion(java.util.UUID uuid) {
-			super(uuid);
+		private UnknownVersion(long msb, long lsb) {
+			super(msb, lsb);
 		}
 
 	}
 
-	private final java.util.UUID juuid;
+	/* Builds a name-based UUID of the given version from the first 16 bytes of a hash, read as two longs. */
+	static UUID fromDigest(int version, long rawMsb, long rawLsb) {
+		final long msb = writeByte(Mask.VERSION, Offset.VERSION, rawMsb, version);
+		final long lsb = writeByte(Mask.HASHED, Offset.HASHED, rawLsb, 0x2);
+
+		return version == 3 ? new V3(msb, lsb) : new V5(msb, lsb);
+	}
+
+	/* Reads the 60-bit timestamp from the `msb` of a time-based UUID. */
+	private static long timestamp(long msb) {
+		return (msb & 0x0FFFL) << 48 | ((msb >> 16) & 0xFFFFL) << 32 | msb >>> 32;
+	}
+
+	/* Reads the 14-bit clock sequence from the `lsb` of a time-based UUID. */
+	private static int clockSequence(long lsb) {
+		return (int) ((lsb & 0x3FFF000000000000L) >>> 48);
+	}
+
+	private final long msb;
+
+	private final long lsb;
+
+	/* Lazily created by `asJava`; racy publication is fine since `java.util.UUID` is immutable. */
+	private java.util.UUID juuid;
 
-	private UUID(java.util.UUID juuid) {
-		this.juuid = juuid;
+	private UUID(long msb, long lsb) {
+		this.msb = msb;
+		this.lsb = lsb;
 	}
 
 }
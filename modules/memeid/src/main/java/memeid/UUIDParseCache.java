@@ -0,0 +1,303 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of parsed UUIDs, which returns the same {@link UUID} instance
+ * every time the same UUID string is parsed, so services that keep parsing
+ * the same ids (from headers, query params...) don't create a new object for
+ * each of them.
+ * <p>
+ * Names are parsed into their bits without allocating, and the bits are the
+ * key of the cache. This is as cheap as hashing the characters, it makes each
+ * lookup compare two {@code long} values instead of 36 characters, and
+ * upper and lower case spellings share the same instance.
+ * <p>
+ * The cache is a 4-way set-associative table whose reads never lock, with
+ * {@code TinyLFU} admission: a small count-min sketch estimates how often
+ * each UUID was seen recently, and a new UUID only replaces the least
+ * frequent one of its set if it has been seen more often. This keeps hot ids
+ * cached even when many ids are parsed only once. Only one in eight lookups
+ * is recorded in the sketch, and it's aged in the background, so hits don't
+ * pay for keeping it up to date. Instances are thread-safe and meant to be
+ * shared, for example:
+ *
+ * <pre>
+ * {@code
+ * UUIDParseCache cache = new UUIDParseCache(1 << 18);
+ *
+ * UUID uuid = cache.tryParse(header);
+ * }
+ * </pre>
+ *
+ * @see <a href="https://arxiv.org/abs/1512.00727">TinyLFU: A Highly Efficient Cache Admission Policy</a>
+ */
+public final class UUIDParseCache {
+
+    /**
+     * The maximum size of a cache.
+     */
+    public static final int MAX_SIZE = 1 << 26;
+
+    private final AtomicReferenceArray<UUID> table;
+
+    private final int sets;
+
+    /*
+     * Four counters of up to 15 per UUID, one per byte for simplicity, updated
+     * without synchronization. All the counters of a UUID are in the same block
+     * of 64 bytes, so recording it touches a single cache line.
+     */
+    private final byte[] sketch;
+
+    private final int blocks;
+
+    private final int blockMask;
+
+    /* Average number of recorded occurrences after which every counter is halved, so old ids fade out. */
+    private final int sampleSize;
+
+    private final AtomicBoolean aging = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache holding up to (about) {@code maximumSize} UUIDs. The size is
+     * rounded up to the next power of two.
+     *
+     * @param maximumSize the maximum number of UUIDs in the cache
+     * @throws IllegalArgumentException if {@code maximumSize} is not between 1
+     *                                  and {@link #MAX_SIZE}
+     */
+    public UUIDParseCache(int maximumSize) {
+        if (maximumSize < 1 || maximumSize > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid maximum size: " + maximumSize);
+        }
+
+        final int capacity = Math.max(WAYS, Integer.highestOneBit(maximumSize - 1) << 1);
+
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.sets = capacity / WAYS;
+        this.sketch = new byte[ROWS * capacity];
+        this.blocks = Math.max(1, sketch.length / BLOCK);
+        this.blockMask = Math.min(BLOCK, sketch.length) - 1;
+        this.sampleSize = 10 * capacity;
+    }
+
+    /**
+     * Returns the UUID of the string standard representation, from the cache if
+     * it's there, or {@code null} if it doesn't conform to it (as
+     * {@link UUID#tryParse(CharSequence)}).
+     *
+     * @param name a character sequence that may specify a UUID
+     * @return the cached UUID with the specified value, or {@code null} if name
+     *         does not conform to the string representation
+     */
+    public UUID tryParse(CharSequence name) {
+        return UUID.tryParse(name, this);
+    }
+
+    /**
+     * Returns the UUID of the 36 ASCII bytes of its string standard
+     * representation starting at {@code offset}, from the cache if it's there,
+     * or {@code null} if they don't conform to it (as
+     * {@link UUID#tryParse(byte[], int)}).
+     *
+     * @param ascii  an array that may contain the ASCII representation of a UUID
+     * @param offset the index of the first byte of the representation
+     * @return the cached UUID with the specified value, or {@code null} if the
+     *         bytes do not conform to the string representation
+     * @throws IndexOutOfBoundsException if there are less than 36 bytes from
+     *                                   {@code offset}
+     */
+    public UUID tryParse(byte[] ascii, int offset) {
+        return UUID.tryParse(ascii, offset, this);
+    }
+
+    /**
+     * Returns the UUID of the string standard representation, from the cache if
+     * it's there (as {@link UUID#fromString(String)}).
+     *
+     * @param name a string that specifies a UUID
+     * @return the cached UUID with the specified value
+     * @throws IllegalArgumentException if name does not conform to the string
+     *                                  representation
+     */
+    public UUID fromString(String name) {
+        final UUID uuid = tryParse(name);
+
+        if (uuid == null) {
+            throw UUID.invalid(name);
+        }
+
+        return uuid;
+    }
+
+    /**
+     * Returns the number of lookups of valid UUIDs that were found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups of valid UUIDs that weren't found in the
+     * cache, and created a new instance.
+     *
+     * @return the number of cache misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the ratio of lookups of valid UUIDs that were found in the cache,
+     * or {@code 0} if there were none.
+     *
+     * @return the hit rate, between 0 and 1
+     */
+    public double hitRate() {
+        final long hits = hits();
+        final long total = hits + misses();
+
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /* Returns the cached instance with the provided bits, caching a new one if it's frequent enough. */
+    UUID intern(long msb, long lsb) {
+        final int hash = UUID.hashCode(msb, lsb);
+        final int first = (hash & (sets - 1)) * WAYS;
+        final boolean sampled = (ThreadLocalRandom.current().nextInt() & (SAMPLE - 1)) == 0;
+
+        if (sampled) {
+            record(hash);
+        }
+
+        int empty = -1;
+
+        for (int i = first; i < first + WAYS; i++) {
+            final UUID cached = table.get(i);
+
+            if (cached == null) {
+                empty = i;
+            } else if (cached.getMostSignificantBits() == msb && cached.getLeastSignificantBits() == lsb) {
+                hits.increment();
+                return cached;
+            }
+        }
+
+        misses.increment();
+
+        final UUID uuid = UUID.from(msb, lsb);
+
+        if (empty >= 0) {
+            table.set(empty, uuid);
+        } else if (sampled) {
+            admit(uuid, hash, first);
+        }
+
+        return uuid;
+    }
+
+    /* Replaces the least frequent UUID of the set with the new one if it has been seen more often. */
+    private void admit(UUID uuid, int hash, int first) {
+        int victim = first;
+        int victimFrequency = Integer.MAX_VALUE;
+
+        for (int i = first; i < first + WAYS; i++) {
+            final UUID cached = table.get(i);
+            final int frequency = cached == null ? 0 : frequency(cached.hashCode());
+
+            if (frequency < victimFrequency) {
+                victim = i;
+                victimFrequency = frequency;
+            }
+        }
+
+        if (frequency(hash) > victimFrequency) {
+            table.set(victim, uuid);
+        }
+    }
+
+    /* Counts an occurrence of the hash in every row, and sometimes starts aging the sketch. */
+    private void record(int hash) {
+        for (int row = 0; row < ROWS; row++) {
+            final int index = index(hash, row);
+
+            if (sketch[index] < MAX_COUNT) {
+                sketch[index]++;
+            }
+        }
+
+        // One in sampleSize samples on average, which needs no shared counter
+        if (ThreadLocalRandom.current().nextInt(sampleSize) == 0 && aging.compareAndSet(false, true)) {
+            ForkJoinPool.commonPool().execute(this::age);
+        }
+    }
+
+    /* Halves every counter of the sketch, outside of the lookups. */
+    private void age() {
+        try {
+            for (int i = 0; i < sketch.length; i++) {
+                sketch[i] >>= 1;
+            }
+        } finally {
+            aging.set(false);
+        }
+    }
+
+    /* Estimates the recent occurrences of the hash as its smallest counter. */
+    private int frequency(int hash) {
+        int frequency = MAX_COUNT;
+
+        for (int row = 0; row < ROWS; row++) {
+            frequency = Math.min(frequency, sketch[index(hash, row)]);
+        }
+
+        return frequency;
+    }
+
+    /* Picks the block of the hash with its Fibonacci hash, and the counter of each row in it with 6 bits of the hash. */
+    private int index(int hash, int row) {
+        final int block = (int) (((hash * 0x9E3779B9) & 0xFFFFFFFFL) * blocks >>> 32);
+
+        return block * BLOCK + ((hash >>> (8 + 6 * row)) & blockMask);
+    }
+
+    private static final int WAYS = 4;
+
+    private static final int ROWS = 4;
+
+    private static final int BLOCK = 64;
+
+    private static final int MAX_COUNT = 15;
+
+    /* One in how many lookups is recorded in the sketch, a power of two. */
+    private static final int SAMPLE = 8;
+
+}
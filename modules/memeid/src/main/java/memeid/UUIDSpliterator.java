@@ -0,0 +1,255 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/*
+ * Source of a given number of generated UUIDs, for streams and for filling
+ * arrays with their bits. The range [index, fence) are the positions of the
+ * UUIDs left, which are also their positions in the filled arrays.
+ *
+ * Each split gets its own generation state (a block of timestamps or a split
+ * random generator), so parallel streams don't contend on shared state.
+ */
+abstract class UUIDSpliterator implements Spliterator<UUID> {
+
+    long index;
+
+    final long fence;
+
+    UUIDSpliterator(long index, long fence) {
+        this.index = index;
+        this.fence = fence;
+    }
+
+    /* Returns the most significant bits of the UUID at index, always called before nextLsb() and before index moves on. */
+    abstract long nextMsb();
+
+    /* Returns the least significant bits of the next UUID. */
+    abstract long nextLsb();
+
+    /* Returns a spliterator with its own state for the range [index, fence). */
+    abstract UUIDSpliterator split(long index, long fence);
+
+    @Override
+    public boolean tryAdvance(Consumer<? super UUID> action) {
+        Objects.requireNonNull(action);
+
+        if (index >= fence) {
+            return false;
+        }
+
+        final UUID uuid = UUID.from(nextMsb(), nextLsb());
+        index++;
+        action.accept(uuid);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super UUID> action) {
+        Objects.requireNonNull(action);
+
+        for (; index < fence; index++) {
+            action.accept(UUID.from(nextMsb(), nextLsb()));
+        }
+    }
+
+    /* Writes the bits of the remaining UUIDs in the arrays, at their positions. */
+    void forEachRemaining(long[] msbs, long[] lsbs) {
+        for (; index < fence; index++) {
+            msbs[(int) index] = nextMsb();
+            lsbs[(int) index] = nextLsb();
+        }
+    }
+
+    @Override
+    public UUIDSpliterator trySplit() {
+        final long middle = (index + fence) >>> 1;
+
+        if (middle - index < MIN_SPLIT) {
+            return null;
+        }
+
+        final UUIDSpliterator prefix = split(index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+
+    /* Returns the number of UUIDs of a stream if it's valid. */
+    static long checkCount(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid number of UUIDs: " + count);
+        }
+
+        return count;
+    }
+
+    /* Fills both arrays with the bits of the UUIDs of a spliterator over their whole length, in parallel. */
+    static void fill(UUIDSpliterator spliterator, long[] msbs, long[] lsbs) {
+        if (msbs.length != lsbs.length) {
+            throw new IllegalArgumentException("Arrays of different lengths: " + msbs.length + " != " + lsbs.length);
+        }
+
+        ForkJoinPool.commonPool().invoke(new Fill(spliterator, msbs, lsbs));
+    }
+
+    private static final class Fill extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient UUIDSpliterator spliterator;
+
+        private final long[] msbs;
+
+        private final long[] lsbs;
+
+        private Fill(UUIDSpliterator spliterator, long[] msbs, long[] lsbs) {
+            this.spliterator = spliterator;
+            this.msbs = msbs;
+            this.lsbs = lsbs;
+        }
+
+        @Override
+        protected void compute() {
+            final UUIDSpliterator prefix = spliterator.trySplit();
+
+            if (prefix == null) {
+                spliterator.forEachRemaining(msbs, lsbs);
+            } else {
+                invokeAll(new Fill(prefix, msbs, lsbs), new Fill(spliterator, msbs, lsbs));
+            }
+        }
+
+    }
+
+    /* V1 UUIDs whose timestamps are reserved in blocks with Timestamp.monotonic(int). */
+    static final class V1 extends UUIDSpliterator {
+
+        private final long lsb;
+
+        private long timestamp;
+
+        private long blockEnd;
+
+        V1(long lsb, long index, long fence) {
+            super(index, fence);
+            this.lsb = lsb;
+        }
+
+        @Override
+        long nextMsb() {
+            if (timestamp == blockEnd) {
+                final int block = (int) Math.min(fence - index, BLOCK);
+                timestamp = Timestamp.monotonic(block);
+                blockEnd = timestamp + block;
+            }
+
+            return UUID.V1.msb(timestamp++);
+        }
+
+        @Override
+        long nextLsb() {
+            return lsb;
+        }
+
+        @Override
+        UUIDSpliterator split(long index, long fence) {
+            return new V1(lsb, index, fence);
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | DISTINCT;
+        }
+
+    }
+
+    /* V4 UUIDs from a SplittableRandom, split along with the spliterator. */
+    static final class V4 extends UUIDSpliterator {
+
+        private final SplittableRandom random;
+
+        V4(SplittableRandom random, long index, long fence) {
+            super(index, fence);
+            this.random = random;
+        }
+
+        @Override
+        long nextMsb() {
+            return UUID.V4.msb(random.nextLong());
+        }
+
+        @Override
+        long nextLsb() {
+            return UUID.V4.lsb(random.nextLong());
+        }
+
+        @Override
+        UUIDSpliterator split(long index, long fence) {
+            return new V4(random.split(), index, fence);
+        }
+
+    }
+
+    /* V4 UUIDs from RandomSource.secure(), which keeps a SecureRandom per thread. */
+    static final class SecureV4 extends UUIDSpliterator {
+
+        SecureV4(long index, long fence) {
+            super(index, fence);
+        }
+
+        @Override
+        long nextMsb() {
+            return UUID.V4.msb(RandomSource.secure());
+        }
+
+        @Override
+        long nextLsb() {
+            return UUID.V4.lsb(RandomSource.secure());
+        }
+
+        @Override
+        UUIDSpliterator split(long index, long fence) {
+            return new SecureV4(index, fence);
+        }
+
+    }
+
+    /* Minimum number of UUIDs of a split. */
+    private static final long MIN_SPLIT = 1 << 12;
+
+    /* Maximum number of timestamps reserved at once by V1 spliterators. */
+    private static final long BLOCK = 1 << 12;
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Generator of time-based ({@link UUID.V1}) UUIDs split in stripes, so
+ * threads generating UUIDs concurrently don't contend on a single clock.
+ * <p>
+ * Each stripe has its own clock sequence, derived from the one of the
+ * {@link Node} by flipping bits of its low byte (the clock_seq_low field), and
+ * its own monotonic clock counting 100-nanosecond intervals like
+ * {@link Timestamp#highResolution()}. Threads are assigned to stripes in turn
+ * the first time they use the generator, so as long as there are no more
+ * threads than stripes, generating a UUID doesn't write to any memory shared
+ * with other threads.
+ * <p>
+ * The clock sequences of the stripes are distinct from each other and from
+ * the one of the node, so the UUIDs of a generator never collide with each
+ * other nor with the ones of {@link UUID.V1#next(Node)} for the same node.
+ * They may collide with the ones of another generator for the same node,
+ * so create a single generator per node and reuse it, for example:
+ *
+ * <pre>
+ * {@code
+ * V1Generator generator = new V1Generator(Node.getInstance(), 16);
+ *
+ * UUID uuid = generator.next();
+ * }
+ * </pre>
+ */
+public final class V1Generator {
+
+    /**
+     * The maximum number of stripes of a generator, as each one needs a distinct
+     * clock_seq_low other than the node's.
+     */
+    public static final int MAX_STRIPES = 255;
+
+    private final Node node;
+
+    private final long[] lsbs;
+
+    private final AtomicLongArray clocks;
+
+    private final AtomicInteger threads = new AtomicInteger();
+
+    private final ThreadLocal<Integer> stripe;
+
+    /**
+     * Creates a generator for the provided node with as many stripes as
+     * available processors.
+     *
+     * @param node node for the V1 UUID generation
+     */
+    public V1Generator(Node node) {
+        this(node, Math.min(MAX_STRIPES, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Creates a generator for the provided node with the given number of
+     * stripes.
+     *
+     * @param node    node for the V1 UUID generation
+     * @param stripes number of stripes, usually the number of threads that will
+     *                use the generator
+     * @throws IllegalArgumentException if {@code stripes} is not between 1 and
+     *                                  {@link #MAX_STRIPES}
+     */
+    public V1Generator(Node node, int stripes) {
+        if (stripes < 1 || stripes > MAX_STRIPES) {
+            throw new IllegalArgumentException("Invalid number of stripes: " + stripes);
+        }
+
+        this.node = node;
+        this.lsbs = new long[stripes];
+        this.clocks = new AtomicLongArray(stripes * PADDING);
+        this.stripe = ThreadLocal.withInitial(() -> Integer.remainderUnsigned(threads.getAndIncrement(), lsbs.length));
+
+        for (int i = 0; i < stripes; i++) {
+            lsbs[i] = UUID.V1.lsb(new Node((short) (node.clockSequence ^ (i + 1)), node.id));
+        }
+    }
+
+    /**
+     * Constructs a time-based {@link UUID.V1} UUID from the stripe of the
+     * current thread.
+     *
+     * @return a {@link UUID.V1} UUID
+     */
+    public UUID next() {
+        final int i = stripe.get();
+        final long timestamp = clocks.accumulateAndGet(i * PADDING, Timestamp.ticksNow(),
+                (current, tick) -> Math.max(tick, current + 1));
+
+        return UUID.V1.of(timestamp, lsbs[i]);
+    }
+
+    /**
+     * Returns the node of this generator.
+     *
+     * @return the node of this generator
+     */
+    public Node node() {
+        return node;
+    }
+
+    /**
+     * Returns the number of stripes of this generator.
+     *
+     * @return the number of stripes of this generator
+     */
+    public int stripes() {
+        return lsbs.length;
+    }
+
+    /* Longs between the clocks of two stripes, so each one sits on its own cache lines. */
+    private static final int PADDING = 16;
+
+}
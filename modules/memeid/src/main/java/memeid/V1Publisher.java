@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Publisher of an endless sequence of V1 UUIDs for a node, emitting as many
+ * as its subscribers request. UUIDs are emitted in the thread requesting
+ * them, unless all the timestamps of the current millisecond are taken: then
+ * the emission continues in another thread once the clock moves, so
+ * requesting never blocks.
+ */
+final class V1Publisher implements Flow.Publisher<UUID> {
+
+    private final long lsb;
+
+    V1Publisher(Node node) {
+        this.lsb = UUID.V1.lsb(node);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super UUID> subscriber) {
+        Objects.requireNonNull(subscriber);
+
+        subscriber.onSubscribe(new Subscription(subscriber, lsb));
+    }
+
+    private static final class Subscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super UUID> subscriber;
+
+        private final long lsb;
+
+        private final AtomicLong requested = new AtomicLong();
+
+        /* Number of pending calls to drain(), only the one that found none emits. */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile boolean cancelled;
+
+        private volatile IllegalArgumentException invalidRequest;
+
+        private Subscription(Flow.Subscriber<? super UUID> subscriber, long lsb) {
+            this.subscriber = subscriber;
+            this.lsb = lsb;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Non-positive number of elements requested: " + n);
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> {
+                    final long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        /* Emits the requested UUIDs, serially and without reentrancy, until the clock has to be waited for. */
+        private void drain() {
+            if (pending.getAndIncrement() != 0) {
+                return;
+            }
+
+            int missed = 1;
+
+            do {
+                if (cancelled) {
+                    return;
+                }
+
+                if (invalidRequest != null) {
+                    cancelled = true;
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+
+                final long wanted = requested.get();
+                long emitted = 0;
+
+                while (emitted != wanted && !cancelled) {
+                    final long timestamp = Timestamp.tryMonotonic();
+
+                    if (timestamp == Timestamp.EXHAUSTED) {
+                        produced(wanted, emitted);
+                        // Whatever was requested meanwhile is emitted by the scheduled drain
+                        pending.set(0);
+                        Timestamp.NEXT_MILLISECOND.execute(this::drain);
+                        return;
+                    }
+
+                    subscriber.onNext(UUID.V1.of(timestamp, lsb));
+                    emitted++;
+                }
+
+                produced(wanted, emitted);
+
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /* Subtracts the emitted UUIDs from the requested ones, unless the demand is unbounded. */
+        private void produced(long wanted, long emitted) {
+            if (emitted != 0 && wanted != Long.MAX_VALUE) {
+                requested.addAndGet(-emitted);
+            }
+        }
+
+    }
+
+}
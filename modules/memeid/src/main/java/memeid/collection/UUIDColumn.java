@@ -0,0 +1,504 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+import memeid.UUID;
+
+/**
+ * Growable column of UUIDs stored off-heap, as contiguous 16-byte entries (the
+ * most significant bits followed by the least significant ones) in a direct
+ * {@link ByteBuffer}.
+ * <p>
+ * Keeping UUIDs out of the heap means they neither count towards its size nor
+ * need to be traced by the garbage collector. Entries can be appended one by
+ * one or in bulk from {@code long} arrays, sorted in place in the order of
+ * {@link UUID#compareTo(UUID)} and then looked up with a binary search, all of
+ * it by their bits, without creating {@link UUID} instances.
+ * <p>
+ * A column holds at most {@link #MAX_CAPACITY} UUIDs. Its memory is released
+ * when the column is garbage collected, like that of any direct buffer.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class UUIDColumn {
+
+    /**
+     * The maximum number of UUIDs a column can hold, limited by the size of a
+     * {@link ByteBuffer}.
+     */
+    public static final int MAX_CAPACITY = Integer.MAX_VALUE / 16;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /* Ranges at most this long are sorted by insertion. */
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private ByteBuffer buffer;
+
+    private int size;
+
+    /**
+     * Creates an empty column with the default capacity.
+     */
+    public UUIDColumn() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty column that can hold {@code capacity} UUIDs without
+     * growing.
+     *
+     * @param capacity the initial capacity of the column
+     * @throws IllegalArgumentException if {@code capacity} is negative or bigger
+     *                                  than {@link #MAX_CAPACITY}
+     */
+    public UUIDColumn(int capacity) {
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+
+        buffer = allocate(capacity);
+    }
+
+    /**
+     * Returns the number of UUIDs in this column.
+     *
+     * @return the number of UUIDs in this column
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of UUIDs this column can hold without growing.
+     *
+     * @return the capacity of this column
+     */
+    public int capacity() {
+        return buffer.capacity() >>> 4;
+    }
+
+    /**
+     * Removes all the UUIDs from this column, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Appends the provided UUID to this column.
+     *
+     * @param uuid the UUID to append
+     */
+    public void append(UUID uuid) {
+        append(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Appends the UUID with the provided bits to this column.
+     *
+     * @param msb the most significant bits of the UUID
+     * @param lsb the least significant bits of the UUID
+     * @throws IllegalStateException if the column is already at
+     *                               {@link #MAX_CAPACITY}
+     */
+    public void append(long msb, long lsb) {
+        ensureCapacity(size + 1L);
+
+        buffer.putLong(size << 4, msb);
+        buffer.putLong((size << 4) + 8, lsb);
+        size++;
+    }
+
+    /**
+     * Appends {@code length} UUIDs, whose bits are read from the provided arrays
+     * starting at {@code offset}.
+     *
+     * @param msbs   the most significant bits of the UUIDs
+     * @param lsbs   the least significant bits of the UUIDs
+     * @param offset the index in the arrays of the first UUID to append
+     * @param length the number of UUIDs to append
+     * @throws IndexOutOfBoundsException if the range is out of any array's bounds
+     * @throws IllegalStateException     if the column can't hold that many UUIDs
+     */
+    public void appendAll(long[] msbs, long[] lsbs, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, msbs.length);
+        Objects.checkFromIndexSize(offset, length, lsbs.length);
+
+        ensureCapacity((long) size + length);
+
+        final ByteBuffer buffer = this.buffer;
+        int position = size << 4;
+
+        for (int i = offset; i < offset + length; i++) {
+            buffer.putLong(position, msbs[i]);
+            buffer.putLong(position + 8, lsbs[i]);
+            position += 16;
+        }
+
+        size += length;
+    }
+
+    /**
+     * Copies the bits of {@code length} UUIDs, starting with the one at
+     * {@code index}, into the provided arrays starting at {@code offset}.
+     *
+     * @param index  the index in this column of the first UUID to copy
+     * @param msbs   the array receiving the most significant bits
+     * @param lsbs   the array receiving the least significant bits
+     * @param offset the index in the arrays of the first UUID to copy
+     * @param length the number of UUIDs to copy
+     * @throws IndexOutOfBoundsException if any range is out of bounds
+     */
+    public void copyTo(int index, long[] msbs, long[] lsbs, int offset, int length) {
+        Objects.checkFromIndexSize(index, length, size);
+        Objects.checkFromIndexSize(offset, length, msbs.length);
+        Objects.checkFromIndexSize(offset, length, lsbs.length);
+
+        int position = index << 4;
+
+        for (int i = offset; i < offset + length; i++) {
+            msbs[i] = buffer.getLong(position);
+            lsbs[i] = buffer.getLong(position + 8);
+            position += 16;
+        }
+    }
+
+    /**
+     * Returns the most significant bits of the UUID at {@code index}.
+     *
+     * @param index the index of the UUID in this column
+     * @return the most significant bits of the UUID
+     * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+     */
+    public long msb(int index) {
+        return buffer.getLong(Objects.checkIndex(index, size) << 4);
+    }
+
+    /**
+     * Returns the least significant bits of the UUID at {@code index}.
+     *
+     * @param index the index of the UUID in this column
+     * @return the least significant bits of the UUID
+     * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+     */
+    public long lsb(int index) {
+        return buffer.getLong((Objects.checkIndex(index, size) << 4) + 8);
+    }
+
+    /**
+     * Returns the UUID at {@code index}.
+     *
+     * @param index the index of the UUID in this column
+     * @return the UUID at that index
+     * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+     */
+    public UUID get(int index) {
+        return UUID.from(msb(index), lsb(index));
+    }
+
+    /**
+     * Sorts the UUIDs of this column in place, in the order of
+     * {@link UUID#compareTo(UUID)}.
+     * <p>
+     * Entries are first rewritten with their {@link UUID#sortKey(long)}, so
+     * each comparison is between plain {@code long} values, and restored once
+     * sorted. The sort is an introsort: a quicksort that falls back to heapsort
+     * on ranges that partition poorly, so it never takes more than
+     * {@code O(n log n)} time.
+     */
+    public void sort() {
+        final ByteBuffer buffer = this.buffer;
+        final int end = size << 4;
+
+        // Both halves are flipped so that signed comparisons follow the unsigned order
+        for (int position = 0; position < end; position += 16) {
+            buffer.putLong(position, UUID.sortKey(buffer.getLong(position)) ^ Long.MIN_VALUE);
+            buffer.putLong(position + 8, buffer.getLong(position + 8) ^ Long.MIN_VALUE);
+        }
+
+        sort(0, size, 2 * (32 - Integer.numberOfLeadingZeros(size)));
+
+        for (int position = 0; position < end; position += 16) {
+            buffer.putLong(position, UUID.fromSortKey(buffer.getLong(position) ^ Long.MIN_VALUE));
+            buffer.putLong(position + 8, buffer.getLong(position + 8) ^ Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Searches a sorted column for the provided UUID.
+     *
+     * @param uuid the UUID to search for
+     * @return the index of the UUID, if it is in the column; otherwise,
+     *         {@code (-(insertion point) - 1)}, like
+     *         {@link java.util.Arrays#binarySearch(long[], long)}
+     * @see #binarySearch(long, long)
+     */
+    public int binarySearch(UUID uuid) {
+        return binarySearch(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Searches a sorted column for the UUID with the provided bits.
+     * <p>
+     * The column must be sorted (see {@link #sort()}); otherwise, the result is
+     * undefined. If the UUID appears more than once, the index of the first one
+     * is returned.
+     *
+     * @param msb the most significant bits of the UUID
+     * @param lsb the least significant bits of the UUID
+     * @return the index of the UUID, if it is in the column; otherwise,
+     *         {@code (-(insertion point) - 1)}, like
+     *         {@link java.util.Arrays#binarySearch(long[], long)}
+     */
+    public int binarySearch(long msb, long lsb) {
+        final int index = lowerBound(UUID.sortKey(msb) ^ Long.MIN_VALUE, lsb ^ Long.MIN_VALUE);
+
+        if (index < size && buffer.getLong(index << 4) == msb && buffer.getLong((index << 4) + 8) == lsb) {
+            return index;
+        }
+
+        return -(index + 1);
+    }
+
+    /**
+     * Returns {@code true} if this sorted column contains the UUID with the
+     * provided bits.
+     *
+     * @param msb the most significant bits of the UUID
+     * @param lsb the least significant bits of the UUID
+     * @return {@code true} if the column contains the UUID
+     * @see #binarySearch(long, long)
+     */
+    public boolean contains(long msb, long lsb) {
+        return binarySearch(msb, lsb) >= 0;
+    }
+
+    /*
+     * Index of the first entry that isn't less than the provided flipped sort key
+     * and lsb. The range is always halved, with no early exit on a match, so
+     * the comparison can compile to a conditional move instead of a branch.
+     */
+    private int lowerBound(long key, long lsb) {
+        final ByteBuffer buffer = this.buffer;
+
+        if (size == 0) {
+            return 0;
+        }
+
+        int base = 0;
+        int n = size;
+
+        while (n > 1) {
+            final int half = n >>> 1;
+            final int mid = (base + half) << 4;
+
+            final long midKey = UUID.sortKey(buffer.getLong(mid)) ^ Long.MIN_VALUE;
+            final long midLsb = buffer.getLong(mid + 8) ^ Long.MIN_VALUE;
+
+            base = (midKey < key) | ((midKey == key) & (midLsb < lsb)) ? base + half : base;
+            n -= half;
+        }
+
+        final long baseKey = UUID.sortKey(buffer.getLong(base << 4)) ^ Long.MIN_VALUE;
+        final long baseLsb = buffer.getLong((base << 4) + 8) ^ Long.MIN_VALUE;
+
+        return (baseKey < key) | ((baseKey == key) & (baseLsb < lsb)) ? base + 1 : base;
+    }
+
+    /* Introsort of the entries in [from, to), which hold flipped sort keys and lsbs. */
+    private void sort(int from, int to, int depth) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            if (depth-- == 0) {
+                heapSort(from, to);
+                return;
+            }
+
+            final int pivot = partition(from, to);
+
+            // Recurse into the smaller side, loop over the bigger one
+            if (pivot - from < to - pivot) {
+                sort(from, pivot, depth);
+                from = pivot + 1;
+            } else {
+                sort(pivot + 1, to, depth);
+                to = pivot;
+            }
+        }
+
+        insertionSort(from, to);
+    }
+
+    /* Moves the median of three entries to `from` and partitions around it, returning its final index. */
+    private int partition(int from, int to) {
+        final int mid = (from + to) >>> 1;
+
+        if (compare(mid, from) < 0) {
+            swap(mid, from);
+        }
+
+        if (compare(to - 1, from) < 0) {
+            swap(to - 1, from);
+        }
+
+        if (compare(to - 1, mid) < 0) {
+            swap(to - 1, mid);
+        }
+
+        swap(from, mid);
+
+        final long pivotKey = keyAt(from);
+        final long pivotLsb = lsbAt(from);
+
+        int i = from;
+        int j = to;
+
+        while (true) {
+            do {
+                i++;
+            } while (i < to && compare(i, pivotKey, pivotLsb) < 0);
+
+            do {
+                j--;
+            } while (compare(j, pivotKey, pivotLsb) > 0);
+
+            if (i >= j) {
+                break;
+            }
+
+            swap(i, j);
+        }
+
+        swap(from, j);
+        return j;
+    }
+
+    private void insertionSort(int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            final long key = keyAt(i);
+            final long lsb = lsbAt(i);
+
+            int j = i - 1;
+
+            while (j >= from && compare(j, key, lsb) > 0) {
+                set(j + 1, keyAt(j), lsbAt(j));
+                j--;
+            }
+
+            set(j + 1, key, lsb);
+        }
+    }
+
+    private void heapSort(int from, int to) {
+        final int n = to - from;
+
+        for (int i = (n >>> 1) - 1; i >= 0; i--) {
+            siftDown(from, i, n);
+        }
+
+        for (int last = n - 1; last > 0; last--) {
+            swap(from, from + last);
+            siftDown(from, 0, last);
+        }
+    }
+
+    private void siftDown(int base, int node, int n) {
+        while (true) {
+            int child = 2 * node + 1;
+
+            if (child >= n) {
+                return;
+            }
+
+            if (child + 1 < n && compare(base + child + 1, base + child) > 0) {
+                child++;
+            }
+
+            if (compare(base + node, base + child) >= 0) {
+                return;
+            }
+
+            swap(base + node, base + child);
+            node = child;
+        }
+    }
+
+    private int compare(int i, int j) {
+        return compare(i, keyAt(j), lsbAt(j));
+    }
+
+    private int compare(int i, long key, long lsb) {
+        final long entryKey = keyAt(i);
+
+        if (entryKey != key) {
+            return entryKey < key ? -1 : 1;
+        }
+
+        final long entryLsb = lsbAt(i);
+
+        return entryLsb < lsb ? -1 : (entryLsb == lsb ? 0 : 1);
+    }
+
+    private long keyAt(int i) {
+        return buffer.getLong(i << 4);
+    }
+
+    private long lsbAt(int i) {
+        return buffer.getLong((i << 4) + 8);
+    }
+
+    private void set(int i, long key, long lsb) {
+        buffer.putLong(i << 4, key);
+        buffer.putLong((i << 4) + 8, lsb);
+    }
+
+    private void swap(int i, int j) {
+        final long key = keyAt(i);
+        final long lsb = lsbAt(i);
+
+        set(i, keyAt(j), lsbAt(j));
+        set(j, key, lsb);
+    }
+
+    private void ensureCapacity(long needed) {
+        if (needed <= capacity()) {
+            return;
+        }
+
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalStateException("UUIDColumn can't hold more than " + MAX_CAPACITY + " UUIDs");
+        }
+
+        final int capacity = (int) Math.min(MAX_CAPACITY, Math.max(needed, 2L * capacity()));
+        final ByteBuffer grown = allocate(capacity);
+
+        final ByteBuffer used = buffer.duplicate();
+        used.position(0).limit(size << 4);
+        grown.put(used).clear();
+
+        buffer = grown;
+    }
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity << 4).order(ByteOrder.nativeOrder());
+    }
+
+}
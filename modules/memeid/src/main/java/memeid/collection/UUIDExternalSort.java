@@ -0,0 +1,705 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import memeid.UUID;
+
+/**
+ * Sorts files of UUIDs that may not fit in memory, in the order of
+ * {@link UUID#compareTo(UUID)}, removing duplicates.
+ * <p>
+ * The input is read in runs of at most {@code runSize} UUIDs, parsed into
+ * {@code long} arrays (text with {@link UUID#tryParse(byte[], int, long[], int)},
+ * without creating {@link UUID} instances). Each run is sorted with
+ * {@link UUIDSort#parallelSort(long[], long[], int, int)}, deduplicated and
+ * spilled to a temporary file as 16-byte binary records. The runs are then
+ * merged, {@value #MERGE_FACTOR} at a time, into the output. An input that
+ * fits in a single run is written straight to the output, without temporary
+ * files.
+ * <p>
+ * Memory use is bounded by the run size (32 bytes per UUID, plus as much for
+ * the radix sort's buffer) and a 64 KB buffer per merged run. Temporary files
+ * are created in the provided directory and deleted before returning, even if
+ * sorting fails.
+ * <p>
+ * Instances can be reused, but not shared between threads.
+ */
+public final class UUIDExternalSort {
+
+    /**
+     * Formats of the files read and written by {@link UUIDExternalSort}.
+     */
+    public enum Format {
+
+        /**
+         * One UUID per line, in its string representation (see
+         * {@link UUID#toString()}), in ASCII. Lines may end with {@code "\n"} or
+         * {@code "\r\n"}; blank ones are skipped. UUIDs are written in lower case.
+         */
+        TEXT,
+
+        /**
+         * 16 bytes per UUID: its most significant bits followed by its least
+         * significant ones, in big-endian order.
+         */
+        BINARY,
+
+        /**
+         * A {@link UUIDIndex} file. Only valid as output.
+         */
+        INDEX
+
+    }
+
+    /**
+     * Statistics of a finished sort.
+     */
+    public static final class Stats {
+
+        private long read;
+
+        private long written;
+
+        private int runs;
+
+        private long tempBytesWritten;
+
+        private long tempBytes;
+
+        private long peakTempBytes;
+
+        private Stats() {
+        }
+
+        /**
+         * Returns the number of UUIDs read from the input.
+         *
+         * @return the number of UUIDs read
+         */
+        public long read() {
+            return read;
+        }
+
+        /**
+         * Returns the number of distinct UUIDs written to the output.
+         *
+         * @return the number of UUIDs written
+         */
+        public long written() {
+            return written;
+        }
+
+        /**
+         * Returns the number of runs the input was split into.
+         *
+         * @return the number of sorted runs
+         */
+        public int runs() {
+            return runs;
+        }
+
+        /**
+         * Returns the total number of bytes written to temporary files, including
+         * those of intermediate merges.
+         *
+         * @return the number of bytes written to temporary files
+         */
+        public long tempBytesWritten() {
+            return tempBytesWritten;
+        }
+
+        /**
+         * Returns the biggest size of all the temporary files existing at the
+         * same time, which is the temporary disk space a sort needs.
+         *
+         * @return the peak size of temporary files, in bytes
+         */
+        public long peakTempBytes() {
+            return peakTempBytes;
+        }
+
+        private void created(long bytes) {
+            tempBytesWritten += bytes;
+            tempBytes += bytes;
+            peakTempBytes = Math.max(peakTempBytes, tempBytes);
+        }
+
+        private void deleted(long bytes) {
+            tempBytes -= bytes;
+        }
+
+    }
+
+    /**
+     * The run size of sorts created with {@link #UUIDExternalSort()}: 4M UUIDs,
+     * taking 256 MB while sorted.
+     */
+    public static final int DEFAULT_RUN_SIZE = 1 << 22;
+
+    /* Maximum number of runs merged at once; more are merged into bigger runs first. */
+    static final int MERGE_FACTOR = 128;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int RECORD_SIZE = 16;
+
+    private static final int TEXT_RECORD_SIZE = 37;
+
+    private final int runSize;
+
+    private final Path tempDirectory;
+
+    /**
+     * Creates a sort with the {@link #DEFAULT_RUN_SIZE} that spills runs to the
+     * default temporary-file directory.
+     */
+    public UUIDExternalSort() {
+        this(DEFAULT_RUN_SIZE, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates a sort that keeps up to {@code runSize} UUIDs in memory and spills
+     * runs to the provided directory.
+     *
+     * @param runSize       the maximum number of UUIDs sorted in memory at once
+     * @param tempDirectory the directory for temporary files
+     * @throws IllegalArgumentException if {@code runSize} is not positive
+     */
+    public UUIDExternalSort(int runSize, Path tempDirectory) {
+        if (runSize <= 0) {
+            throw new IllegalArgumentException("Invalid run size: " + runSize);
+        }
+
+        this.runSize = runSize;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Sorts the UUIDs of the input file, writing the distinct ones to the output
+     * file, which is created or truncated.
+     *
+     * @param input        the file to sort
+     * @param inputFormat  the format of the input file, {@link Format#TEXT} or
+     *                     {@link Format#BINARY}
+     * @param output       the file to write
+     * @param outputFormat the format of the output file
+     * @return the statistics of the sort
+     * @throws IllegalArgumentException if the input format is
+     *                                  {@link Format#INDEX}
+     * @throws IOException              if a file can't be read or written, or
+     *                                  the input is malformed
+     */
+    public Stats sort(Path input, Format inputFormat, Path output, Format outputFormat) throws IOException {
+        if (inputFormat == Format.INDEX) {
+            throw new IllegalArgumentException("Indexes are already sorted");
+        }
+
+        final Stats stats = new Stats();
+        final List<Path> runs = new ArrayList<>();
+
+        try {
+            final long[] msbs = new long[runSize];
+            final long[] lsbs = new long[runSize];
+
+            try (Input in = Input.open(input, inputFormat)) {
+                int n;
+
+                while ((n = in.read(msbs, lsbs)) > 0) {
+                    stats.read += n;
+                    stats.runs++;
+
+                    UUIDSort.parallelSort(msbs, lsbs, 0, n);
+                    n = distinct(msbs, lsbs, n);
+
+                    if (runs.isEmpty() && in.finished) {
+                        try (Output out = Output.open(output, outputFormat)) {
+                            for (int i = 0; i < n; i++) {
+                                out.write(msbs[i], lsbs[i]);
+                            }
+
+                            out.complete();
+                        }
+
+                        stats.written = n;
+                        return stats;
+                    }
+
+                    final Path run = createRun();
+                    runs.add(run);
+
+                    try (Output out = new BinaryOutput(run)) {
+                        for (int i = 0; i < n; i++) {
+                            out.write(msbs[i], lsbs[i]);
+                        }
+                    }
+
+                    stats.created((long) n * RECORD_SIZE);
+                }
+            }
+
+            while (runs.size() > MERGE_FACTOR) {
+                final List<Path> merged = new ArrayList<>(runs.subList(0, MERGE_FACTOR));
+                final Path run = createRun();
+                runs.add(run);
+
+                final long records;
+
+                try (Output out = new BinaryOutput(run)) {
+                    records = merge(merged, out);
+                }
+
+                stats.created(records * RECORD_SIZE);
+
+                for (Path path : merged) {
+                    stats.deleted(Files.size(path));
+                    Files.delete(path);
+                }
+
+                runs.subList(0, MERGE_FACTOR).clear();
+            }
+
+            try (Output out = Output.open(output, outputFormat)) {
+                stats.written = merge(runs, out);
+                out.complete();
+            }
+
+            return stats;
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private Path createRun() throws IOException {
+        return Files.createTempFile(tempDirectory, "memeid-", ".run");
+    }
+
+    /* Removes the duplicates of the first `n` sorted UUIDs, returning how many are left. */
+    private static int distinct(long[] msbs, long[] lsbs, int n) {
+        if (n == 0) {
+            return 0;
+        }
+
+        int last = 0;
+
+        for (int i = 1; i < n; i++) {
+            if (msbs[i] != msbs[last] || lsbs[i] != lsbs[last]) {
+                last++;
+                msbs[last] = msbs[i];
+                lsbs[last] = lsbs[i];
+            }
+        }
+
+        return last + 1;
+    }
+
+    /* Merges the sorted runs into the output, skipping duplicates, and returns the number of UUIDs written. */
+    private static long merge(List<Path> runs, Output out) throws IOException {
+        final BinaryInput[] heap = new BinaryInput[runs.size()];
+        int size = 0;
+
+        try {
+            for (Path run : runs) {
+                final BinaryInput in = new BinaryInput(run);
+                heap[size++] = in;
+
+                if (!in.next()) {
+                    in.close();
+                    heap[--size] = null;
+                }
+            }
+
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                siftDown(heap, i, size);
+            }
+
+            long written = 0;
+            long lastMsb = 0;
+            long lastLsb = 0;
+
+            while (size > 0) {
+                final BinaryInput first = heap[0];
+
+                if (written == 0 || first.msb != lastMsb || first.lsb != lastLsb) {
+                    lastMsb = first.msb;
+                    lastLsb = first.lsb;
+                    out.write(lastMsb, lastLsb);
+                    written++;
+                }
+
+                if (!first.next()) {
+                    first.close();
+                    heap[0] = heap[--size];
+                    heap[size] = null;
+                }
+
+                siftDown(heap, 0, size);
+            }
+
+            return written;
+        } finally {
+            for (int i = 0; i < size; i++) {
+                heap[i].close();
+            }
+        }
+    }
+
+    private static void siftDown(BinaryInput[] heap, int node, int size) {
+        final BinaryInput in = heap[node];
+
+        while (true) {
+            int child = 2 * node + 1;
+
+            if (child >= size) {
+                break;
+            }
+
+            if (child + 1 < size && heap[child + 1].compareTo(heap[child]) < 0) {
+                child++;
+            }
+
+            if (in.compareTo(heap[child]) <= 0) {
+                break;
+            }
+
+            heap[node] = heap[child];
+            node = child;
+        }
+
+        heap[node] = in;
+    }
+
+    /* Reads UUIDs one by one from a file. */
+    private abstract static class Input implements Closeable {
+
+        final Path path;
+
+        final FileChannel channel;
+
+        long msb;
+
+        long lsb;
+
+        /* Whether a read stopped before filling the arrays, at the end of the file. */
+        boolean finished;
+
+        /* Whether the end of the file has been reached, with bytes maybe left in the buffer. */
+        boolean eof;
+
+        Input(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        }
+
+        static Input open(Path path, Format format) throws IOException {
+            return format == Format.TEXT ? new TextInput(path) : new BinaryInput(path);
+        }
+
+        /* Reads the next UUID into `msb` and `lsb`, returning false at the end of the file. */
+        abstract boolean next() throws IOException;
+
+        /* Reads as many UUIDs as fit in the arrays, returning how many were read. */
+        int read(long[] msbs, long[] lsbs) throws IOException {
+            int n = 0;
+
+            while (n < msbs.length) {
+                if (!next()) {
+                    finished = true;
+                    break;
+                }
+
+                msbs[n] = msb;
+                lsbs[n] = lsb;
+                n++;
+            }
+
+            return n;
+        }
+
+        /*
+         * Moves the remaining bytes to the start of the buffer and reads more after
+         * them until it is full, returning false if the end of the file came first.
+         */
+        boolean fill(ByteBuffer buffer) throws IOException {
+            buffer.compact();
+
+            try {
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        return false;
+                    }
+                }
+
+                return true;
+            } finally {
+                buffer.flip();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+    }
+
+    private static final class BinaryInput extends Input implements Comparable<BinaryInput> {
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).limit(0);
+
+        private long key;
+
+        BinaryInput(Path path) throws IOException {
+            super(path);
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (buffer.remaining() < RECORD_SIZE && !eof) {
+                eof = !fill(buffer);
+            }
+
+            if (buffer.remaining() < RECORD_SIZE) {
+                if (buffer.hasRemaining()) {
+                    throw new IOException("Truncated record at the end of " + path);
+                }
+
+                return false;
+            }
+
+            msb = buffer.getLong();
+            lsb = buffer.getLong();
+            key = UUID.sortKey(msb);
+            return true;
+        }
+
+        @Override
+        public int compareTo(BinaryInput other) {
+            final int comparison = Long.compareUnsigned(key, other.key);
+
+            return comparison != 0 ? comparison : Long.compareUnsigned(lsb, other.lsb);
+        }
+
+    }
+
+    private static final class TextInput extends Input {
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).limit(0);
+
+        private final long[] parsed = new long[2];
+
+        private long line;
+
+        TextInput(Path path) throws IOException {
+            super(path);
+        }
+
+        @Override
+        boolean next() throws IOException {
+            final byte[] bytes = buffer.array();
+
+            while (true) {
+                final int start = buffer.position();
+                int end = indexOfNewLine(bytes, start, buffer.limit());
+
+                if (end < 0 && !eof) {
+                    if (start == 0 && buffer.limit() == buffer.capacity()) {
+                        throw new IOException("Line " + (line + 1) + " of " + path + " is too long");
+                    }
+
+                    eof = !fill(buffer);
+                    continue;
+                }
+
+                if (end < 0) {
+                    if (start == buffer.limit()) {
+                        return false;
+                    }
+
+                    end = buffer.limit();
+                }
+
+                line++;
+                buffer.position(Math.min(end + 1, buffer.limit()));
+
+                final int length = end > start && bytes[end - 1] == '\r' ? end - start - 1 : end - start;
+
+                if (length == 0) {
+                    continue;
+                }
+
+                if (length != TEXT_RECORD_SIZE - 1 || !UUID.tryParse(bytes, start, parsed, 0)) {
+                    throw new IOException("Invalid UUID at line " + line + " of " + path);
+                }
+
+                msb = parsed[0];
+                lsb = parsed[1];
+                return true;
+            }
+        }
+
+        private static int indexOfNewLine(byte[] bytes, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+
+            return -1;
+        }
+
+    }
+
+    /* Writes UUIDs one by one to a file, which is created or truncated. */
+    private abstract static class Output implements Closeable {
+
+        static Output open(Path path, Format format) throws IOException {
+            switch (format) {
+            case TEXT:
+                return new TextOutput(path);
+            case BINARY:
+                return new BinaryOutput(path);
+            default:
+                return new IndexOutput(path);
+            }
+        }
+
+        abstract void write(long msb, long lsb) throws IOException;
+
+        /* Marks every UUID as written, so closing the output completes it instead of discarding it. */
+        void complete() {
+            // Only indexes are discarded
+        }
+
+    }
+
+    private abstract static class BufferedOutput extends Output {
+
+        final ByteBuffer buffer;
+
+        private final FileChannel channel;
+
+        BufferedOutput(Path path, ByteBuffer buffer) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer = buffer;
+        }
+
+        void ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            buffer.clear();
+        }
+
+    }
+
+    private static final class BinaryOutput extends BufferedOutput {
+
+        BinaryOutput(Path path) throws IOException {
+            super(path, ByteBuffer.allocateDirect(BUFFER_SIZE));
+        }
+
+        @Override
+        void write(long msb, long lsb) throws IOException {
+            ensureRemaining(RECORD_SIZE);
+            buffer.putLong(msb).putLong(lsb);
+        }
+
+    }
+
+    private static final class TextOutput extends BufferedOutput {
+
+        TextOutput(Path path) throws IOException {
+            super(path, ByteBuffer.allocate(BUFFER_SIZE));
+        }
+
+        @Override
+        void write(long msb, long lsb) throws IOException {
+            ensureRemaining(TEXT_RECORD_SIZE);
+
+            final int position = buffer.position();
+            final int end = UUID.writeAscii(msb, lsb, buffer.array(), position);
+
+            buffer.array()[end] = '\n';
+            buffer.position(end + 1);
+        }
+
+    }
+
+    private static final class IndexOutput extends Output {
+
+        private final UUIDIndexWriter writer;
+
+        private boolean completed;
+
+        IndexOutput(Path path) throws IOException {
+            this.writer = new UUIDIndexWriter(path);
+        }
+
+        @Override
+        void write(long msb, long lsb) throws IOException {
+            writer.write(msb, lsb);
+        }
+
+        @Override
+        void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (completed) {
+                writer.close();
+            } else {
+                writer.abort();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+import java.util.Arrays;
+
+import memeid.UUID;
+
+/**
+ * Open addressing hash table of UUIDs stored as their bits in two parallel
+ * {@code long} arrays, with linear probing.
+ * <p>
+ * Empty slots hold the bits of {@link UUID#NIL}, so the NIL UUID itself is
+ * tracked apart from the table. Subclasses store their values in arrays that
+ * are indexed by slot, and keep them in sync through the hooks called when
+ * slots are moved, cleared or rehashed.
+ */
+abstract class UUIDHashTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    long[] msbs;
+
+    long[] lsbs;
+
+    boolean containsNil;
+
+    private int size;
+
+    private int mask;
+
+    private int threshold;
+
+    UUIDHashTable(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must be non-negative: " + expectedSize);
+        }
+
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the number of UUIDs in this collection.
+     *
+     * @return the number of UUIDs in this collection
+     */
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this collection contains no UUIDs.
+     *
+     * @return {@code true} if this collection contains no UUIDs
+     */
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the UUIDs from this collection, keeping its capacity.
+     */
+    public void clear() {
+        Arrays.fill(msbs, 0L);
+        Arrays.fill(lsbs, 0L);
+        containsNil = false;
+        size = 0;
+    }
+
+    /* Returns the slot holding the provided bits, or `-slot - 1` for the empty slot where they would go. Not for NIL. */
+    final int find(long msb, long lsb) {
+        int slot = UUID.hashCode(msb, lsb) & mask;
+
+        while (true) {
+            final long slotMsb = msbs[slot];
+            final long slotLsb = lsbs[slot];
+
+            if (slotMsb == msb && slotLsb == lsb) {
+                return slot;
+            }
+
+            if ((slotMsb | slotLsb) == 0) {
+                return -slot - 1;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /*
+     * Stores the bits in the empty slot returned by `find`, growing the table
+     * first if it is full. Returns the slot where the bits were stored.
+     */
+    final int insert(int slot, long msb, long lsb) {
+        if (size >= threshold) {
+            grow();
+            slot = -find(msb, lsb) - 1;
+        }
+
+        msbs[slot] = msb;
+        lsbs[slot] = lsb;
+        size++;
+
+        return slot;
+    }
+
+    /* Counts NIL as a new member. */
+    final void insertNil() {
+        containsNil = true;
+        size++;
+    }
+
+    /* Counts NIL as removed. */
+    final void deleteNil() {
+        containsNil = false;
+        size--;
+    }
+
+    /*
+     * Empties the slot, shifting back the following entries of its cluster that
+     * would no longer be reachable from their home slot, so lookups never need
+     * tombstones.
+     */
+    final void delete(int slot) {
+        size--;
+
+        int free = slot;
+        int next = (free + 1) & mask;
+
+        while ((msbs[next] | lsbs[next]) != 0) {
+            final int home = UUID.hashCode(msbs[next], lsbs[next]) & mask;
+
+            // Move the entry if its home slot isn't cyclically in (free, next]
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                msbs[free] = msbs[next];
+                lsbs[free] = lsbs[next];
+                moveValue(next, free);
+                free = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        msbs[free] = 0L;
+        lsbs[free] = 0L;
+        clearValue(free);
+    }
+
+    /* Called after the entry in slot `from` has been moved to slot `to`. */
+    abstract void moveValue(int from, int to);
+
+    /* Called after the entry in `slot` has been removed. */
+    abstract void clearValue(int slot);
+
+    /*
+     * Called after the table has been rehashed to `capacity` slots, with the new
+     * slot of each entry indexed by its previous slot (-1 for empty ones).
+     */
+    abstract void rehashValues(int[] newSlots, int capacity);
+
+    private void grow() {
+        if (msbs.length == MAX_CAPACITY) {
+            throw new IllegalStateException("UUID collection can't grow beyond " + threshold + " elements");
+        }
+
+        final long[] oldMsbs = msbs;
+        final long[] oldLsbs = lsbs;
+        final int[] newSlots = new int[oldMsbs.length];
+
+        allocate(oldMsbs.length << 1);
+
+        for (int i = 0; i < oldMsbs.length; i++) {
+            final long msb = oldMsbs[i];
+            final long lsb = oldLsbs[i];
+
+            if ((msb | lsb) == 0) {
+                newSlots[i] = -1;
+            } else {
+                final int slot = -find(msb, lsb) - 1;
+                msbs[slot] = msb;
+                lsbs[slot] = lsb;
+                newSlots[i] = slot;
+            }
+        }
+
+        rehashValues(newSlots, msbs.length);
+    }
+
+    private void allocate(int capacity) {
+        msbs = new long[capacity];
+        lsbs = new long[capacity];
+        mask = capacity - 1;
+        threshold = capacity - (capacity >>> 2);
+    }
+
+    /* Smallest power of two keeping the table at most 3/4 full with the expected size. */
+    static int capacityFor(int expectedSize) {
+        final long needed = (long) expectedSize + (expectedSize + 2) / 3;
+
+        if (needed > MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) Math.max(needed - 1, 1)) << 1);
+    }
+
+}
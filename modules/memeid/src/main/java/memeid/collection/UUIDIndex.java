@@ -0,0 +1,282 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import memeid.UUID;
+
+/**
+ * Read-only, memory-mapped file of UUIDs sorted in the order of
+ * {@link UUID#compareTo(UUID)}, as written by {@link UUIDIndexWriter}.
+ * <p>
+ * Opening an index only maps its file, so lookups read the records straight
+ * from the OS page cache, which is shared by every process that maps the same
+ * file; nothing is copied into the heap but the fanout table. The file
+ * contains, in big-endian order:
+ *
+ * <ul>
+ * <li>A header with a magic number ({@code "MUIX"}), the format version and
+ * the number of records.</li>
+ * <li>A fanout table with {@value #FANOUT} cumulative record counts: the
+ * {@code b}-th one is the number of records whose bucket (the highest 12 bits
+ * of their {@link UUID#sortKey(long)}: the version and the next 8 bits) is at
+ * most {@code b}, so lookups only search the records of one bucket.</li>
+ * <li>The records: 16 bytes per UUID, its most significant bits followed by
+ * its least significant ones, without duplicates.</li>
+ * </ul>
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class UUIDIndex implements Closeable {
+
+    static final int MAGIC = 0x4D554958;
+
+    static final int FORMAT_VERSION = 1;
+
+    static final int RECORD_SIZE = 16;
+
+    static final int FANOUT = 4096;
+
+    static final int RECORDS_OFFSET = 16 + FANOUT * Long.BYTES;
+
+    /* Records are mapped in chunks of 1 GB, since a single buffer can't map more than 2 GB. */
+    private static final int CHUNK_SHIFT = 26;
+
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final long[] fanout = new long[FANOUT];
+
+    private final ByteBuffer[] chunks;
+
+    private UUIDIndex(Path path, FileChannel channel) throws IOException {
+        this.channel = channel;
+
+        final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                Math.min(channel.size(), RECORDS_OFFSET));
+
+        if (header.capacity() < RECORDS_OFFSET || header.getInt() != MAGIC) {
+            throw new IOException("Not a UUID index file: " + path);
+        }
+
+        final int version = header.getInt();
+
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported UUID index format version " + version + ": " + path);
+        }
+
+        size = header.getLong();
+        header.asLongBuffer().get(fanout);
+
+        if (size < 0 || fanout[FANOUT - 1] != size || channel.size() != RECORDS_OFFSET + size * RECORD_SIZE) {
+            throw new IOException("Corrupted UUID index file: " + path);
+        }
+
+        chunks = new ByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT)];
+
+        for (int i = 0; i < chunks.length; i++) {
+            final long first = (long) i << CHUNK_SHIFT;
+            final long records = Math.min(size - first, CHUNK_MASK + 1);
+
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, RECORDS_OFFSET + first * RECORD_SIZE,
+                    records * RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Opens the index file at the provided path.
+     *
+     * @param path the path of the index file
+     * @return the opened index
+     * @throws IOException if the file can't be read or isn't a valid index
+     */
+    public static UUIDIndex open(Path path) throws IOException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+
+        try {
+            return new UUIDIndex(path, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of UUIDs in this index.
+     *
+     * @return the number of UUIDs in this index
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the most significant bits of the UUID at {@code index}.
+     *
+     * @param index the position of the UUID in this index
+     * @return the most significant bits of the UUID
+     * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+     */
+    public long msb(long index) {
+        return msbAt(checkIndex(index));
+    }
+
+    /**
+     * Returns the least significant bits of the UUID at {@code index}.
+     *
+     * @param index the position of the UUID in this index
+     * @return the least significant bits of the UUID
+     * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+     */
+    public long lsb(long index) {
+        return lsbAt(checkIndex(index));
+    }
+
+    /**
+     * Returns {@code true} if this index contains the provided UUID.
+     *
+     * @param uuid the UUID to look for
+     * @return {@code true} if this index contains the UUID
+     */
+    public boolean contains(UUID uuid) {
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Returns {@code true} if this index contains the UUID with the provided
+     * bits.
+     *
+     * @param msb the most significant bits of the UUID
+     * @param lsb the least significant bits of the UUID
+     * @return {@code true} if this index contains the UUID
+     */
+    public boolean contains(long msb, long lsb) {
+        final long index = lowerBound(msb, lsb);
+
+        return index < size && msbAt(index) == msb && lsbAt(index) == lsb;
+    }
+
+    /**
+     * Returns the position of the first UUID in this index that isn't less than
+     * the UUID with the provided bits, or {@link #size()} if there is none.
+     *
+     * @param msb the most significant bits of the UUID
+     * @param lsb the least significant bits of the UUID
+     * @return the position where the UUID is, or would be inserted
+     */
+    public long lowerBound(long msb, long lsb) {
+        final long key = UUID.sortKey(msb);
+        final int bucket = bucket(key);
+
+        long low = bucket == 0 ? 0 : fanout[bucket - 1];
+        long high = fanout[bucket];
+
+        final long flippedKey = key ^ Long.MIN_VALUE;
+        final long flippedLsb = lsb ^ Long.MIN_VALUE;
+
+        while (low < high) {
+            final long mid = (low + high) >>> 1;
+
+            final long midKey = UUID.sortKey(msbAt(mid)) ^ Long.MIN_VALUE;
+
+            if (midKey < flippedKey || (midKey == flippedKey && (lsbAt(mid) ^ Long.MIN_VALUE) < flippedLsb)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Performs the provided action with the bits of each UUID in this index that
+     * is not less than {@code from} and less than {@code to}, in order.
+     *
+     * @param from   the lowest UUID of the range, inclusive
+     * @param to     the highest UUID of the range, exclusive
+     * @param action the action to perform on each UUID
+     */
+    public void forEachInRange(UUID from, UUID to, UUIDConsumer action) {
+        final long first = lowerBound(from.getMostSignificantBits(), from.getLeastSignificantBits());
+        final long last = lowerBound(to.getMostSignificantBits(), to.getLeastSignificantBits());
+
+        forEach(first, Math.max(first, last), action);
+    }
+
+    /**
+     * Performs the provided action with the bits of the UUIDs at positions from
+     * {@code from}, inclusive, to {@code to}, exclusive, in order.
+     *
+     * @param from   the position of the first UUID
+     * @param to     the position after the last UUID
+     * @param action the action to perform on each UUID
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public void forEach(long from, long to, UUIDConsumer action) {
+        if (from < 0 || from > to || to > size) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of bounds for length " + size);
+        }
+
+        for (long i = from; i < to; i++) {
+            action.accept(msbAt(i), lsbAt(i));
+        }
+    }
+
+    /**
+     * Closes the file of this index. Its mappings stay valid until they are
+     * garbage collected.
+     *
+     * @throws IOException if the file can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+
+        return index;
+    }
+
+    private long msbAt(long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].getLong((int) (index & CHUNK_MASK) * RECORD_SIZE);
+    }
+
+    private long lsbAt(long index) {
+        return chunks[(int) (index >>> CHUNK_SHIFT)].getLong((int) (index & CHUNK_MASK) * RECORD_SIZE + 8);
+    }
+
+    /* The fanout bucket of a sort key: its version and next 8 bits. */
+    static int bucket(long key) {
+        return (int) (key >>> 52);
+    }
+
+}
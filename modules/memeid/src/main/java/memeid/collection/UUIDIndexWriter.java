@@ -0,0 +1,230 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import memeid.UUID;
+
+/**
+ * Writes a {@link UUIDIndex} file from UUIDs given in the order of
+ * {@link UUID#compareTo(UUID)}.
+ * <p>
+ * Records are buffered and appended to the file as they are written, so
+ * indexes of any size can be built from sorted sources without holding them
+ * in memory. The header, with the number of records and the fanout table, is
+ * written when the writer is closed; until then, the file is not a valid
+ * index. If a write failed, or the writer is {@linkplain #abort() aborted},
+ * the file is deleted instead, so it's never taken for a complete index.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class UUIDIndexWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private final long[] fanout = new long[UUIDIndex.FANOUT];
+
+    private long count;
+
+    private long lastKey;
+
+    private long lastLsb;
+
+    private boolean failed;
+
+    private boolean closed;
+
+    /**
+     * Creates a writer for the index file at the provided path, which is
+     * created or truncated.
+     *
+     * @param path the path of the index file
+     * @throws IOException if the file can't be opened for writing
+     */
+    public UUIDIndexWriter(Path path) throws IOException {
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        channel.position(UUIDIndex.RECORDS_OFFSET);
+    }
+
+    /**
+     * Writes a sorted index file with the UUIDs of the provided column, which is
+     * sorted in place first. Duplicated UUIDs are written once.
+     *
+     * @param path   the path of the index file
+     * @param column the UUIDs to write
+     * @throws IOException if the file can't be written
+     */
+    public static void write(Path path, UUIDColumn column) throws IOException {
+        column.sort();
+
+        try (UUIDIndexWriter writer = new UUIDIndexWriter(path)) {
+            for (int i = 0; i < column.size(); i++) {
+                writer.write(column.msb(i), column.lsb(i));
+            }
+        }
+    }
+
+    /**
+     * Writes the provided UUID.
+     *
+     * @param uuid the UUID to write
+     * @throws IOException if the record can't be written
+     * @see #write(long, long)
+     */
+    public void write(UUID uuid) throws IOException {
+        write(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Writes the UUID with the provided bits, which must not be less than the
+     * last written one. If it is equal, it is skipped.
+     *
+     * @param msb the most significant bits of the UUID
+     * @param lsb the least significant bits of the UUID
+     * @throws IllegalArgumentException if the UUID is less than the last written
+     *                                  one
+     * @throws IOException              if the record can't be written
+     */
+    public void write(long msb, long lsb) throws IOException {
+        final long key = UUID.sortKey(msb);
+
+        if (count > 0) {
+            int comparison = Long.compareUnsigned(key, lastKey);
+
+            if (comparison == 0) {
+                comparison = Long.compareUnsigned(lsb, lastLsb);
+            }
+
+            if (comparison < 0) {
+                failed = true;
+                throw new IllegalArgumentException("UUIDs must be written in order, but "
+                        + UUID.from(msb, lsb) + " came after " + UUID.from(UUID.fromSortKey(lastKey), lastLsb));
+            }
+
+            if (comparison == 0) {
+                return;
+            }
+        }
+
+        if (buffer.remaining() < UUIDIndex.RECORD_SIZE) {
+            try {
+                flush();
+            } catch (IOException e) {
+                failed = true;
+                throw e;
+            }
+        }
+
+        buffer.putLong(msb).putLong(lsb);
+        fanout[UUIDIndex.bucket(key)]++;
+        lastKey = key;
+        lastLsb = lsb;
+        count++;
+    }
+
+    /**
+     * Returns the number of records written so far, not counting skipped
+     * duplicates.
+     *
+     * @return the number of records written so far
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Closes the writer without completing the index, deleting the file. Use it
+     * when the source of the UUIDs fails before all of them are written.
+     *
+     * @throws IOException if the file can't be deleted
+     */
+    public void abort() throws IOException {
+        failed = true;
+        close();
+    }
+
+    /**
+     * Writes the pending records and the header, and closes the file. If a
+     * write failed, the file is deleted instead.
+     *
+     * @throws IOException if the file can't be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+
+        closed = true;
+
+        if (failed) {
+            try {
+                channel.close();
+            } finally {
+                Files.deleteIfExists(path);
+            }
+
+            return;
+        }
+
+        try (FileChannel channel = this.channel) {
+            flush();
+
+            final ByteBuffer header = ByteBuffer.allocate(UUIDIndex.RECORDS_OFFSET);
+            header.putInt(UUIDIndex.MAGIC).putInt(UUIDIndex.FORMAT_VERSION).putLong(count);
+
+            long cumulative = 0;
+            for (long bucketSize : fanout) {
+                cumulative += bucketSize;
+                header.putLong(cumulative);
+            }
+
+            header.flip();
+
+            long position = 0;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        buffer.clear();
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+/**
+ * Operation that accepts the bits of a UUID and the {@code long} it is mapped
+ * to, so maps keyed by UUIDs can be traversed without creating a
+ * {@link memeid.UUID} for each key nor boxing its value.
+ */
+@FunctionalInterface
+public interface UUIDLongConsumer {
+
+    /**
+     * Performs this operation on the UUID with the provided bits and its value.
+     *
+     * @param msb   the most significant bits of the UUID
+     * @param lsb   the least significant bits of the UUID
+     * @param value the value mapped to the UUID
+     */
+    void accept(long msb, long lsb, long value);
+
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+import java.util.Arrays;
+
+import memeid.UUID;
+
+/**
+ * Map from UUIDs to {@code long} values that stores its keys and values in
+ * three {@code long} arrays, using open addressing with linear probing.
+ * <p>
+ * Keys can be added, looked up and traversed by their bits, without creating
+ * {@link UUID} instances nor boxing values. Lookups of absent keys return
+ * {@code 0}, unless another default is provided through
+ * {@link #getOrDefault(long, long, long)}.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class UUIDLongMap extends UUIDHashTable {
+
+    private long[] values;
+
+    private long nilValue;
+
+    /**
+     * Creates an empty map with the default capacity.
+     */
+    public UUIDLongMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} keys without
+     * growing.
+     *
+     * @param expectedSize the number of keys the map is expected to hold
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public UUIDLongMap(int expectedSize) {
+        super(expectedSize);
+        values = new long[msbs.length];
+    }
+
+    /**
+     * Maps the provided UUID to {@code value}.
+     *
+     * @param uuid  the key
+     * @param value the value to map the key to
+     * @return the value previously mapped to the key, or {@code 0} if there was
+     *         none
+     */
+    public long put(UUID uuid, long value) {
+        return put(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), value);
+    }
+
+    /**
+     * Maps the UUID with the provided bits to {@code value}.
+     *
+     * @param msb   the most significant bits of the key
+     * @param lsb   the least significant bits of the key
+     * @param value the value to map the key to
+     * @return the value previously mapped to the key, or {@code 0} if there was
+     *         none
+     */
+    public long put(long msb, long lsb, long value) {
+        if ((msb | lsb) == 0) {
+            final long previous = nilValue;
+
+            if (!containsNil) {
+                insertNil();
+            }
+
+            nilValue = value;
+            return previous;
+        }
+
+        final int slot = find(msb, lsb);
+
+        if (slot >= 0) {
+            final long previous = values[slot];
+            values[slot] = value;
+            return previous;
+        }
+
+        // `insert` may grow the table, replacing `values`
+        final int inserted = insert(-slot - 1, msb, lsb);
+        values[inserted] = value;
+        return 0L;
+    }
+
+    /**
+     * Adds {@code delta} to the value mapped to the UUID with the provided bits,
+     * mapping it to {@code delta} if it is absent.
+     *
+     * @param msb   the most significant bits of the key
+     * @param lsb   the least significant bits of the key
+     * @param delta the amount to add
+     * @return the new value mapped to the key
+     */
+    public long addTo(long msb, long lsb, long delta) {
+        if ((msb | lsb) == 0) {
+            if (!containsNil) {
+                insertNil();
+            }
+
+            return nilValue += delta;
+        }
+
+        final int slot = find(msb, lsb);
+
+        if (slot >= 0) {
+            return values[slot] += delta;
+        }
+
+        final int inserted = insert(-slot - 1, msb, lsb);
+        values[inserted] = delta;
+        return delta;
+    }
+
+    /**
+     * Returns the value mapped to the provided UUID.
+     *
+     * @param uuid the key
+     * @return the value mapped to the key, or {@code 0} if there is none
+     */
+    public long get(UUID uuid) {
+        return getOrDefault(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), 0L);
+    }
+
+    /**
+     * Returns the value mapped to the UUID with the provided bits.
+     *
+     * @param msb the most significant bits of the key
+     * @param lsb the least significant bits of the key
+     * @return the value mapped to the key, or {@code 0} if there is none
+     */
+    public long get(long msb, long lsb) {
+        return getOrDefault(msb, lsb, 0L);
+    }
+
+    /**
+     * Returns the value mapped to the UUID with the provided bits, or
+     * {@code defaultValue} if there is none.
+     *
+     * @param msb          the most significant bits of the key
+     * @param lsb          the least significant bits of the key
+     * @param defaultValue the value to return if the key is absent
+     * @return the value mapped to the key, or {@code defaultValue} if there is
+     *         none
+     */
+    public long getOrDefault(long msb, long lsb, long defaultValue) {
+        if ((msb | lsb) == 0) {
+            return containsNil ? nilValue : defaultValue;
+        }
+
+        final int slot = find(msb, lsb);
+
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Returns {@code true} if this map contains the provided UUID as a key.
+     *
+     * @param uuid the key to look for
+     * @return {@code true} if this map contains the key
+     */
+    public boolean containsKey(UUID uuid) {
+        return containsKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Returns {@code true} if this map contains the UUID with the provided bits
+     * as a key.
+     *
+     * @param msb the most significant bits of the key
+     * @param lsb the least significant bits of the key
+     * @return {@code true} if this map contains the key
+     */
+    public boolean containsKey(long msb, long lsb) {
+        if ((msb | lsb) == 0) {
+            return containsNil;
+        }
+
+        return find(msb, lsb) >= 0;
+    }
+
+    /**
+     * Removes the provided UUID from this map if it is present.
+     *
+     * @param uuid the key to remove
+     * @return {@code true} if this map contained the key
+     */
+    public boolean remove(UUID uuid) {
+        return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Removes the UUID with the provided bits from this map if it is present.
+     *
+     * @param msb the most significant bits of the key
+     * @param lsb the least significant bits of the key
+     * @return {@code true} if this map contained the key
+     */
+    public boolean remove(long msb, long lsb) {
+        if ((msb | lsb) == 0) {
+            if (!containsNil) {
+                return false;
+            }
+
+            deleteNil();
+            nilValue = 0L;
+            return true;
+        }
+
+        final int slot = find(msb, lsb);
+
+        if (slot < 0) {
+            return false;
+        }
+
+        delete(slot);
+        return true;
+    }
+
+    /**
+     * Performs the provided action with the bits of each key in this map and its
+     * value, in no particular order.
+     *
+     * @param action the action to perform on each entry
+     */
+    public void forEach(UUIDLongConsumer action) {
+        if (containsNil) {
+            action.accept(0L, 0L, nilValue);
+        }
+
+        final long[] msbs = this.msbs;
+        final long[] lsbs = this.lsbs;
+
+        for (int i = 0; i < msbs.length; i++) {
+            final long msb = msbs[i];
+            final long lsb = lsbs[i];
+
+            if ((msb | lsb) != 0) {
+                action.accept(msb, lsb, values[i]);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(values, 0L);
+        nilValue = 0L;
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = 0L;
+    }
+
+    @Override
+    void rehashValues(int[] newSlots, int capacity) {
+        final long[] oldValues = values;
+
+        values = new long[capacity];
+
+        for (int i = 0; i < newSlots.length; i++) {
+            if (newSlots[i] >= 0) {
+                values[newSlots[i]] = oldValues[i];
+            }
+        }
+    }
+
+}
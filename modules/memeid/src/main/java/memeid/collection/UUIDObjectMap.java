@@ -0,0 +1,262 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+import java.util.Arrays;
+
+import memeid.UUID;
+
+/**
+ * Map from UUIDs to objects that stores the bits of its keys in two
+ * {@code long} arrays, using open addressing with linear probing.
+ * <p>
+ * Keys can be added, looked up and traversed by their bits, without creating
+ * {@link UUID} instances. {@code null} values are allowed, so {@link #get(long,
+ * long)} returning {@code null} doesn't mean the key is absent: use
+ * {@link #containsKey(long, long)} to tell both cases apart.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <V> the type of mapped values
+ */
+public final class UUIDObjectMap<V> extends UUIDHashTable {
+
+    private Object[] values;
+
+    private V nilValue;
+
+    /**
+     * Creates an empty map with the default capacity.
+     */
+    public UUIDObjectMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map that can hold {@code expectedSize} keys without
+     * growing.
+     *
+     * @param expectedSize the number of keys the map is expected to hold
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public UUIDObjectMap(int expectedSize) {
+        super(expectedSize);
+        values = new Object[msbs.length];
+    }
+
+    /**
+     * Maps the provided UUID to {@code value}.
+     *
+     * @param uuid  the key
+     * @param value the value to map the key to
+     * @return the value previously mapped to the key, or {@code null} if there
+     *         was none
+     */
+    public V put(UUID uuid, V value) {
+        return put(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), value);
+    }
+
+    /**
+     * Maps the UUID with the provided bits to {@code value}.
+     *
+     * @param msb   the most significant bits of the key
+     * @param lsb   the least significant bits of the key
+     * @param value the value to map the key to
+     * @return the value previously mapped to the key, or {@code null} if there
+     *         was none
+     */
+    public V put(long msb, long lsb, V value) {
+        if ((msb | lsb) == 0) {
+            final V previous = nilValue;
+
+            if (!containsNil) {
+                insertNil();
+            }
+
+            nilValue = value;
+            return previous;
+        }
+
+        final int slot = find(msb, lsb);
+
+        if (slot >= 0) {
+            final V previous = valueAt(slot);
+            values[slot] = value;
+            return previous;
+        }
+
+        // `insert` may grow the table, replacing `values`
+        final int inserted = insert(-slot - 1, msb, lsb);
+        values[inserted] = value;
+        return null;
+    }
+
+    /**
+     * Returns the value mapped to the provided UUID.
+     *
+     * @param uuid the key
+     * @return the value mapped to the key, or {@code null} if there is none
+     */
+    public V get(UUID uuid) {
+        return get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Returns the value mapped to the UUID with the provided bits.
+     *
+     * @param msb the most significant bits of the key
+     * @param lsb the least significant bits of the key
+     * @return the value mapped to the key, or {@code null} if there is none
+     */
+    public V get(long msb, long lsb) {
+        if ((msb | lsb) == 0) {
+            return nilValue;
+        }
+
+        final int slot = find(msb, lsb);
+
+        return slot >= 0 ? valueAt(slot) : null;
+    }
+
+    /**
+     * Returns {@code true} if this map contains the provided UUID as a key.
+     *
+     * @param uuid the key to look for
+     * @return {@code true} if this map contains the key
+     */
+    public boolean containsKey(UUID uuid) {
+        return containsKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Returns {@code true} if this map contains the UUID with the provided bits
+     * as a key.
+     *
+     * @param msb the most significant bits of the key
+     * @param lsb the least significant bits of the key
+     * @return {@code true} if this map contains the key
+     */
+    public boolean containsKey(long msb, long lsb) {
+        if ((msb | lsb) == 0) {
+            return containsNil;
+        }
+
+        return find(msb, lsb) >= 0;
+    }
+
+    /**
+     * Removes the provided UUID from this map if it is present.
+     *
+     * @param uuid the key to remove
+     * @return the value that was mapped to the key, or {@code null} if there was
+     *         none
+     */
+    public V remove(UUID uuid) {
+        return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Removes the UUID with the provided bits from this map if it is present.
+     *
+     * @param msb the most significant bits of the key
+     * @param lsb the least significant bits of the key
+     * @return the value that was mapped to the key, or {@code null} if there was
+     *         none
+     */
+    public V remove(long msb, long lsb) {
+        if ((msb | lsb) == 0) {
+            final V previous = nilValue;
+
+            if (containsNil) {
+                deleteNil();
+                nilValue = null;
+            }
+
+            return previous;
+        }
+
+        final int slot = find(msb, lsb);
+
+        if (slot < 0) {
+            return null;
+        }
+
+        final V previous = valueAt(slot);
+        delete(slot);
+        return previous;
+    }
+
+    /**
+     * Performs the provided action with the bits of each key in this map and its
+     * value, in no particular order.
+     *
+     * @param action the action to perform on each entry
+     */
+    public void forEach(UUIDObjectConsumer<? super V> action) {
+        if (containsNil) {
+            action.accept(0L, 0L, nilValue);
+        }
+
+        final long[] msbs = this.msbs;
+        final long[] lsbs = this.lsbs;
+
+        for (int i = 0; i < msbs.length; i++) {
+            final long msb = msbs[i];
+            final long lsb = lsbs[i];
+
+            if ((msb | lsb) != 0) {
+                action.accept(msb, lsb, valueAt(i));
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(values, null);
+        nilValue = null;
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    void clearValue(int slot) {
+        values[slot] = null;
+    }
+
+    @Override
+    void rehashValues(int[] newSlots, int capacity) {
+        final Object[] oldValues = values;
+
+        values = new Object[capacity];
+
+        for (int i = 0; i < newSlots.length; i++) {
+            if (newSlots[i] >= 0) {
+                values[newSlots[i]] = oldValues[i];
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+}
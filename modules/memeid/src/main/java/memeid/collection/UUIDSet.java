@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+import memeid.UUID;
+
+/**
+ * Set of UUIDs that stores their bits in two {@code long} arrays, using open
+ * addressing with linear probing.
+ * <p>
+ * Each element takes 16 bytes per slot, and the table is kept at most 3/4
+ * full, which is between 21 and 43 bytes per element; a
+ * {@code java.util.HashSet<UUID>} needs around 70 (the UUID object, the hash
+ * map node and its share of the table). Elements can be added, looked up and
+ * traversed by their bits, without creating {@link UUID} instances.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class UUIDSet extends UUIDHashTable {
+
+    /**
+     * Creates an empty set with the default capacity.
+     */
+    public UUIDSet() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty set that can hold {@code expectedSize} UUIDs without
+     * growing.
+     *
+     * @param expectedSize the number of UUIDs the set is expected to hold
+     * @throws IllegalArgumentException if {@code expectedSize} is negative
+     */
+    public UUIDSet(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Adds the provided UUID to this set if it isn't already present.
+     *
+     * @param uuid the UUID to add
+     * @return {@code true} if this set did not already contain the UUID
+     */
+    public boolean add(UUID uuid) {
+        return add(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Adds the UUID with the provided bits to this set if it isn't already
+     * present.
+     *
+     * @param msb the most significant bits of the UUID
+     * @param lsb the least significant bits of the UUID
+     * @return {@code true} if this set did not already contain the UUID
+     */
+    public boolean add(long msb, long lsb) {
+        if ((msb | lsb) == 0) {
+            if (containsNil) {
+                return false;
+            }
+
+            insertNil();
+            return true;
+        }
+
+        final int slot = find(msb, lsb);
+
+        if (slot >= 0) {
+            return false;
+        }
+
+        insert(-slot - 1, msb, lsb);
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if this set contains the provided UUID.
+     *
+     * @param uuid the UUID to look for
+     * @return {@code true} if this set contains the UUID
+     */
+    public boolean contains(UUID uuid) {
+        return contains(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Returns {@code true} if this set contains the UUID with the provided bits.
+     *
+     * @param msb the most significant bits of the UUID
+     * @param lsb the least significant bits of the UUID
+     * @return {@code true} if this set contains the UUID
+     */
+    public boolean contains(long msb, long lsb) {
+        if ((msb | lsb) == 0) {
+            return containsNil;
+        }
+
+        return find(msb, lsb) >= 0;
+    }
+
+    /**
+     * Removes the provided UUID from this set if it is present.
+     *
+     * @param uuid the UUID to remove
+     * @return {@code true} if this set contained the UUID
+     */
+    public boolean remove(UUID uuid) {
+        return remove(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Removes the UUID with the provided bits from this set if it is present.
+     *
+     * @param msb the most significant bits of the UUID
+     * @param lsb the least significant bits of the UUID
+     * @return {@code true} if this set contained the UUID
+     */
+    public boolean remove(long msb, long lsb) {
+        if ((msb | lsb) == 0) {
+            if (!containsNil) {
+                return false;
+            }
+
+            deleteNil();
+            return true;
+        }
+
+        final int slot = find(msb, lsb);
+
+        if (slot < 0) {
+            return false;
+        }
+
+        delete(slot);
+        return true;
+    }
+
+    /**
+     * Performs the provided action with the bits of each UUID in this set, in no
+     * particular order.
+     *
+     * @param action the action to perform on each UUID
+     */
+    public void forEach(UUIDConsumer action) {
+        if (containsNil) {
+            action.accept(0L, 0L);
+        }
+
+        final long[] msbs = this.msbs;
+        final long[] lsbs = this.lsbs;
+
+        for (int i = 0; i < msbs.length; i++) {
+            final long msb = msbs[i];
+            final long lsb = lsbs[i];
+
+            if ((msb | lsb) != 0) {
+                action.accept(msb, lsb);
+            }
+        }
+    }
+
+    @Override
+    void moveValue(int from, int to) {
+    }
+
+    @Override
+    void clearValue(int slot) {
+    }
+
+    @Override
+    void rehashValues(int[] newSlots, int capacity) {
+    }
+
+}
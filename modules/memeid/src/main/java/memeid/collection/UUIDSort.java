@@ -0,0 +1,467 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+import memeid.UUID;
+
+/**
+ * Radix sorts of UUIDs, either given by their bits in two parallel
+ * {@code long} arrays or as {@link UUID} instances, in the order of
+ * {@link UUID#compareTo(UUID)}.
+ * <p>
+ * Instead of comparing UUIDs, which means decoding their version (and the
+ * timestamp of {@link UUID.V1} ones) on every comparison, each UUID is mapped
+ * once to a 128-bit key, its {@link UUID#sortKey(long)} followed by its least
+ * significant bits, whose unsigned order is that of {@code compareTo}. Keys are
+ * then distributed byte by byte, most significant first, into 256 buckets;
+ * bytes shared by every key of a bucket are skipped, and buckets small enough
+ * are finished with an insertion sort. The sort is stable and takes
+ * {@code O(n)} time, but needs a buffer as big as the sorted range.
+ * <p>
+ * The {@code parallelSort} variants sort separate buckets concurrently in the
+ * {@link ForkJoinPool#commonPool() common pool}, once the range is bigger
+ * than {@value #PARALLEL_THRESHOLD} UUIDs.
+ */
+public final class UUIDSort {
+
+    /* Ranges at most this long are sorted in the calling thread. */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /* Ranges at most this long are sorted by insertion. */
+    private static final int INSERTION_SORT_THRESHOLD = 64;
+
+    private static final int RADIX = 256;
+
+    private static final int DIGITS = 16;
+
+    private UUIDSort() {
+    }
+
+    /**
+     * Sorts the UUIDs whose bits are in the provided arrays, in the order of
+     * {@link UUID#compareTo(UUID)}.
+     *
+     * @param msbs the most significant bits of the UUIDs
+     * @param lsbs the least significant bits of the UUIDs, at the same indexes
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void sort(long[] msbs, long[] lsbs) {
+        sort(msbs, lsbs, 0, checkLengths(msbs, lsbs));
+    }
+
+    /**
+     * Sorts the UUIDs whose bits are in the provided arrays, from
+     * {@code fromIndex} (inclusive) to {@code toIndex} (exclusive), in the order
+     * of {@link UUID#compareTo(UUID)}.
+     *
+     * @param msbs      the most significant bits of the UUIDs
+     * @param lsbs      the least significant bits of the UUIDs, at the same
+     *                  indexes
+     * @param fromIndex the index of the first UUID to sort
+     * @param toIndex   the index after the last UUID to sort
+     * @throws IndexOutOfBoundsException if the range is out of any array's bounds
+     */
+    public static void sort(long[] msbs, long[] lsbs, int fromIndex, int toIndex) {
+        sort(msbs, lsbs, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts the provided UUIDs in the order of {@link UUID#compareTo(UUID)}.
+     *
+     * @param uuids the UUIDs to sort
+     */
+    public static void sort(UUID[] uuids) {
+        sort(uuids, 0, uuids.length);
+    }
+
+    /**
+     * Sorts the provided UUIDs, from {@code fromIndex} (inclusive) to
+     * {@code toIndex} (exclusive), in the order of {@link UUID#compareTo(UUID)}.
+     *
+     * @param uuids     the UUIDs to sort
+     * @param fromIndex the index of the first UUID to sort
+     * @param toIndex   the index after the last UUID to sort
+     * @throws IndexOutOfBoundsException if the range is out of the array's bounds
+     */
+    public static void sort(UUID[] uuids, int fromIndex, int toIndex) {
+        sort(uuids, fromIndex, toIndex, false);
+    }
+
+    /**
+     * Sorts the UUIDs whose bits are in the provided arrays like
+     * {@link #sort(long[], long[])}, sorting separate buckets in parallel.
+     *
+     * @param msbs the most significant bits of the UUIDs
+     * @param lsbs the least significant bits of the UUIDs, at the same indexes
+     * @throws IllegalArgumentException if the arrays have different lengths
+     */
+    public static void parallelSort(long[] msbs, long[] lsbs) {
+        parallelSort(msbs, lsbs, 0, checkLengths(msbs, lsbs));
+    }
+
+    /**
+     * Sorts a range of the UUIDs whose bits are in the provided arrays like
+     * {@link #sort(long[], long[], int, int)}, sorting separate buckets in
+     * parallel.
+     *
+     * @param msbs      the most significant bits of the UUIDs
+     * @param lsbs      the least significant bits of the UUIDs, at the same
+     *                  indexes
+     * @param fromIndex the index of the first UUID to sort
+     * @param toIndex   the index after the last UUID to sort
+     * @throws IndexOutOfBoundsException if the range is out of any array's bounds
+     */
+    public static void parallelSort(long[] msbs, long[] lsbs, int fromIndex, int toIndex) {
+        sort(msbs, lsbs, fromIndex, toIndex, true);
+    }
+
+    /**
+     * Sorts the provided UUIDs like {@link #sort(UUID[])}, sorting separate
+     * buckets in parallel.
+     *
+     * @param uuids the UUIDs to sort
+     */
+    public static void parallelSort(UUID[] uuids) {
+        parallelSort(uuids, 0, uuids.length);
+    }
+
+    /**
+     * Sorts a range of the provided UUIDs like {@link #sort(UUID[], int, int)},
+     * sorting separate buckets in parallel.
+     *
+     * @param uuids     the UUIDs to sort
+     * @param fromIndex the index of the first UUID to sort
+     * @param toIndex   the index after the last UUID to sort
+     * @throws IndexOutOfBoundsException if the range is out of the array's bounds
+     */
+    public static void parallelSort(UUID[] uuids, int fromIndex, int toIndex) {
+        sort(uuids, fromIndex, toIndex, true);
+    }
+
+    private static void sort(long[] msbs, long[] lsbs, int fromIndex, int toIndex, boolean parallel) {
+        Objects.checkFromToIndex(fromIndex, toIndex, msbs.length);
+        Objects.checkFromToIndex(fromIndex, toIndex, lsbs.length);
+
+        final boolean forked = parallel && toIndex - fromIndex > PARALLEL_THRESHOLD;
+
+        // The msbs are rewritten with their sort keys in place, then restored
+        range(fromIndex, toIndex, forked).forEach(i -> msbs[i] = UUID.sortKey(msbs[i]));
+
+        new Sorter(msbs, lsbs, null, fromIndex, toIndex).sort(forked);
+
+        range(fromIndex, toIndex, forked).forEach(i -> msbs[i] = UUID.fromSortKey(msbs[i]));
+    }
+
+    private static void sort(UUID[] uuids, int fromIndex, int toIndex, boolean parallel) {
+        Objects.checkFromToIndex(fromIndex, toIndex, uuids.length);
+
+        final boolean forked = parallel && toIndex - fromIndex > PARALLEL_THRESHOLD;
+        final int length = toIndex - fromIndex;
+
+        final long[] keys = new long[length];
+        final long[] lsbs = new long[length];
+        final Object[] items = new Object[length];
+
+        range(0, length, forked).forEach(i -> {
+            final UUID uuid = uuids[fromIndex + i];
+
+            keys[i] = UUID.sortKey(uuid.getMostSignificantBits());
+            lsbs[i] = uuid.getLeastSignificantBits();
+            items[i] = uuid;
+        });
+
+        new Sorter(keys, lsbs, items, 0, length).sort(forked);
+
+        System.arraycopy(items, 0, uuids, fromIndex, length);
+    }
+
+    private static int checkLengths(long[] msbs, long[] lsbs) {
+        if (msbs.length != lsbs.length) {
+            throw new IllegalArgumentException("Arrays of different lengths: " + msbs.length + " != " + lsbs.length);
+        }
+
+        return msbs.length;
+    }
+
+    private static IntStream range(int from, int to, boolean parallel) {
+        final IntStream range = IntStream.range(from, to);
+
+        return parallel ? range.parallel() : range;
+    }
+
+    /*
+     * Sorts a range of sort keys and lsbs, along with the items they belong to,
+     * if any, using buffers as long as the range (indexed from its start).
+     */
+    private static final class Sorter {
+
+        private final long[] keys;
+
+        private final long[] lsbs;
+
+        private final Object[] items;
+
+        private final long[] bufferKeys;
+
+        private final long[] bufferLsbs;
+
+        private final Object[] bufferItems;
+
+        private final int from;
+
+        private final int to;
+
+        Sorter(long[] keys, long[] lsbs, Object[] items, int from, int to) {
+            this.keys = keys;
+            this.lsbs = lsbs;
+            this.items = items;
+            this.bufferKeys = new long[to - from];
+            this.bufferLsbs = new long[to - from];
+            this.bufferItems = items == null ? null : new Object[to - from];
+            this.from = from;
+            this.to = to;
+        }
+
+        void sort(boolean parallel) {
+            final int digit = firstDigit(from, to);
+
+            if (parallel) {
+                ForkJoinPool.commonPool().invoke(new ParallelSort(this, from, to, digit));
+            } else {
+                sort(from, to, digit);
+            }
+        }
+
+        /* Sorts [from, to) in the calling thread, starting by digit. */
+        void sort(int from, int to, int digit) {
+            sort(from, to, digit, new int[DIGITS + 1][RADIX + 1], new int[RADIX]);
+        }
+
+        /*
+         * Recursive step of the sequential sort. The bounds of the buckets at each
+         * digit are kept in their own row, so deeper levels don't overwrite them.
+         */
+        private void sort(int from, int to, int digit, int[][] bounds, int[] next) {
+            while (to - from > INSERTION_SORT_THRESHOLD && digit < DIGITS) {
+                final int[] buckets = bounds[digit];
+
+                if (!distribute(from, to, digit++, buckets, next)) {
+                    continue;
+                }
+
+                for (int b = 0; b < RADIX; b++) {
+                    if (buckets[b + 1] - buckets[b] > 1) {
+                        sort(buckets[b], buckets[b + 1], digit, bounds, next);
+                    }
+                }
+
+                return;
+            }
+
+            if (digit < DIGITS) {
+                insertionSort(from, to);
+            }
+        }
+
+        /*
+         * Distributes [from, to) into buckets by the provided digit, leaving the
+         * bound of each bucket in `buckets`, unless all the keys share that digit,
+         * in which case nothing is moved and false is returned.
+         */
+        boolean distribute(int from, int to, int digit, int[] buckets, int[] next) {
+            final long[] keys = this.keys;
+            final long[] lsbs = this.lsbs;
+
+            Arrays.fill(buckets, 0);
+
+            for (int i = from; i < to; i++) {
+                buckets[digit(keys[i], lsbs[i], digit) + 1]++;
+            }
+
+            buckets[0] = from;
+
+            for (int b = 0; b < RADIX; b++) {
+                if (buckets[b + 1] == to - from) {
+                    return false;
+                }
+
+                buckets[b + 1] += buckets[b];
+            }
+
+            System.arraycopy(buckets, 0, next, 0, RADIX);
+
+            final int base = this.from;
+
+            for (int i = from; i < to; i++) {
+                final int j = next[digit(keys[i], lsbs[i], digit)]++ - base;
+
+                bufferKeys[j] = keys[i];
+                bufferLsbs[j] = lsbs[i];
+
+                if (items != null) {
+                    bufferItems[j] = items[i];
+                }
+            }
+
+            System.arraycopy(bufferKeys, from - base, keys, from, to - from);
+            System.arraycopy(bufferLsbs, from - base, lsbs, from, to - from);
+
+            if (items != null) {
+                System.arraycopy(bufferItems, from - base, items, from, to - from);
+            }
+
+            return true;
+        }
+
+        /* The first digit that isn't shared by all the keys in [from, to). */
+        private int firstDigit(int from, int to) {
+            if (from == to) {
+                return DIGITS;
+            }
+
+            final long firstKey = keys[from];
+            final long firstLsb = lsbs[from];
+
+            long keyDifferences = 0;
+            long lsbDifferences = 0;
+
+            for (int i = from + 1; i < to; i++) {
+                keyDifferences |= keys[i] ^ firstKey;
+                lsbDifferences |= lsbs[i] ^ firstLsb;
+            }
+
+            if (keyDifferences != 0) {
+                return Long.numberOfLeadingZeros(keyDifferences) >>> 3;
+            }
+
+            if (lsbDifferences != 0) {
+                return 8 + (Long.numberOfLeadingZeros(lsbDifferences) >>> 3);
+            }
+
+            return DIGITS;
+        }
+
+        private void insertionSort(int from, int to) {
+            final long[] keys = this.keys;
+            final long[] lsbs = this.lsbs;
+            final Object[] items = this.items;
+
+            for (int i = from + 1; i < to; i++) {
+                final long key = keys[i];
+                final long lsb = lsbs[i];
+                final Object item = items == null ? null : items[i];
+
+                int j = i - 1;
+
+                while (j >= from && compare(keys[j], lsbs[j], key, lsb) > 0) {
+                    keys[j + 1] = keys[j];
+                    lsbs[j + 1] = lsbs[j];
+
+                    if (items != null) {
+                        items[j + 1] = items[j];
+                    }
+
+                    j--;
+                }
+
+                keys[j + 1] = key;
+                lsbs[j + 1] = lsb;
+
+                if (items != null) {
+                    items[j + 1] = item;
+                }
+            }
+        }
+
+        private static int compare(long key1, long lsb1, long key2, long lsb2) {
+            final int comparison = Long.compareUnsigned(key1, key2);
+
+            return comparison != 0 ? comparison : Long.compareUnsigned(lsb1, lsb2);
+        }
+
+        /* The unsigned byte at position `digit` (0 being the most significant) of the 128-bit key. */
+        private static int digit(long key, long lsb, int digit) {
+            return (int) ((digit < 8 ? key >>> (56 - 8 * digit) : lsb >>> (120 - 8 * digit)) & 0xFF);
+        }
+
+    }
+
+    /*
+     * Distributes a range by one digit and sorts the resulting buckets as
+     * separate tasks, down to ranges small enough to be sorted sequentially.
+     */
+    private static final class ParallelSort extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Sorter sorter;
+
+        private final int from;
+
+        private final int to;
+
+        private final int digit;
+
+        ParallelSort(Sorter sorter, int from, int to, int digit) {
+            this.sorter = sorter;
+            this.from = from;
+            this.to = to;
+            this.digit = digit;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                sorter.sort(from, to, digit);
+                return;
+            }
+
+            final int[] buckets = new int[RADIX + 1];
+            final int[] next = new int[RADIX];
+
+            int digit = this.digit;
+
+            while (digit < DIGITS && !sorter.distribute(from, to, digit, buckets, next)) {
+                digit++;
+            }
+
+            if (digit == DIGITS) {
+                return;
+            }
+
+            final List<ParallelSort> tasks = new ArrayList<>();
+
+            for (int b = 0; b < RADIX; b++) {
+                if (buckets[b + 1] - buckets[b] > 1) {
+                    tasks.add(new ParallelSort(sorter, buckets[b], buckets[b + 1], digit + 1));
+                }
+            }
+
+            invokeAll(tasks);
+        }
+
+    }
+
+}
@@ -83,6 +83,18 @@ class BitsSpec extends Specification {
     }
   }
 
+  "Bits.fromBytes and Bits.toBytes with an offset" should {
+    "round-trip" in {
+      val x     = new Random().nextLong()
+      val bytes = new Array[Byte](11)
+
+      toBytes(x, bytes, 3)
+
+      bytes.slice(3, 11).toList must be equalTo toBytes(x).toList
+      fromBytes(bytes, 3) must be equalTo x
+    }
+  }
+
   object Cast {
 
     def sb8(b: Long): Byte = (0x00000000000000ff & b).toByte
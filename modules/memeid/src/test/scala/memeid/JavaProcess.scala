@@ -0,0 +1,45 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid
+
+import java.io.File
+import java.nio.file.Paths
+
+import scala.jdk.CollectionConverters._
+
+/** Starts JVMs running the `main` method of test objects, to test behaviours that span processes or depend on the
+  * configuration of the whole JVM.
+  */
+object JavaProcess {
+
+  private val java = Paths.get(System.getProperty("java.home"), "bin", "java").toString
+
+  /* The test classes, memeid's and Scala's, which java.class.path doesn't contain when tests aren't forked. */
+  private val classPath: String =
+    List(JavaProcess.getClass, classOf[NodeLease], classOf[Option[_]])
+      .map(c => Paths.get(c.getProtectionDomain.getCodeSource.getLocation.toURI).toString)
+      .distinct
+      .mkString(File.pathSeparator)
+
+  /* Starts a JVM with the provided options running the `main` method of the `main` object with the provided args. */
+  def start(main: AnyRef, options: List[String], args: List[String]): Process = {
+    val command = java :: options ::: "-cp" :: classPath :: main.getClass.getName.stripSuffix("$") :: args
+
+    new ProcessBuilder(command.asJava).redirectError(ProcessBuilder.Redirect.INHERIT).start()
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid
+
+import java.io.BufferedReader
+import java.io.IOException
+import java.io.InputStreamReader
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+import java.util.concurrent.TimeUnit
+
+import org.specs2.mutable.Specification
+
+/** Leases a slot from the directory in `args(0)` with `args(1)` slots, prints it and waits for a line on its input to
+  * write `args(3)` V1 UUIDs to the file in `args(2)`, all of them generated from the same base node (clock sequence
+  * included), so they would collide with those of other processes if their leases didn't.
+  */
+object NodeLeaseProcess {
+
+  def main(args: Array[String]): Unit = {
+    val lease = NodeLease.acquire(Paths.get(args(0)), new Node(0.toShort, 0x0123456789abL), args(1).toInt)
+    val n     = args(3).toInt
+
+    System.out.println(lease.slot)
+    System.out.flush()
+    System.in.read()
+
+    val msbs = new Array[Long](n)
+    val lsbs = new Array[Long](n)
+
+    UUID.V1.nextBatch(lease.node, n, msbs, lsbs)
+
+    val buffer = ByteBuffer.allocate(16 * n)
+    msbs.zip(lsbs).foreach { case (msb, lsb) => buffer.putLong(msb).putLong(lsb) }
+    Files.write(Paths.get(args(2)), buffer.array())
+
+    lease.close()
+  }
+
+}
+
+class NodeLeaseSpec extends Specification {
+
+  def tempDirectory(): Path = {
+    val path = Files.createTempDirectory("leases")
+    path.toFile.deleteOnExit()
+    path
+  }
+
+  val base = new Node(0.toShort, 0x0123456789abL)
+
+  "NodeLease" should {
+
+    "lease distinct slots and node ids until all are taken" in {
+      val directory = tempDirectory()
+      val leases    = List.fill(3)(NodeLease.acquire(directory, base, 3))
+
+      try {
+        (leases.map(_.slot) must be equalTo List(0, 1, 2)) and
+          (leases.map(_.node.id).distinct.size must be equalTo 3) and
+          (leases.map(_.node.clockSequence).distinct must be equalTo List(base.clockSequence)) and
+          (leases.forall(lease => (lease.node.id & 0x01L) == (base.id & 0x01L)) must beTrue) and // scalafix:ok
+          (NodeLease.acquire(directory, base, 3) must throwAn[IOException])
+      } finally leases.foreach(_.close())
+    }
+
+    "lease released slots again" in {
+      val directory = tempDirectory()
+      val first     = NodeLease.acquire(directory, base, 2)
+      val second    = NodeLease.acquire(directory, base, 2)
+
+      first.close()
+      first.close()
+
+      val third = NodeLease.acquire(directory, base, 2)
+
+      try {
+        (third.slot must be equalTo first.slot) and (third.node.id must be equalTo first.node.id)
+      } finally {
+        second.close()
+        third.close()
+      }
+    }
+
+    "reject invalid numbers of slots" in {
+      (NodeLease.acquire(tempDirectory(), base, 0) must throwAn[IllegalArgumentException]) and
+        (NodeLease.acquire(tempDirectory(), base, NodeLease.MAX_SLOTS + 1) must throwAn[IllegalArgumentException])
+    }
+
+    "keep UUIDs of concurrent processes from colliding" in {
+      val directory = tempDirectory()
+      val outputs   = List.fill(4)(Files.createTempFile(directory, "uuids", ".bin"))
+
+      val processes = outputs.map { output =>
+        JavaProcess.start(NodeLeaseProcess, Nil, List(directory.toString, "8", output.toString, "100000"))
+      }
+
+      // Every process holds its lease before any of them generates UUIDs
+      val slots = processes.map(p => new BufferedReader(new InputStreamReader(p.getInputStream)).readLine.trim.toInt)
+
+      processes.foreach { p =>
+        p.getOutputStream.write('\n')
+        p.getOutputStream.close()
+      }
+
+      val exited = processes.map(_.waitFor(60, TimeUnit.SECONDS))
+
+      val uuids = outputs.flatMap { output =>
+        val buffer = ByteBuffer.wrap(Files.readAllBytes(output))
+        List.fill(buffer.remaining / 16)((buffer.getLong, buffer.getLong))
+      }
+
+      (exited.forall(identity) must beTrue) and (processes.map(_.exitValue) must be equalTo List(0, 0, 0, 0)) and
+        (slots.distinct.size must be equalTo 4) and (uuids.size must be equalTo 400000) and
+        (uuids.distinct.size must be equalTo uuids.size)
+    }
+
+  }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid
+
+import java.io.IOException
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+import scala.jdk.CollectionConverters._
+import scala.util.Try
+
+import org.specs2.mutable.Specification
+
+/** Prints the exception thrown by the first two calls to `Node.getInstance`, and then the id of the node it returns
+  * once the configuration is fixed.
+  */
+object NodeInstanceProcess {
+
+  def main(args: Array[String]): Unit = {
+    (1 to 2).foreach(_ => Try(Node.getInstance()).failed.foreach(e => System.out.println(e.getClass.getName)))
+
+    System.setProperty("memeid.node.id", "abc")
+    System.out.println(java.lang.Long.toHexString(Node.getInstance().id))
+  }
+
+}
+
+class NodeSpec extends Specification {
+
+  def configuration(settings: (String, String)*): java.util.function.Function[String, String] = {
+    val map = settings.toMap
+    (key: String) => map.getOrElse(key, null) // scalafix:ok
+  }
+
+  val empty = configuration()
+
+  def tempFile(): Path = {
+    val directory = Files.createTempDirectory("node")
+    directory.toFile.deleteOnExit()
+    directory.resolve("node.properties")
+  }
+
+  "Node.getInstance" should {
+
+    "return the same node from every thread" in {
+      val executor = Executors.newFixedThreadPool(8)
+      val task     = new Callable[Node] { def call(): Node = Node.getInstance() }
+
+      try {
+        val nodes = executor.invokeAll(List.fill(64)(task).asJava).asScala.map(_.get)
+
+        nodes.forall(_ eq Node.getInstance()) must beTrue
+      } finally executor.shutdown()
+    }
+
+    "throw the configuration errors and retry on the next call" in {
+      val process = JavaProcess.start(NodeInstanceProcess, List("-Dmemeid.node.id=zz"), Nil)
+      val output  = new String(process.getInputStream.readAllBytes(), StandardCharsets.UTF_8)
+
+      output.linesIterator.toList must be equalTo
+        List("java.lang.IllegalArgumentException", "java.lang.IllegalArgumentException", "abc")
+    }
+
+  }
+
+  "Node.fromConfiguration" should {
+
+    "take the id and clock sequence from system properties" in {
+      val node = Node.fromConfiguration(
+        configuration("memeid.node.id" -> "01:23:45:67:89:ab", "memeid.node.clock-sequence" -> "1234"),
+        empty
+      )
+
+      (node.id must be equalTo 0x0123456789abL) and (node.clockSequence must be equalTo 1234.toShort)
+    }
+
+    "fall back to environment variables" in {
+      val node = Node.fromConfiguration(
+        configuration("memeid.node.id" -> "abcdef"),
+        configuration("MEMEID_NODE_ID" -> "123456", "MEMEID_NODE_CLOCK_SEQUENCE" -> "42")
+      )
+
+      (node.id must be equalTo 0xabcdefL) and (node.clockSequence must be equalTo 42.toShort)
+    }
+
+    "derive the id from local sources only" in {
+      val node1 = Node.fromConfiguration(configuration("memeid.node.source" -> "local"), empty)
+      val node2 = Node.fromConfiguration(empty, configuration("MEMEID_NODE_SOURCE" -> "local"))
+
+      (node1.id must be equalTo Node.local().id) and (node2.id must be equalTo node1.id) and
+        ((node1.id & 0x01L) must be equalTo 1L) and ((node1.id >>> 48) must be equalTo 0L)
+    }
+
+    "reject invalid settings" in {
+      (Node.fromConfiguration(configuration("memeid.node.id" -> "0123456789abc"), empty) must
+        throwAn[IllegalArgumentException]) and
+        (Node.fromConfiguration(configuration("memeid.node.id" -> "xyz"), empty) must
+          throwAn[IllegalArgumentException]) and
+        (Node.fromConfiguration(configuration("memeid.node.clock-sequence" -> "32768"), empty) must
+          throwAn[IllegalArgumentException]) and
+        (Node.fromConfiguration(configuration("memeid.node.source" -> "dns"), empty) must
+          throwAn[IllegalArgumentException])
+    }
+
+    "persist the node to the configured file" in {
+      val path     = tempFile()
+      val settings = configuration("memeid.node.file" -> path.toString, "memeid.node.source" -> "local")
+
+      val first  = Node.fromConfiguration(settings, empty)
+      val second = Node.fromConfiguration(settings, empty)
+
+      (first.id must be equalTo Node.local().id) and (second.id must be equalTo first.id) and
+        (second.clockSequence must be equalTo (first.clockSequence + 1).toShort)
+    }
+
+    "lease a distinct node from the configured directory" in {
+      val directory = Files.createTempDirectory("leases")
+      val settings  = configuration(
+        "memeid.node.id"             -> "0123456789ab",
+        "memeid.node.lease-directory" -> directory.toString,
+        "memeid.node.lease-slots"     -> "2"
+      )
+
+      val nodes = List.fill(2)(Node.fromConfiguration(settings, empty))
+
+      (nodes.map(_.id).distinct.size must be equalTo 2) and
+        (Node.fromConfiguration(settings, empty) must throwAn[java.io.UncheckedIOException])
+    }
+
+  }
+
+  "Node.persisted" should {
+
+    "create the node once and increment its clock sequence on every reuse" in {
+      val path  = tempFile()
+      val nodes = List.fill(3)(Node.persisted(path, () => new Node(32766.toShort, 0x0123456789abL)))
+
+      (nodes.map(_.id).distinct must be equalTo List(0x0123456789abL)) and
+        (nodes.map(_.clockSequence.toInt) must be equalTo List(32766, 32767, 0)) and
+        (Files.list(path.getParent).count must be equalTo 1L)
+    }
+
+    "reject invalid files" in {
+      val path = tempFile()
+
+      Files.write(path, "id=xyz\n".getBytes(StandardCharsets.UTF_8))
+
+      Node.persisted(path, () => Node.local()) must throwAn[IOException]
+    }
+
+  }
+
+}
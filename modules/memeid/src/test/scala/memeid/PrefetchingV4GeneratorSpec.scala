@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.ThreadFactory
+
+import scala.concurrent.duration._
+import scala.jdk.CollectionConverters._
+
+import org.specs2.mutable.Specification
+
+class PrefetchingV4GeneratorSpec extends Specification {
+
+  /* Creates threads that never fill the buffer. */
+  val idle: ThreadFactory = _ => new Thread(() => ())
+
+  "PrefetchingV4Generator" should {
+
+    "fill the buffer up to its capacity" in {
+      val generator = PrefetchingV4Generator.start(64, 16)
+
+      try generator.available() must beEqualTo(64).eventually(1000, 10.millis)
+      finally generator.close()
+    }
+
+    "create distinct version 4 UUIDs from the buffer" in {
+      val generator = PrefetchingV4Generator.start(1024, 256)
+
+      try {
+        val filled = generator.available() must beEqualTo(1024).eventually(1000, 10.millis)
+
+        val uuids = List.fill(512)(generator.next())
+
+        filled and (uuids.map(_.version).toSet must be equalTo Set(4)) and
+          (uuids.toSet.size must be equalTo 512) and
+          (generator.misses() must be equalTo 0L)
+      } finally generator.close()
+    }
+
+    "refill the buffer once it is down to its low watermark" in {
+      val generator = PrefetchingV4Generator.start(64, 16)
+
+      try {
+        val filled = generator.available() must beEqualTo(64).eventually(1000, 10.millis)
+
+        List.fill(40)(generator.next())
+
+        val before = generator.available()
+
+        List.fill(10)(generator.next())
+
+        filled and (before must be equalTo 24) and
+          (generator.available() must beGreaterThan(24).eventually(1000, 10.millis))
+      } finally generator.close()
+    }
+
+    "generate UUIDs inline when the buffer is empty" in {
+      val generator = PrefetchingV4Generator.start(16, 4, idle)
+
+      val uuids = List.fill(100)(generator.next())
+
+      (uuids.map(_.version).toSet must be equalTo Set(4)) and
+        (uuids.toSet.size must be equalTo 100) and
+        (generator.misses() must be equalTo 100L)
+    }
+
+    "not generate the same UUID twice with high concurrency" in {
+      val generator = PrefetchingV4Generator.start(256, 64)
+      val executor  = Executors.newFixedThreadPool(8)
+      val task      = new Callable[List[UUID]] { def call(): List[UUID] = List.fill(10000)(generator.next()) }
+
+      try {
+        val uuids = executor.invokeAll(List.fill(16)(task).asJava).asScala.flatMap(_.get)
+
+        uuids.toSet.size must be equalTo 160000
+      } finally {
+        executor.shutdown()
+        generator.close()
+      }
+    }
+
+    "stop filling the buffer once closed" in {
+      val threads = new java.util.concurrent.ConcurrentLinkedQueue[Thread]()
+      val factory: ThreadFactory = runnable => {
+        val thread = new Thread(runnable)
+        threads.add(thread)
+        thread
+      }
+
+      val generator = PrefetchingV4Generator.start(16, 4, factory)
+      generator.close()
+
+      (threads.peek().isAlive must beFalse.eventually(1000, 10.millis)) and (generator.next().version must be equalTo 4)
+    }
+
+    "reject invalid capacities and low watermarks" in {
+      (PrefetchingV4Generator.start(0, 0) must throwAn[IllegalArgumentException]) and
+        (PrefetchingV4Generator.start(100, 10) must throwAn[IllegalArgumentException]) and
+        (PrefetchingV4Generator.start(64, 64) must throwAn[IllegalArgumentException]) and
+        (PrefetchingV4Generator.start(64, -1) must throwAn[IllegalArgumentException])
+    }
+
+  }
+
+}
@@ -39,4 +39,20 @@ class SQUUIDSpec extends Specification {
 
   }
 
+  "SQUUID constructor with a random source" should {
+
+    "create version 4 UUIDs with the RFC variant" in {
+      val uuids = new ParRange(1 to 100).map(_ => UUID.V4.squuid(() => RandomSource.threadLocal())).toVector
+
+      (uuids.map(_.version).toSet must be equalTo Set(4)) and (uuids.map(_.variant).toSet must be equalTo Set(2))
+    }
+
+    "keep the posix timestamp in the 32 most significant bits" in {
+      val uuid = UUID.V4.squuid(1234567L, () => -1L)
+
+      uuid.getMostSignificantBits >>> 32 must be equalTo 1234567L
+    }
+
+  }
+
 }
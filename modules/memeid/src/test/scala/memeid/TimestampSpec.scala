@@ -0,0 +1,210 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid
+
+import java.nio.charset.StandardCharsets
+
+import scala.collection.parallel.immutable.ParRange
+import scala.util.Try
+
+import org.specs2.mutable.Specification
+
+/** Prints the exceptions thrown by `Timestamp.monotonic()` with an invalid wait strategy, while the other clocks keep
+  * working, and then what it returns once the wait strategy is fixed.
+  */
+object TimestampProcess {
+
+  def main(args: Array[String]): Unit = {
+    def print(attempt: => UUID): Unit =
+      System.out.println(Try(attempt).fold(_.getClass.getName, _.getClass.getSimpleName))
+
+    print(UUID.V1.next)
+    print(UUID.V7.next)
+    print(UUID.V1.next(Node.getInstance(), () => Timestamp.highResolution()))
+    print(UUID.V1.next)
+
+    System.setProperty("memeid.timestamp.wait-strategy", "spin")
+    print(UUID.V1.next)
+  }
+
+}
+
+@SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel"))
+class TimestampSpec extends Specification {
+
+  "Timestamp.monotonic" should {
+
+    "return increasing timestamps" in {
+      val timestamps = (1 to 5000).map(_ => Timestamp.monotonic())
+
+      timestamps must be equalTo timestamps.sorted.distinct
+    }
+
+    "not return the same timestamp twice with high concurrency" in {
+      val timestamps = new ParRange(1 to 5000).map(_ => Timestamp.monotonic()).toVector
+
+      timestamps.distinct.size must be equalTo 5000
+    }
+
+    "reserve blocks that don't overlap with other timestamps" in {
+      val first = Timestamp.monotonic(10)
+      val next  = Timestamp.monotonic()
+
+      next must be greaterThanOrEqualTo (first + 10)
+    }
+
+    "reject reserving less than one timestamp" in {
+      (Timestamp.monotonic(0) must throwAn[IllegalArgumentException]) and
+        (Timestamp.monotonic(-5) must throwAn[IllegalArgumentException])
+    }
+
+  }
+
+  "Timestamp.monotonic with a wait strategy" should {
+
+    "return increasing timestamps with every strategy that waits" in {
+      val strategies = List(Timestamp.WaitStrategy.SPIN, Timestamp.WaitStrategy.SPIN_WAIT, Timestamp.WaitStrategy.PARK)
+
+      val timestamps = strategies.flatMap(strategy => (1 to 5000).map(_ => Timestamp.monotonic(strategy)))
+
+      timestamps must be equalTo timestamps.sorted.distinct
+    }
+
+    "fail instead of waiting with FAIL_FAST" in {
+      (1 to 100000).map(_ => Timestamp.monotonic(Timestamp.WaitStrategy.FAIL_FAST)) must
+        throwAn[IllegalStateException]
+    }
+
+    "be read from a system property, an environment variable or default to PARK" in {
+      val property = Map("memeid.timestamp.wait-strategy" -> "spin-wait")
+      val env      = Map("MEMEID_TIMESTAMP_WAIT_STRATEGY" -> "FAIL_FAST")
+      val none     = Map.empty[String, String]
+
+      def setting(settings: Map[String, String]): java.util.function.Function[String, String] =
+        (key: String) => settings.getOrElse(key, null) // scalafix:ok
+
+      def strategy(properties: Map[String, String], environment: Map[String, String]) =
+        Timestamp.waitStrategy(setting(properties), setting(environment))
+
+      (strategy(property, env) must be equalTo Timestamp.WaitStrategy.SPIN_WAIT) and
+        (strategy(none, env) must be equalTo Timestamp.WaitStrategy.FAIL_FAST) and
+        (strategy(none, none) must be equalTo Timestamp.WaitStrategy.PARK) and
+        (strategy(Map("memeid.timestamp.wait-strategy" -> "sleep"), none) must throwAn[IllegalArgumentException])
+    }
+
+    "only fail Timestamp.monotonic() if the configured one is invalid" in {
+      val process = JavaProcess.start(TimestampProcess, List("-Dmemeid.timestamp.wait-strategy=sleep"), Nil)
+      val output  = new String(process.getInputStream.readAllBytes(), StandardCharsets.UTF_8)
+
+      output.linesIterator.toList must be equalTo
+        List("java.lang.IllegalArgumentException", "V7", "V1", "java.lang.IllegalArgumentException", "V1")
+    }
+
+  }
+
+  "Timestamp.monotonicAsync" should {
+
+    "not complete with the same timestamp twice" in {
+      val futures = (1 to 5000).map(_ => Timestamp.monotonicAsync())
+
+      futures.map(_.join()).distinct.size must be equalTo 5000
+    }
+
+  }
+
+  "Timestamp.highResolution" should {
+
+    "return increasing timestamps" in {
+      val timestamps = (1 to 5000).map(_ => Timestamp.highResolution())
+
+      timestamps must be equalTo timestamps.sorted.distinct
+    }
+
+    "not return the same timestamp twice with high concurrency" in {
+      val timestamps = new ParRange(1 to 5000).map(_ => Timestamp.highResolution()).toVector
+
+      timestamps.distinct.size must be equalTo 5000
+    }
+
+    "count 100-nanosecond intervals since the gregorian epoch" in {
+      val millis = (Timestamp.highResolution() - 0x01b21dd213814000L) / 10000
+
+      millis must be closeTo (System.currentTimeMillis() +/- 1000L)
+    }
+
+    "follow the wall clock when it drifts or is adjusted" in {
+      val anchor = Timestamp.Anchor.of(0L, 1000L)
+      val nanos  = 60000000L
+
+      val ahead  = anchor.check(nanos, 1060L + Timestamp.Anchor.MAX_DRIFT / 10000 + 1)
+      val behind = anchor.check(nanos, 1000L)
+      val close  = anchor.check(nanos, 1065L)
+
+      (ahead.ticksAt(nanos) must be equalTo Timestamp.Anchor.of(nanos, 1081L).ticksAt(nanos)) and
+        (behind.ticksAt(nanos) must be equalTo Timestamp.Anchor.of(nanos, 1000L).ticksAt(nanos)) and
+        (close.ticksAt(nanos) must be equalTo anchor.ticksAt(nanos)) and
+        (close.checkAt must be greaterThan nanos)
+    }
+
+    "be usable as the V1 timestamp supplier" in {
+      val timestamp = Timestamp.highResolution()
+
+      UUID.V1.next(Node.getInstance(), () => timestamp).asJava.timestamp must be equalTo timestamp
+    }
+
+    "reject reserving less than one timestamp" in {
+      (Timestamp.highResolution(0) must throwAn[IllegalArgumentException]) and
+        (Timestamp.highResolution(-5) must throwAn[IllegalArgumentException])
+    }
+
+  }
+
+  "Timestamp.unixMillisWithCounter" should {
+
+    "return increasing timestamps" in {
+      val timestamps = (1 to 5000).map(_ => Timestamp.unixMillisWithCounter())
+
+      timestamps must be equalTo timestamps.sorted.distinct
+    }
+
+    "not return the same timestamp twice with high concurrency" in {
+      val timestamps = new ParRange(1 to 5000).map(_ => Timestamp.unixMillisWithCounter()).toVector
+
+      timestamps.distinct.size must be equalTo 5000
+    }
+
+    "pack the Unix milliseconds above a 12-bit counter" in {
+      val millis = Timestamp.unixMillisWithCounter() >>> 12
+
+      millis must be closeTo (System.currentTimeMillis() +/- 1000L)
+    }
+
+    "reserve blocks that don't overlap with other timestamps" in {
+      val first = Timestamp.unixMillisWithCounter(10000)
+      val next  = Timestamp.unixMillisWithCounter()
+
+      next must be greaterThanOrEqualTo (first + 10000)
+    }
+
+    "reject reserving less than one timestamp" in {
+      (Timestamp.unixMillisWithCounter(0) must throwAn[IllegalArgumentException]) and
+        (Timestamp.unixMillisWithCounter(-5) must throwAn[IllegalArgumentException])
+    }
+
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid
+
+import java.nio.charset.StandardCharsets.US_ASCII
+import java.util.Locale
+
+import scala.collection.parallel.immutable.ParRange
+
+import org.specs2.mutable.Specification
+
+@SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel", "scalafix:Disable.toString"))
+class UUIDParseCacheSpec extends Specification {
+
+  "UUIDParseCache" should {
+
+    "return the same instance for the same UUID string" in {
+      val cache = new UUIDParseCache(1024)
+      val uuid  = UUID.V4.random
+
+      val first  = cache.tryParse(uuid.toString)
+      val second = cache.tryParse(new java.lang.StringBuilder(uuid.toString))
+      val third  = cache.tryParse(uuid.toString.toUpperCase(Locale.ROOT))
+      val fourth = cache.tryParse(uuid.toString.getBytes(US_ASCII), 0)
+
+      (first must be equalTo uuid) and (second must beTheSameAs(first)) and (third must beTheSameAs(first)) and
+        (fourth must beTheSameAs(first))
+    }
+
+    "return the same UUIDs as UUID.tryParse" in {
+      val cache = new UUIDParseCache(16)
+      val names = (1 to 1000).map(_ => UUID.V1.next.toString) ++ List("", "miau", "1cbf0782-3209-11ea-978f-2e728ce8812g")
+
+      names.map(cache.tryParse(_)) must be equalTo names.map(UUID.tryParse(_))
+    }
+
+    "throw on invalid strings with fromString" in {
+      new UUIDParseCache(16).fromString("miau") must throwAn[IllegalArgumentException]("Invalid UUID string: miau")
+    }
+
+    "count hits and misses of valid UUIDs" in {
+      val cache = new UUIDParseCache(1024)
+      val names = (1 to 100).map(_ => UUID.V4.random.toString)
+
+      names.foreach(cache.tryParse(_))
+      names.foreach(cache.tryParse(_))
+      cache.tryParse("miau")
+
+      (cache.hits() must be equalTo 100L) and (cache.misses() must be equalTo 100L) and
+        (cache.hitRate() must be equalTo 0.5)
+    }
+
+    "keep frequent UUIDs cached while many others are parsed once" in {
+      val cache = new UUIDParseCache(1024)
+      val hot   = (1 to 64).map(_ => UUID.V4.random.toString)
+
+      (0 until 20000).foreach { i =>
+        cache.tryParse(hot(i % 64))
+        cache.tryParse(UUID.V4.random.toString)
+      }
+
+      val cached = hot.count(name => cache.tryParse(name) eq cache.tryParse(name))
+      val before = cache.hits()
+
+      hot.foreach(cache.tryParse(_))
+
+      (cached must be equalTo 64) and (cache.hits() - before must be equalTo 64L)
+    }
+
+    "be usable from several threads" in {
+      val cache = new UUIDParseCache(1024)
+      val names = (1 to 100).map(_ => UUID.V4.random.toString).toVector
+
+      val uuids = new ParRange(1 to 10000).map(i => cache.tryParse(names(i % 100))).toVector
+
+      uuids.map(_.toString).toSet must be equalTo names.toSet
+    }
+
+    "reject invalid sizes" in {
+      (new UUIDParseCache(0) must throwAn[IllegalArgumentException]) and
+        (new UUIDParseCache(UUIDParseCache.MAX_SIZE + 1) must throwAn[IllegalArgumentException])
+    }
+
+  }
+
+}
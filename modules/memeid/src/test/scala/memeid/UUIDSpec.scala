@@ -16,6 +16,8 @@
 
 package memeid
 
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets.US_ASCII
 import java.util.Optional
 
 import org.scalacheck.Arbitrary
@@ -24,7 +26,15 @@ import org.scalacheck.Gen
 import org.specs2.ScalaCheck
 import org.specs2.mutable.Specification
 
-@SuppressWarnings(Array("scalafix:Disable.toString", "scalafix:DisableSyntax.asInstanceOf"))
+@SuppressWarnings(
+  Array(
+    "scalafix:Disable.toString",
+    "scalafix:Disable.equals",
+    "scalafix:Disable.hashCode",
+    "scalafix:DisableSyntax.asInstanceOf",
+    "scalafix:DisableSyntax.=="
+  )
+)
 class UUIDSpec extends Specification with ScalaCheck {
 
   "UUID.fromString" should {
@@ -43,25 +53,298 @@ class UUIDSpec extends Specification with ScalaCheck {
 
   }
 
+  "UUID.fromCharSequence" should {
+
+    "return uuid on valid uuid characters" in prop { (uuid: UUID) =>
+      UUID.fromCharSequence(new java.lang.StringBuilder(uuid.toString)) should be equalTo uuid
+    }
+
+    "accept upper-case digits" in prop { (uuid: UUID) =>
+      UUID.fromCharSequence(uuid.toString.toUpperCase) should be equalTo uuid
+    }
+
+    "throw exception on non-ASCII digits" >> {
+      UUID.fromCharSequence("0000000\u0660-0000-0000-0000-000000000000") must throwAn[IllegalArgumentException]
+    }
+
+  }
+
+  "UUID.fromAscii" should {
+
+    "return uuid on valid uuid bytes at an offset" in prop { (uuid: UUID) =>
+      val bytes = s"--$uuid--".getBytes(US_ASCII)
+
+      UUID.fromAscii(bytes, 2) should be equalTo uuid
+    }
+
+    "return uuid on valid uuid bytes in a direct ByteBuffer without moving it" in prop { (uuid: UUID) =>
+      val buffer = ByteBuffer.allocateDirect(40).put(s"--$uuid--".getBytes(US_ASCII))
+      buffer.flip()
+
+      (UUID.fromAscii(buffer, 2) should be equalTo uuid) and (buffer.position() must be equalTo 0)
+    }
+
+    "return uuid on valid uuid bytes in a sliced heap ByteBuffer" in prop { (uuid: UUID) =>
+      val buffer = ByteBuffer.wrap(s"--$uuid--".getBytes(US_ASCII), 1, 39).slice()
+
+      UUID.fromAscii(buffer, 1) should be equalTo uuid
+    }
+
+    "throw exception on invalid bytes" >> {
+      val bytes = "00000000-0000-0000-0000-00000000000g".getBytes(US_ASCII)
+
+      (UUID.fromAscii(bytes, 0) must throwAn[IllegalArgumentException](
+        "Invalid UUID string: 00000000-0000-0000-0000-00000000000g"
+      )) and (UUID.fromAscii(ByteBuffer.allocateDirect(36).put(bytes), 0) must throwAn[IllegalArgumentException])
+    }
+
+    "throw exception on non-ASCII bytes" >> {
+      val bytes = "00000000-0000-0000-0000-000000000000".getBytes(US_ASCII)
+      bytes(3) = 0xb0.toByte
+
+      UUID.fromAscii(bytes, 0) must throwAn[IllegalArgumentException]
+    }
+
+    "throw exception when there are not enough bytes" >> {
+      UUID.fromAscii(UUID.NIL.toString.getBytes(US_ASCII), 1) must throwAn[IndexOutOfBoundsException]
+    }
+
+  }
+
+  "UUID.parse" should {
+
+    "write the uuid bits from characters" in prop { (uuid: UUID) =>
+      val out = new Array[Long](3)
+
+      UUID.parse(uuid.toString, out, 1)
+
+      out.toList must be equalTo List(0L, uuid.getMostSignificantBits, uuid.getLeastSignificantBits)
+    }
+
+    "write the uuid bits from bytes" in prop { (uuid: UUID) =>
+      val out = new Array[Long](2)
+
+      UUID.parse(s"-$uuid".getBytes(US_ASCII), 1, out, 0)
+
+      out.toList must be equalTo List(uuid.getMostSignificantBits, uuid.getLeastSignificantBits)
+    }
+
+    "leave the output untouched on invalid input" in prop { (s: String) =>
+      val out = Array(1L, 2L)
+
+      (UUID.parse(s, out, 0) must throwAn[IllegalArgumentException]) and (out.toList must be equalTo List(1L, 2L))
+    }.setGen(Gen.alphaNumStr)
+
+  }
+
+  "UUID.tryParse" should {
+
+    "return uuid on valid uuid characters" in prop { (uuid: UUID) =>
+      UUID.tryParse(uuid.toString) should be equalTo uuid
+    }
+
+    "return null on invalid characters" in prop { (s: String) =>
+      UUID.tryParse(s) must beNull
+    }.setGen(Gen.alphaNumStr)
+
+    "return null on an invalid uuid with valid dashes" >> {
+      UUID.tryParse("00000000-0000-0000-0000-00000000000g") must beNull
+    }
+
+    "return null on null" >> {
+      (UUID.tryParse(null: CharSequence) must beNull) and // scalafix:ok
+        (UUID.tryParse(null: CharSequence, new Array[Long](2), 0) must beFalse) // scalafix:ok
+    }
+
+    "return uuid on valid uuid bytes" in prop { (uuid: UUID) =>
+      val bytes = s"-$uuid".getBytes(US_ASCII)
+
+      (UUID.tryParse(bytes, 1) should be equalTo uuid) and
+        (UUID.tryParse(ByteBuffer.allocateDirect(37).put(bytes), 1) should be equalTo uuid)
+    }
+
+    "return null on invalid bytes" >> {
+      val bytes = "00000000-0000-0000-0000-00000000000g".getBytes(US_ASCII)
+
+      (UUID.tryParse(bytes, 0) must beNull) and
+        (UUID.tryParse(ByteBuffer.allocateDirect(36).put(bytes), 0) must beNull)
+    }
+
+    "write the uuid bits and return true on valid input" in prop { (uuid: UUID) =>
+      val out = new Array[Long](2)
+
+      (UUID.tryParse(uuid.toString, out, 0) must beTrue) and
+        (out.toList must be equalTo List(uuid.getMostSignificantBits, uuid.getLeastSignificantBits))
+    }
+
+    "return false and leave the output untouched on invalid input" in prop { (s: String) =>
+      val out = Array(1L, 2L)
+
+      (UUID.tryParse(s, out, 0) must beFalse) and
+        (UUID.tryParse(s.getBytes(US_ASCII).padTo(36, '-'.toByte), 0, out, 0) must beFalse) and
+        (out.toList must be equalTo List(1L, 2L))
+    }.setGen(Gen.alphaNumStr)
+
+  }
+
+  "UUID.toString" should {
+
+    "return the same representation as java.util.UUID" in prop { (uuid: UUID) =>
+      uuid.toString must be equalTo new java.util.UUID(uuid.getMostSignificantBits, uuid.getLeastSignificantBits).toString
+    }
+
+  }
+
+  "UUID.appendTo" should {
+
+    "append the uuid representation to the builder" in prop { (uuid: UUID) =>
+      uuid.appendTo(new java.lang.StringBuilder("uuid=")).toString must be equalTo s"uuid=$uuid"
+    }
+
+  }
+
+  "UUID.writeAscii" should {
+
+    "write the uuid representation into a byte array" in prop { (uuid: UUID) =>
+      val bytes = Array.fill[Byte](40)('.')
+
+      (uuid.writeAscii(bytes, 2) must be equalTo 38) and
+        (new String(bytes, US_ASCII) must be equalTo s"..$uuid..")
+    }
+
+    "write the uuid representation into heap and direct buffers" in prop { (uuid: UUID) =>
+      val heap   = ByteBuffer.allocate(40).put("..".getBytes(US_ASCII))
+      val direct = ByteBuffer.allocateDirect(40).put("..".getBytes(US_ASCII))
+
+      List(heap, direct).map { buffer =>
+        uuid.writeAscii(buffer)
+        val bytes = new Array[Byte](buffer.flip().remaining())
+        buffer.get(bytes)
+        new String(bytes, US_ASCII)
+      } must be equalTo List(s"..$uuid", s"..$uuid")
+    }
+
+    "not write anything when there is no room for the uuid" >> {
+      val bytes = new Array[Byte](35)
+
+      (UUID.NIL.writeAscii(bytes, 0) must throwAn[IndexOutOfBoundsException]) and
+        (UUID.NIL.writeAscii(ByteBuffer.wrap(bytes)) must throwA[java.nio.BufferOverflowException]) and
+        (UUID.NIL.writeAscii(ByteBuffer.allocate(36).asReadOnlyBuffer()) must
+          throwA[java.nio.ReadOnlyBufferException]) and
+        (bytes.toList must be equalTo List.fill(35)(0.toByte))
+    }
+
+  }
+
   "UUID.fromUUID" should {
 
     "return NIL on NIL UUID" >> {
       UUID.fromUUID(UUID.NIL.asJava) must be equalTo UUID.NIL
     }
 
+    "return the NIL instance on any nil java.util.UUID" >> {
+      UUID.fromUUID(new java.util.UUID(0L, 0L)) must beTheSameAs(UUID.NIL)
+    }
+
     "return uuid depending on version" in prop { (uuid: UUID) =>
       UUID.fromUUID(uuid.asJava) must be like {
+        case nil if nil.isNil       => (uuid.getMostSignificantBits | uuid.getLeastSignificantBits) must be equalTo 0L
         case _: UUID.V1             => uuid.version must be equalTo 1
         case _: UUID.V2             => uuid.version must be equalTo 2
         case _: UUID.V3             => uuid.version must be equalTo 3
         case _: UUID.V4             => uuid.version must be equalTo 4
         case _: UUID.V5             => uuid.version must be equalTo 5
-        case _: UUID.UnknownVersion => uuid.version must not be between(1, 5)
+        case _: UUID.V6             => uuid.version must be equalTo 6
+        case _: UUID.V7             => uuid.version must be equalTo 7
+        case _: UUID.UnknownVersion => uuid.version must not be between(1, 7)
       }
     }
 
   }
 
+  "uuid.asJava" should {
+
+    "keep the same bits, version and variant" in prop { (uuid: UUID) =>
+      val juuid = uuid.asJava
+
+      (juuid.getMostSignificantBits must be equalTo uuid.getMostSignificantBits) and
+        (juuid.getLeastSignificantBits must be equalTo uuid.getLeastSignificantBits) and
+        (juuid.version must be equalTo uuid.version) and
+        (juuid.variant must be equalTo uuid.variant) and
+        (juuid.toString must be equalTo uuid.toString)
+    }
+
+    "return the same instance on every call" in prop { (uuid: UUID) =>
+      uuid.asJava must be(uuid.asJava)
+    }
+
+  }
+
+  "UUID.equals" should {
+
+    "be true only for UUIDs with the same bits" in prop { (a: UUID, b: UUID) =>
+      (a must be equalTo UUID.from(a.getMostSignificantBits, a.getLeastSignificantBits)) and
+        (a.equals(b) must be equalTo a.asJava.equals(b.asJava)) and
+        (a.equals(a.asJava) must beFalse)
+    }
+
+  }
+
+  "UUID.hashCode" should {
+
+    "be the same for equal UUIDs" in prop { (uuid: UUID) =>
+      uuid.hashCode must be equalTo UUID.from(uuid.getMostSignificantBits, uuid.getLeastSignificantBits).hashCode
+    }
+
+    "be available from the bits alone" in prop { (uuid: UUID) =>
+      UUID.hashCode(uuid.getMostSignificantBits, uuid.getLeastSignificantBits) must be equalTo uuid.hashCode
+    }
+
+    "spread consecutive UUIDs over the low bits" in {
+      val buckets = UUID.V1.nextBatch(1024).map(_.hashCode & 1023).toSet
+
+      buckets.size must be greaterThan 600
+    }
+
+  }
+
+  "UUID.compareTo" should {
+
+    "sort by version, then V1 timestamp or unsigned most significant bits, then unsigned least significant bits" in prop {
+      (a: UUID, b: UUID) =>
+        def key(uuid: UUID) = {
+          val msb = if (uuid.version == 1) uuid.asJava.timestamp else uuid.getMostSignificantBits
+
+          (uuid.version, msb ^ Long.MinValue, uuid.getLeastSignificantBits ^ Long.MinValue)
+        }
+
+        (a.compareTo(b).sign must be equalTo Ordering[(Int, Long, Long)].compare(key(a), key(b)).sign) and
+          ((a.compareTo(b) == 0) must be equalTo a.equals(b))
+    }
+
+  }
+
+  "UUID.sortKey" should {
+
+    "be reverted by fromSortKey" in prop { (uuid: UUID) =>
+      UUID.fromSortKey(UUID.sortKey(uuid.getMostSignificantBits)) must be equalTo uuid.getMostSignificantBits
+    }
+
+    "keep the version in the highest bits" in prop { (uuid: UUID) =>
+      (UUID.sortKey(uuid.getMostSignificantBits) >>> 60) must be equalTo uuid.version.toLong
+    }
+
+    "order UUIDs as compareTo" in prop { (a: UUID, b: UUID) =>
+      val keys = java.lang.Long.compareUnsigned(UUID.sortKey(a.getMostSignificantBits), UUID.sortKey(b.getMostSignificantBits))
+      val bits = if (keys != 0) keys else java.lang.Long.compareUnsigned(a.getLeastSignificantBits, b.getLeastSignificantBits)
+
+      (bits.sign must be equalTo a.compareTo(b).sign) and
+        (UUID.compare(a.getMostSignificantBits, a.getLeastSignificantBits, b.getMostSignificantBits, b.getLeastSignificantBits).sign must
+          be equalTo a.compareTo(b).sign)
+    }
+
+  }
+
   "uuid.asV* methods" should {
 
     "uuid.asV1 should return optional with uuid only if class is UUID.V1" >> {
@@ -112,6 +395,22 @@ class UUIDSpec extends Specification with ScalaCheck {
         (uuid.asV5 must be equalTo Optional.of[UUID.V5](uuid))
     }
 
+    "uuid.asV6 should return optional with uuid only if class is UUID.V6" >> {
+      val uuid = UUID.V6.next.asInstanceOf[UUID.V6]
+
+      (uuid.asV1 must be equalTo Optional.empty[UUID.V1]) and
+        (uuid.asV6 must be equalTo Optional.of[UUID.V6](uuid)) and
+        (uuid.asV7 must be equalTo Optional.empty[UUID.V7])
+    }
+
+    "uuid.asV7 should return optional with uuid only if class is UUID.V7" >> {
+      val uuid = UUID.V7.next.asInstanceOf[UUID.V7]
+
+      (uuid.asV1 must be equalTo Optional.empty[UUID.V1]) and
+        (uuid.asV4 must be equalTo Optional.empty[UUID.V4]) and
+        (uuid.asV7 must be equalTo Optional.of[UUID.V7](uuid))
+    }
+
   }
 
   "uuid.isV* methods" should {
@@ -169,13 +468,33 @@ class UUIDSpec extends Specification with ScalaCheck {
         (uuid.isV5 must beTrue)
     }
 
+    "uuid.isV6 should return true only if class is UUID.V6" >> {
+      val uuid = UUID.V6.next
+
+      (uuid.isNil must beFalse) and
+        (uuid.isV1 must beFalse) and
+        (uuid.isV6 must beTrue) and
+        (uuid.isV7 must beFalse)
+    }
+
+    "uuid.isV7 should return true only if class is UUID.V7" >> {
+      val uuid = UUID.V7.next
+
+      (uuid.isNil must beFalse) and
+        (uuid.isV1 must beFalse) and
+        (uuid.isV4 must beFalse) and
+        (uuid.isV7 must beTrue)
+    }
+
     "uuid.isNil should return true only if uuid is NIL uuid" >> {
       (UUID.NIL.isNil must beTrue) and
         (UUID.NIL.isV1 must beFalse) and
         (UUID.NIL.isV2 must beFalse) and
         (UUID.NIL.isV3 must beFalse) and
         (UUID.NIL.isV4 must beFalse) and
-        (UUID.NIL.isV5 must beFalse)
+        (UUID.NIL.isV5 must beFalse) and
+        (UUID.NIL.isV6 must beFalse) and
+        (UUID.NIL.isV7 must beFalse)
     }
 
   }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid
+
+import java.util.concurrent.Callable
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.Executors
+
+import scala.jdk.CollectionConverters._
+
+import org.specs2.mutable.Specification
+
+class V1GeneratorSpec extends Specification {
+
+  val node = new Node(0x1234.toShort, 0x0123456789abL)
+
+  "V1Generator" should {
+
+    "create version 1 UUIDs with the node id" in {
+      val generator = new V1Generator(node, 4)
+      val uuids     = List.fill(100)(generator.next())
+
+      (uuids.map(_.version).toSet must be equalTo Set(1)) and
+        (uuids.map(_.getLeastSignificantBits & 0xffffffffffffL).toSet must be equalTo Set(node.id))
+    }
+
+    "create increasing UUIDs from the same thread" in {
+      val generator = new V1Generator(node, 4)
+      val uuids     = List.fill(1000)(generator.next().asJava.timestamp)
+
+      uuids must be equalTo uuids.sorted.distinct
+    }
+
+    "not generate the same UUID twice with more threads than stripes" in {
+      val generator = new V1Generator(node, 4)
+      val executor  = Executors.newFixedThreadPool(8)
+      val task      = new Callable[List[UUID]] { def call(): List[UUID] = List.fill(10000)(generator.next()) }
+
+      try {
+        val uuids = executor.invokeAll(List.fill(16)(task).asJava).asScala.flatMap(_.get)
+
+        uuids.toSet.size must be equalTo 160000
+      } finally executor.shutdown()
+    }
+
+    "give each stripe a clock sequence distinct from the others and from the node's" in {
+      val generator = new V1Generator(node, V1Generator.MAX_STRIPES)
+      val executor  = Executors.newFixedThreadPool(V1Generator.MAX_STRIPES)
+      val barrier   = new CyclicBarrier(V1Generator.MAX_STRIPES)
+      val task = new Callable[Long] {
+        def call(): Long = {
+          barrier.await() // so each task runs in its own thread
+          generator.next().asV1.get.clockSeqLow
+        }
+      }
+
+      try {
+        val sequences = executor.invokeAll(List.fill(V1Generator.MAX_STRIPES)(task).asJava).asScala.map(_.get)
+
+        (sequences.toSet.size must be equalTo V1Generator.MAX_STRIPES) and
+          (sequences must not(contain(UUID.V1.next(node).asV1.get.clockSeqLow)))
+      } finally executor.shutdown()
+    }
+
+    "reject an invalid number of stripes" in {
+      (new V1Generator(node, 0) must throwAn[IllegalArgumentException]) and
+        (new V1Generator(node, V1Generator.MAX_STRIPES + 1) must throwAn[IllegalArgumentException])
+    }
+
+  }
+
+}
@@ -16,7 +16,15 @@
 
 package memeid
 
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Flow
+import java.util.concurrent.TimeUnit
+import java.util.stream.Collectors
+
 import scala.collection.parallel.immutable.ParRange
+import scala.jdk.CollectionConverters._
 
 import org.specs2.mutable.Specification
 
@@ -67,4 +75,180 @@ class V1Spec extends Specification {
     }
   }
 
+  "V1 async constructor" should {
+
+    "create distinct version 1 UUIDs" in {
+      val uuids = (1 to 5000).map(_ => UUID.V1.nextAsync()).map(_.join())
+
+      (uuids.map(_.version).toSet must be equalTo Set(1)) and (uuids.toSet.size must be equalTo 5000)
+    }
+
+  }
+
+  "V1 publisher" should {
+
+    /* Requests UUIDs in batches of `batch` (only once unless `refill`) until `total` have been received. */
+    final class Collector(batch: Long, total: Int, refill: Boolean = true) extends Flow.Subscriber[UUID] {
+
+      val received = new ConcurrentLinkedQueue[UUID]()
+
+      val done = new CompletableFuture[List[UUID]]()
+
+      val subscription = new CompletableFuture[Flow.Subscription]()
+
+      override def onSubscribe(s: Flow.Subscription): Unit = {
+        subscription.complete(s)
+        s.request(batch)
+      }
+
+      override def onNext(uuid: UUID): Unit = {
+        received.add(uuid)
+
+        if (received.size >= total) {
+          subscription.join().cancel()
+          done.complete(received.asScala.toList)
+        } else if (refill && received.size % batch.toInt == 0) subscription.join().request(batch)
+      }
+
+      override def onError(throwable: Throwable): Unit = done.completeExceptionally(throwable)
+
+      override def onComplete(): Unit = ()
+
+    }
+
+    "emit the requested number of increasing UUIDs" in {
+      val collector = new Collector(1000, 5000)
+
+      UUID.V1.publisher().subscribe(collector)
+
+      val uuids = collector.done.get(10, TimeUnit.SECONDS)
+
+      (uuids must be equalTo uuids.sorted.distinct) and (uuids.size must be equalTo 5000)
+    }
+
+    "emit no more than requested" in {
+      val collector = new Collector(10, Int.MaxValue, refill = false)
+
+      UUID.V1.publisher().subscribe(collector)
+      collector.subscription.join().cancel()
+
+      collector.received.size must be equalTo 10
+    }
+
+    "signal an error on non-positive requests" in {
+      val collector = new Collector(0, 1)
+
+      UUID.V1.publisher().subscribe(collector)
+
+      collector.done.get(10, TimeUnit.SECONDS) must throwA[ExecutionException].like { case e =>
+        e.getCause must beAnInstanceOf[IllegalArgumentException]
+      }
+    }
+
+  }
+
+  "V1 batch constructor" should {
+
+    "create the requested number of increasing version 1 UUIDs" in {
+      val uuids = UUID.V1.nextBatch(1000).toList
+
+      (uuids.map(_.version).toSet must be equalTo Set(1)) and
+        (uuids must be equalTo uuids.sorted.distinct) and
+        (uuids.size must be equalTo 1000)
+    }
+
+    "not generate the same UUID twice with high concurrency" in {
+      val ids = new ParRange(1 to 100).flatMap(_ => UUID.V1.nextBatch(100).toList).toSet
+
+      ids.size must be equalTo 10000
+    }
+
+    "not overlap with UUIDs created one by one" in {
+      val ids = (1 to 100).flatMap(_ => UUID.V1.next :: UUID.V1.nextBatch(10).toList).toSet
+
+      ids.size must be equalTo 1100
+    }
+
+    "write the same bits it would use for the UUIDs" in {
+      val node = Node.getInstance()
+      val msbs = new Array[Long](10)
+      val lsbs = new Array[Long](10)
+
+      UUID.V1.nextBatch(node, (_: Int) => 42L, 10, msbs, lsbs)
+
+      val expected = UUID.V1.nextBatch(node, (_: Int) => 42L, 10).toList
+
+      msbs.zip(lsbs).map { case (msb, lsb) => UUID.from(msb, lsb) }.toList must be equalTo expected
+    }
+
+    "use the reserved timestamps in order" in {
+      val uuids = UUID.V1.nextBatch(Node.getInstance(), (_: Int) => 42L, 3).toList
+
+      uuids.map(_.asJava.timestamp) must be equalTo List(42L, 43L, 44L)
+    }
+
+    "fail if the arrays are too small" in {
+      UUID.V1.nextBatch(Node.getInstance(), 10, new Array[Long](10), new Array[Long](9)) must
+        throwAn[IndexOutOfBoundsException]
+    }
+
+    "reject a negative number of UUIDs and reserve no timestamps for an empty batch" in {
+      (UUID.V1.nextBatch(-1) must throwAn[IllegalArgumentException]) and
+        (UUID.V1.nextBatch(Node.getInstance(), -1, new Array[Long](1), new Array[Long](1)) must
+          throwAn[IllegalArgumentException]) and
+        (UUID.V1.nextBatch(0) must beEmpty)
+    }
+
+  }
+
+  "V1 stream" should {
+
+    "create the requested number of distinct version 1 UUIDs in parallel" in {
+      val uuids = UUID.V1.stream(Node.getInstance(), 100000).parallel().collect(Collectors.toSet[UUID]).asScala
+
+      (uuids.map(_.version).toSet must be equalTo Set(1)) and (uuids.size must be equalTo 100000)
+    }
+
+    "not overlap with UUIDs created one by one" in {
+      val uuids = (1 to 10).flatMap { _ =>
+        UUID.V1.next :: UUID.V1.stream(Node.getInstance(), 5000).collect(Collectors.toList[UUID]).asScala.toList
+      }
+
+      uuids.toSet.size must be equalTo 50010
+    }
+
+    "not overlap with UUIDs created after consuming it one at a time" in {
+      val uuids = (1 to 1000).flatMap { _ =>
+        val first = UUID.V1.stream(Node.getInstance(), 1).findFirst().get()
+
+        val iterator = UUID.V1.stream(Node.getInstance(), 3).iterator()
+        val iterated = List(iterator.next(), iterator.next(), iterator.next())
+
+        first :: UUID.V1.next :: iterated ::: List(UUID.V1.next)
+      }
+
+      uuids.toSet.size must be equalTo 6000
+    }
+
+    "reject a negative number of UUIDs" in {
+      UUID.V1.stream(Node.getInstance(), -1) must throwAn[IllegalArgumentException]
+    }
+
+  }
+
+  "V1 fill" should {
+
+    "write the bits of distinct version 1 UUIDs in parallel" in {
+      val msbs = new Array[Long](100000)
+      val lsbs = new Array[Long](100000)
+
+      UUID.V1.fill(Node.getInstance(), msbs, lsbs)
+
+      val uuids = msbs.zip(lsbs).map { case (msb, lsb) => UUID.from(msb, lsb) }
+
+      (uuids.map(_.version).toSet must be equalTo Set(1)) and (uuids.toSet.size must be equalTo 100000)
+    }
+
+  }
+
 }
@@ -16,9 +16,16 @@
 
 package memeid
 
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets.UTF_8
+
+import scala.collection.parallel.immutable.ParRange
+
+import org.specs2.ScalaCheck
 import org.specs2.mutable.Specification
 
-class V3Spec extends Specification {
+@SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel"))
+class V3Spec extends Specification with ScalaCheck {
 
   "V3 constructor" should {
 
@@ -64,4 +71,76 @@ class V3Spec extends Specification {
 
   }
 
+  "V3 constructor with a CharSequence" should {
+
+    "create the same UUIDs as hashing the UTF-8 bytes" in prop { (msb: Long, lsb: Long, name: String) =>
+      val namespace = UUID.from(msb, lsb)
+
+      UUID.V3.from(namespace, new java.lang.StringBuilder(name)) must be equalTo
+        UUID.V3.from[String](namespace, name, _.getBytes(UTF_8))
+    }
+
+    "encode long and non-ASCII names like String.getBytes" in {
+      val namespace = UUID.V4.random
+      val names     = List("\u00e9t\u00e9", "\u4e2d\u6587" * 100, "\ud83d\ude00" * 50, "\ud83d-lonely", "lonely-\ude00")
+
+      names.map(name => UUID.V3.from(namespace, name: CharSequence)) must be equalTo
+        names.map(name => UUID.V3.from[String](namespace, name, _.getBytes(UTF_8)))
+    }
+
+  }
+
+  "V3 constructor with bytes" should {
+
+    "create valid v3 UUIDs from a byte array range" in {
+      val namespace = UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8")
+      val bytes     = "--a-thing--".getBytes(UTF_8)
+
+      UUID.V3.from(namespace, bytes, 2, 7) must be equalTo (UUID.fromString("a814fa2d-efaa-32b1-8d0c-3dd50ccaa107"))
+    }
+
+    "create valid v3 UUIDs from a ByteBuffer without moving it" in {
+      val namespace = UUID.fromString("6ba7b810-9dad-11d1-80b4-00c04fd430c8")
+      val buffer    = ByteBuffer.allocateDirect(16).put("--a-thing".getBytes(UTF_8))
+      buffer.flip().position(2)
+
+      UUID.V3.from(namespace, buffer) must be equalTo (UUID.fromString("a814fa2d-efaa-32b1-8d0c-3dd50ccaa107"))
+      buffer.position() must be equalTo 2
+    }
+
+  }
+
+  "V3 generator" should {
+
+    "create the same UUIDs as the V3 constructor" in {
+      val namespace = UUID.V4.random
+      val generator = NamespacedGenerator.v3(namespace)
+
+      val names = (1 to 100).map(i => s"thing-$i")
+
+      names.map(generator.from(_)) must be equalTo names.map(UUID.V3.from(namespace, _))
+    }
+
+    "create the same UUIDs from CharSequences, byte ranges and ByteBuffers" in {
+      val namespace = UUID.V4.random
+      val generator = NamespacedGenerator.v3(namespace)
+      val bytes     = "a-thing".getBytes(UTF_8)
+      val expected  = UUID.V3.from(namespace, "a-thing")
+
+      generator.from(new java.lang.StringBuilder("a-thing")) must be equalTo expected
+      generator.from(bytes, 0, bytes.length) must be equalTo expected
+      generator.from(ByteBuffer.wrap(bytes)) must be equalTo expected
+    }
+
+    "create the same UUIDs from different threads" in {
+      val namespace = UUID.V4.random
+      val generator = NamespacedGenerator.v3(namespace)
+
+      val uuids = new ParRange(1 to 1000).map(i => generator.from(s"thing-${i % 10}")).toVector.toSet
+
+      uuids must be equalTo (0 until 10).map(i => UUID.V3.from(namespace, s"thing-$i")).toSet
+    }
+
+  }
+
 }
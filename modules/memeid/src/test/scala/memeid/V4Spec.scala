@@ -16,7 +16,11 @@
 
 package memeid
 
+import java.util.SplittableRandom
+import java.util.stream.Collectors
+
 import scala.collection.parallel.immutable.ParRange
+import scala.jdk.CollectionConverters._
 
 import org.specs2.mutable.Specification
 
@@ -49,4 +53,78 @@ class V4Spec extends Specification {
 
   }
 
+  "V4 constructor with a random source" should {
+
+    "create version 4 UUIDs with the RFC variant" in {
+      val sources = List[() => Long](() => RandomSource.threadLocal(), () => RandomSource.secure())
+
+      val uuids = sources.flatMap(source => (1 to 1000).map(_ => UUID.V4.random(() => source())))
+
+      (uuids.map(_.version).toSet must be equalTo Set(4)) and (uuids.map(_.variant).toSet must be equalTo Set(2))
+    }
+
+    "not generate the same UUID twice" in {
+      val uuids = new ParRange(1 to 1000).map(_ => UUID.V4.random(() => RandomSource.secure())).toVector.toSet
+
+      uuids.size must be equalTo 1000
+    }
+
+    "use the bits provided by the source" in {
+      val uuid = UUID.V4.random(() => 0L)
+
+      uuid must be equalTo UUID.V4.from(0, 0)
+    }
+
+  }
+
+  "V4 stream" should {
+
+    "create the requested number of distinct version 4 UUIDs in parallel" in {
+      val uuids = UUID.V4.stream(new SplittableRandom(), 100000).parallel().collect(Collectors.toList[UUID]).asScala
+
+      (uuids.map(_.version).toSet must be equalTo Set(4)) and (uuids.toSet.size must be equalTo 100000)
+    }
+
+    "create secure random UUIDs in parallel" in {
+      val uuids = UUID.V4.stream(100000).parallel().collect(Collectors.toSet[UUID])
+
+      (uuids.asScala.map(_.version).toSet must be equalTo Set(4)) and (uuids.size must be equalTo 100000)
+    }
+
+    "reject a negative number of UUIDs" in {
+      UUID.V4.stream(-1) must throwAn[IllegalArgumentException]
+    }
+
+  }
+
+  "V4 fill" should {
+
+    "write the bits of version 4 UUIDs in parallel" in {
+      val msbs = new Array[Long](100000)
+      val lsbs = new Array[Long](100000)
+
+      UUID.V4.fill(msbs, lsbs)
+
+      val uuids = msbs.zip(lsbs).map { case (msb, lsb) => UUID.from(msb, lsb) }
+
+      (uuids.map(_.version).toSet must be equalTo Set(4)) and (uuids.toSet.size must be equalTo 100000)
+    }
+
+    "split the provided random generator deterministically" in {
+      def fill(): (List[Long], List[Long]) = {
+        val msbs = new Array[Long](100000)
+        val lsbs = new Array[Long](100000)
+        UUID.V4.fill(new SplittableRandom(42), msbs, lsbs)
+        (msbs.toList, lsbs.toList)
+      }
+
+      fill() must be equalTo fill()
+    }
+
+    "reject arrays of different lengths" in {
+      UUID.V4.fill(new Array[Long](10), new Array[Long](9)) must throwAn[IllegalArgumentException]
+    }
+
+  }
+
 }
@@ -16,9 +16,18 @@
 
 package memeid
 
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets.UTF_8
+import java.util.stream.Collectors
+
+import scala.collection.parallel.immutable.ParRange
+import scala.jdk.CollectionConverters._
+
+import org.specs2.ScalaCheck
 import org.specs2.mutable.Specification
 
-class V5Spec extends Specification {
+@SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel"))
+class V5Spec extends Specification with ScalaCheck {
 
   "V5 constructor" should {
 
@@ -64,4 +73,127 @@ class V5Spec extends Specification {
 
   }
 
+  "V5 constructor with a CharSequence" should {
+
+    "create the same UUIDs as hashing the UTF-8 bytes" in prop { (msb: Long, lsb: Long, name: String) =>
+      val namespace = UUID.from(msb, lsb)
+
+      UUID.V5.from(namespace, new java.lang.StringBuilder(name)) must be equalTo
+        UUID.V5.from[String](namespace, name, _.getBytes(UTF_8))
+    }
+
+    "encode long and non-ASCII names like String.getBytes" in {
+      val namespace = UUID.V4.random
+      val names     = List("\u00e9t\u00e9", "\u4e2d\u6587" * 100, "\ud83d\ude00" * 50, "\ud83d-lonely", "lonely-\ude00")
+
+      names.map(name => UUID.V5.from(namespace, name: CharSequence)) must be equalTo
+        names.map(name => UUID.V5.from[String](namespace, name, _.getBytes(UTF_8)))
+    }
+
+  }
+
+  "V5 constructor with bytes" should {
+
+    "create valid v5 UUIDs from a byte array range" in {
+      val namespace = UUID.fromString("34c90a22-998c-4676-af7f-64533819985a")
+      val bytes     = "--a-thing--".getBytes(UTF_8)
+
+      UUID.V5.from(namespace, bytes, 2, 7) must be equalTo (UUID.fromString("053d93ac-fcaf-5517-b3cc-18850517ece3"))
+    }
+
+    "create valid v5 UUIDs from a ByteBuffer without moving it" in {
+      val namespace = UUID.fromString("34c90a22-998c-4676-af7f-64533819985a")
+      val buffer    = ByteBuffer.allocateDirect(16).put("--a-thing".getBytes(UTF_8))
+      buffer.flip().position(2)
+
+      UUID.V5.from(namespace, buffer) must be equalTo (UUID.fromString("053d93ac-fcaf-5517-b3cc-18850517ece3"))
+      buffer.position() must be equalTo 2
+    }
+
+    "not be affected by a previous call failing on the same thread" in {
+      val namespace = UUID.fromString("34c90a22-998c-4676-af7f-64533819985a")
+
+      UUID.V5.from(namespace, new Array[Byte](4), 2, 7) must throwAn[IndexOutOfBoundsException]
+      UUID.V5.from(namespace, null: CharSequence) must throwA[NullPointerException] // scalafix:ok
+      UUID.V5.from[String](namespace, "a-thing", _ => throw new IllegalStateException()) must
+        throwAn[IllegalStateException]
+
+      UUID.V5.from(namespace, "a-thing") must be equalTo (UUID.fromString("053d93ac-fcaf-5517-b3cc-18850517ece3"))
+    }
+
+  }
+
+  "V5 generator" should {
+
+    "create valid v5 UUIDs" in {
+      val generator = NamespacedGenerator.v5(UUID.fromString("34c90a22-998c-4676-af7f-64533819985a"))
+
+      generator.from("a-thing") must be equalTo (UUID.fromString("053d93ac-fcaf-5517-b3cc-18850517ece3"))
+    }
+
+    "not be affected by a failing name conversion" in {
+      val generator = NamespacedGenerator.v5(UUID.fromString("34c90a22-998c-4676-af7f-64533819985a"))
+
+      generator.from[String]("a-thing", _ => throw new IllegalStateException()) must throwAn[IllegalStateException]
+
+      generator.from("a-thing") must be equalTo (UUID.fromString("053d93ac-fcaf-5517-b3cc-18850517ece3"))
+    }
+
+    "create the same UUIDs as the V5 constructor" in {
+      val namespace = UUID.V4.random
+      val generator = NamespacedGenerator.v5(namespace)
+
+      val names = (1 to 100).map(i => s"thing-$i")
+
+      names.map(generator.from(_)) must be equalTo names.map(UUID.V5.from(namespace, _))
+    }
+
+    "create the same UUIDs from CharSequences, byte ranges and ByteBuffers" in {
+      val namespace = UUID.V4.random
+      val generator = NamespacedGenerator.v5(namespace)
+      val bytes     = "a-thing".getBytes(UTF_8)
+      val expected  = UUID.V5.from(namespace, "a-thing")
+
+      generator.from(new java.lang.StringBuilder("a-thing")) must be equalTo expected
+      generator.from(bytes, 0, bytes.length) must be equalTo expected
+      generator.from(ByteBuffer.wrap(bytes)) must be equalTo expected
+    }
+
+    "create the same UUIDs from different threads" in {
+      val namespace = UUID.V4.random
+      val generator = NamespacedGenerator.v5(namespace)
+
+      val uuids = new ParRange(1 to 1000).map(i => generator.from(s"thing-${i % 10}")).toVector.toSet
+
+      uuids must be equalTo (0 until 10).map(i => UUID.V5.from(namespace, s"thing-$i")).toSet
+    }
+
+  }
+
+  "V5 stream" should {
+
+    "create the UUIDs of the names in order" in {
+      val namespace = UUID.V4.random
+      val names     = (1 to 10000).map(i => s"thing-$i")
+
+      val uuids = UUID.V5.stream(namespace, names.asJava.parallelStream()).collect(Collectors.toList[UUID])
+
+      uuids.asScala.toList must be equalTo names.toList.map(UUID.V5.from(namespace, _))
+    }
+
+    "convert the names with the provided function" in {
+      val namespace = UUID.V4.random
+      val names     = (1 to 100).toList
+
+      val uuids = UUID.V5
+        .stream[Integer](namespace, names.map(Integer.valueOf).asJava.stream(), _.toString.getBytes(UTF_8))
+        .collect(Collectors.toList[UUID])
+        .asScala
+        .toList
+
+      uuids must be equalTo names.map(i => UUID.V5.from(namespace, s"$i"))
+    }
+
+  }
+
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid
+
+import scala.collection.parallel.immutable.ParRange
+
+import org.scalacheck.Arbitrary
+import org.scalacheck.Arbitrary.arbitrary
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+@SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel"))
+class V6Spec extends Specification with ScalaCheck {
+
+  // Test vector from RFC-9562, appendix A
+  val v1 = UUID.fromString("c232ab00-9414-11ec-b3c8-9f6bdeced846")
+
+  val v6 = UUID.fromString("1ec9414c-232a-6b00-b3c8-9f6bdeced846")
+
+  implicit val V1ArbitraryInstance: Arbitrary[UUID] = Arbitrary {
+    for {
+      timestamp     <- arbitrary[Long]
+      clockSequence <- arbitrary[Short]
+      id            <- arbitrary[Long]
+    } yield UUID.V1.next(new Node(clockSequence, id), () => timestamp)
+  }
+
+  "V6 constructor" should {
+
+    "create version 6 UUIDs" in {
+      val ids = new ParRange(1 to 10).map(_ => UUID.V6.next.version).toVector.toSet
+
+      ids must contain(exactly(6))
+    }
+
+    "create increasing UUIDs, also in their string representation" in {
+      val uuids = List.fill(1000)(UUID.V6.next)
+
+      (uuids must be equalTo uuids.sorted.distinct) and
+        (uuids.map(_.toString) must be equalTo uuids.map(_.toString).sorted.distinct)
+    }
+
+    "not generate the same UUID twice with high concurrency" in {
+      val ids = new ParRange(1 to 999).map(_ => UUID.V6.next).toSet
+
+      ids.size must be equalTo 999
+    }
+
+    "use the same timestamp and node fields as V1" in {
+      val node = Node.getInstance
+      val uuid = UUID.V6.next(node, () => 0x1ec9414c232ab00L)
+
+      (uuid.getMostSignificantBits must be equalTo v6.getMostSignificantBits) and
+        (uuid.asV6.get.timestamp must be equalTo 0x1ec9414c232ab00L) and
+        (uuid must be equalTo UUID.V1.next(node, () => 0x1ec9414c232ab00L).asV1.get.toV6)
+    }
+
+  }
+
+  "V1 <-> V6 conversion" should {
+
+    "match the RFC-9562 test vector" in {
+      (v1.asV1.get.toV6 must be equalTo v6) and (v6.asV6.get.toV1 must be equalTo v1)
+    }
+
+    "be lossless" in prop { (uuid: UUID) =>
+      val converted = uuid.asV1.get.toV6
+
+      (converted.version must be equalTo 6) and
+        (converted.getLeastSignificantBits must be equalTo uuid.getLeastSignificantBits) and
+        (converted.asV6.get.toV1 must be equalTo uuid)
+    }
+
+    "order V6 UUIDs as their V1 counterparts" in prop { (a: UUID, b: UUID) =>
+      a.asV1.get.toV6.compareTo(b.asV1.get.toV6).sign must be equalTo a.compareTo(b).sign
+    }
+
+  }
+
+  "V1 <-> V6 bulk conversion" should {
+
+    "convert only the UUIDs with the matching version" in {
+      val v4   = UUID.V4.random
+      val msbs = Array(v1, v6, v4).map(_.getMostSignificantBits)
+      val out  = new Array[Long](3)
+
+      UUID.V6.fromV1(msbs, 0, out, 0, 3)
+
+      val toV6 = out.toList
+
+      UUID.V6.toV1(msbs, 0, out, 0, 3)
+
+      (toV6 must be equalTo List(v6, v6, v4).map(_.getMostSignificantBits)) and
+        (out.toList must be equalTo List(v1, v1, v4).map(_.getMostSignificantBits))
+    }
+
+    "convert in place and round-trip" in prop { (uuids: List[UUID]) =>
+      val msbs = uuids.map(_.getMostSignificantBits).toArray
+
+      UUID.V6.fromV1(msbs, 0, msbs, 0, msbs.length)
+
+      val singles = msbs.toList must be equalTo uuids.map(_.asV1.get.toV6.getMostSignificantBits)
+
+      UUID.V6.toV1(msbs, 0, msbs, 0, msbs.length)
+
+      singles and (msbs.toList must be equalTo uuids.map(_.getMostSignificantBits))
+    }
+
+    "respect the provided offsets" in {
+      val msbs = Array(0L, v1.getMostSignificantBits, 0L)
+      val out  = Array(-1L, -1L, -1L, -1L)
+
+      UUID.V6.fromV1(msbs, 1, out, 2, 2)
+
+      out.toList must be equalTo List(-1L, -1L, v6.getMostSignificantBits, 0L)
+    }
+
+    "fail if any range is out of bounds" in {
+      (UUID.V6.fromV1(new Array[Long](2), 1, new Array[Long](2), 0, 2) must throwAn[IndexOutOfBoundsException]) and
+        (UUID.V6.toV1(new Array[Long](2), 0, new Array[Long](2), 1, 2) must throwAn[IndexOutOfBoundsException])
+    }
+
+  }
+
+}
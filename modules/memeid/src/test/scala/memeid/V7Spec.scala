@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid
+
+import scala.collection.parallel.immutable.ParRange
+
+import org.specs2.mutable.Specification
+
+@SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel", "scalafix:DisableSyntax.asInstanceOf"))
+class V7Spec extends Specification {
+
+  "V7 constructor" should {
+
+    "create version 7 UUIDs with the RFC-4122 variant" in {
+      val uuids = new ParRange(1 to 10).map(_ => UUID.V7.next).toVector
+
+      (uuids.map(_.version).toSet must be equalTo Set(7)) and
+        (uuids.map(_.variant).toSet must be equalTo Set(2))
+    }
+
+    "store the current Unix milliseconds" in {
+      val before = System.currentTimeMillis()
+      val uuid   = UUID.V7.next.asInstanceOf[UUID.V7]
+      val after  = System.currentTimeMillis()
+
+      uuid.unixMillis must be between (before, after + 1)
+    }
+
+    "create strictly increasing UUIDs, also in their string representation" in {
+      val uuids = List.fill(10000)(UUID.V7.next)
+
+      (uuids must be equalTo uuids.sorted.distinct) and
+        (uuids.map(_.toString) must be equalTo uuids.map(_.toString).sorted.distinct)
+    }
+
+    "not generate the same UUID twice with high concurrency" in {
+      val ids = new ParRange(1 to 999).map(_ => UUID.V7.next).toSet
+
+      ids.size must be equalTo 999
+    }
+
+    "lay out the provided stamp and random bits" in {
+      val uuid = UUID.V7.next(() => 0x0123456789abcdefL, () => -1L).asInstanceOf[UUID.V7]
+
+      ((uuid: UUID) must be equalTo UUID.fromString("12345678-9abc-7def-bfff-ffffffffffff")) and
+        (uuid.unixMillis must be equalTo 0x123456789abcL) and
+        (uuid.counter must be equalTo 0xdef)
+    }
+
+    "overflow the counter into the milliseconds" in {
+      val uuid1 = UUID.V7.next(() => 0xfffL, () => 0L).asInstanceOf[UUID.V7]
+      val uuid2 = UUID.V7.next(() => 0x1000L, () => 0L).asInstanceOf[UUID.V7]
+
+      (uuid1.unixMillis must be equalTo 0L) and (uuid2.unixMillis must be equalTo 1L) and
+        (uuid2.counter must be equalTo 0) and (uuid1 must be lessThan uuid2)
+    }
+
+  }
+
+  "V7 batch constructor" should {
+
+    "create the requested number of increasing version 7 UUIDs" in {
+      val uuids = UUID.V7.nextBatch(5000).toList
+
+      (uuids.map(_.version).toSet must be equalTo Set(7)) and
+        (uuids must be equalTo uuids.sorted.distinct) and
+        (uuids.size must be equalTo 5000)
+    }
+
+    "not overlap with other batches or single UUIDs" in {
+      val uuids = new ParRange(1 to 100).flatMap(i => if (i % 2 == 0) UUID.V7.nextBatch(100).toList else List(UUID.V7.next))
+
+      uuids.toSet.size must be equalTo uuids.size
+    }
+
+    "write the same bits as the array-returning variant" in {
+      val msbs = new Array[Long](3)
+      val lsbs = new Array[Long](3)
+
+      UUID.V7.nextBatch((_: Int) => 42L, () => 7L, 3, msbs, lsbs)
+
+      (0 until 3).map(i => UUID.from(msbs(i), lsbs(i))).toList must be equalTo
+        UUID.V7.nextBatch((_: Int) => 42L, () => 7L, 3).toList
+    }
+
+    "fail if the arrays are too short" in {
+      UUID.V7.nextBatch(2, new Array[Long](2), new Array[Long](1)) must throwAn[IndexOutOfBoundsException]
+    }
+
+    "reject a negative number of UUIDs" in {
+      (UUID.V7.nextBatch(-1) must throwAn[IllegalArgumentException]) and
+        (UUID.V7.nextBatch(-1, new Array[Long](1), new Array[Long](1)) must throwAn[IllegalArgumentException])
+    }
+
+  }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection
+
+import java.lang.management.ManagementFactory
+
+import scala.annotation.tailrec
+
+/** Measures the bytes allocated by the current thread, as an upper bound of the memory retained by what it builds. */
+object Footprint {
+
+  def allocatedBy[A](build: => A): Option[(A, Long)] =
+    ManagementFactory.getThreadMXBean match {
+      case bean: com.sun.management.ThreadMXBean =>
+        val thread = Thread.currentThread().getId
+        val before = bean.getThreadAllocatedBytes(thread)
+        val result = build
+        Some((result, bean.getThreadAllocatedBytes(thread) - before))
+      case _ => None
+    }
+
+  /** Runs `f` for every index below `n` without boxing them, so loops don't add to the measured allocations. */
+  def times(n: Int)(f: Int => Unit): Unit = {
+    @tailrec
+    def loop(i: Int): Unit =
+      if (i < n) {
+        f(i)
+        loop(i + 1)
+      }
+
+    loop(0)
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection
+
+import memeid.UUID
+import org.scalacheck.Arbitrary
+import org.scalacheck.Gen
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDColumnSpec extends Specification with ScalaCheck {
+
+  /** UUIDs of every version, sharing most significant bits often so that ties are broken by the least significant. */
+  val uuids: Gen[UUID] = for {
+    msb <- Gen.oneOf(Gen.oneOf(0x0L, 0x1000L, -1L, Long.MinValue), Arbitrary.arbitrary[Long])
+    lsb <- Gen.oneOf(Gen.oneOf(0L, 1L, -1L), Arbitrary.arbitrary[Long])
+  } yield UUID.from(msb, lsb)
+
+  implicit val UUIDArbitraryInstance: Arbitrary[UUID] = Arbitrary {
+    Gen.oneOf(uuids, Gen.oneOf(UUID.V1.next, UUID.V4.random, UUID.V6.next, UUID.V7.next))
+  }
+
+  def column(uuids: Seq[UUID]): UUIDColumn = {
+    val column = new UUIDColumn(0)
+    uuids.foreach(column.append)
+    column
+  }
+
+  def elements(column: UUIDColumn): List[UUID] = (0 until column.size).map(column.get).toList
+
+  "UUIDColumn" should {
+
+    "keep appended UUIDs in order" in prop { (uuids: List[UUID]) =>
+      val c = column(uuids)
+
+      (elements(c) must be equalTo uuids) and (c.capacity must be greaterThanOrEqualTo uuids.size)
+    }
+
+    "load and copy UUIDs in bulk" in prop { (uuids: List[UUID]) =>
+      val msbs = uuids.map(_.getMostSignificantBits).toArray
+      val lsbs = uuids.map(_.getLeastSignificantBits).toArray
+      val c    = new UUIDColumn()
+
+      c.append(UUID.NIL)
+      c.appendAll(msbs, lsbs, 0, msbs.length)
+
+      val msbsOut = new Array[Long](msbs.length)
+      val lsbsOut = new Array[Long](lsbs.length)
+
+      c.copyTo(1, msbsOut, lsbsOut, 0, msbs.length)
+
+      (elements(c) must be equalTo UUID.NIL :: uuids) and
+        (msbsOut.toList must be equalTo msbs.toList) and (lsbsOut.toList must be equalTo lsbs.toList)
+    }
+
+    "sort UUIDs in the order of compareTo" in prop { (uuids: List[UUID]) =>
+      val c = column(uuids)
+
+      c.sort()
+
+      elements(c) must be equalTo uuids.sorted
+    }
+
+    "sort large columns with many ties" in {
+      val random = List.fill(50000)(UUID.V4.random) ++ UUID.V1.nextBatch(20000) ++ UUID.V7.nextBatch(20000)
+      val ties   = List.fill(20000)(UUID.from(0x1000L, 0L))
+      val c      = column(scala.util.Random.shuffle(random ++ ties))
+
+      c.sort()
+
+      elements(c) must be equalTo (random ++ ties).sorted
+    }
+
+    "find UUIDs with a binary search" in prop { (uuids: List[UUID], others: List[UUID]) =>
+      val c = column(uuids)
+
+      c.sort()
+
+      val sorted = elements(c).toArray
+
+      (uuids.map(uuid => sorted(c.binarySearch(uuid))) must be equalTo uuids) and
+        (others.map(uuid => c.contains(uuid.getMostSignificantBits, uuid.getLeastSignificantBits)) must be equalTo
+          others.map(uuids.contains)) and
+        (others.filterNot(uuids.contains).map(c.binarySearch) must be equalTo
+          others.filterNot(uuids.contains).map(uuid => -sorted.count(_.compareTo(uuid) < 0) - 1))
+    }
+
+    "find the first of several equal UUIDs" in {
+      val uuid = UUID.V4.random
+      val c    = column(List(UUID.V7.next, uuid, UUID.V1.next, uuid, uuid))
+
+      c.sort()
+
+      c.binarySearch(uuid) must be equalTo 1
+    }
+
+    "fail on indexes out of bounds" in {
+      val c = column(List(UUID.V4.random))
+
+      (c.get(1) must throwAn[IndexOutOfBoundsException]) and (c.msb(-1) must throwAn[IndexOutOfBoundsException]) and
+        (c.appendAll(new Array[Long](1), new Array[Long](2), 0, 2) must throwAn[IndexOutOfBoundsException])
+    }
+
+    "reject invalid capacities" in {
+      (new UUIDColumn(-1) must throwAn[IllegalArgumentException]) and
+        (new UUIDColumn(UUIDColumn.MAX_CAPACITY + 1) must throwAn[IllegalArgumentException])
+    }
+
+  }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid.collection
+
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.charset.StandardCharsets
+import java.nio.file.Files
+import java.nio.file.Path
+
+import scala.jdk.CollectionConverters._
+
+import memeid.UUID
+import memeid.collection.UUIDExternalSort.Format
+import org.scalacheck.Arbitrary
+import org.scalacheck.Gen
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDExternalSortSpec extends Specification with ScalaCheck {
+
+  implicit val UUIDArbitraryInstance: Arbitrary[UUID] = Arbitrary {
+    Gen.oneOf(
+      Gen.zip(Arbitrary.arbitrary[Long], Arbitrary.arbitrary[Long]).map { case (msb, lsb) => UUID.from(msb, lsb) },
+      Gen.delay(Gen.const(UUID.V4.random)),
+      Gen.delay(Gen.const(UUID.V1.next))
+    )
+  }
+
+  def tempFile(): Path = {
+    val path = Files.createTempFile("uuids", ".sort")
+    path.toFile.deleteOnExit()
+    path
+  }
+
+  def tempDirectory(): Path = {
+    val path = Files.createTempDirectory("runs")
+    path.toFile.deleteOnExit()
+    path
+  }
+
+  def isEmpty(directory: Path): Boolean = Files.list(directory).iterator.asScala.isEmpty
+
+  @SuppressWarnings(Array("scalafix:Disable.toString"))
+  def text(uuids: Seq[UUID]): Path =
+    Files.write(tempFile(), uuids.map(_.toString).asJava, StandardCharsets.US_ASCII)
+
+  def binary(uuids: Seq[UUID]): Path = {
+    val buffer = ByteBuffer.allocate(16 * uuids.size)
+    uuids.foreach(uuid => buffer.putLong(uuid.getMostSignificantBits).putLong(uuid.getLeastSignificantBits))
+    Files.write(tempFile(), buffer.array())
+  }
+
+  def readText(path: Path): List[UUID] =
+    Files.readAllLines(path, StandardCharsets.US_ASCII).asScala.map(UUID.fromString).toList
+
+  def readBinary(path: Path): List[UUID] = {
+    val buffer = ByteBuffer.wrap(Files.readAllBytes(path))
+    List.fill(buffer.remaining / 16)(UUID.from(buffer.getLong, buffer.getLong))
+  }
+
+  "UUIDExternalSort" should {
+
+    "sort text files, removing duplicates" in prop { (uuids: List[UUID], runSize: Byte) =>
+      val output = tempFile()
+      val stats  = new UUIDExternalSort(runSize.toInt.abs + 1, tempDirectory()).sort(
+        text(uuids ++ uuids.take(5)), Format.TEXT, output, Format.TEXT
+      )
+
+      (readText(output) must be equalTo uuids.distinct.sorted) and
+        (stats.read must be equalTo uuids.size.toLong + uuids.take(5).size) and
+        (stats.written must be equalTo uuids.distinct.size.toLong)
+    }
+
+    "sort binary files with more runs than can be merged at once" in {
+      val uuids  = List.fill(2000)(UUID.V4.random) ++ UUID.V1.nextBatch(500) ++ List.fill(500)(UUID.from(0x1000L, 0L))
+      val temp   = tempDirectory()
+      val output = tempFile()
+      val stats  = new UUIDExternalSort(10, temp).sort(binary(uuids), Format.BINARY, output, Format.BINARY)
+
+      (readBinary(output) must be equalTo uuids.distinct.sorted) and (stats.runs must be equalTo 300) and
+        (stats.tempBytesWritten must be greaterThan stats.peakTempBytes) and
+        (stats.peakTempBytes must be greaterThan 0L) and (isEmpty(temp) must beTrue)
+    }
+
+    "write index files" in prop { (uuids: List[UUID]) =>
+      val output = tempFile()
+
+      new UUIDExternalSort(16, tempDirectory()).sort(binary(uuids), Format.BINARY, output, Format.INDEX)
+
+      val index = UUIDIndex.open(output)
+
+      try {
+        ((0L until index.size).map(i => UUID.from(index.msb(i), index.lsb(i))).toList must be equalTo
+          uuids.distinct.sorted)
+      } finally index.close()
+    }
+
+    "sort small files without temporary files" in {
+      val uuids  = List.fill(100)(UUID.V4.random)
+      val output = tempFile()
+      val stats  = new UUIDExternalSort().sort(text(uuids), Format.TEXT, output, Format.BINARY)
+
+      (readBinary(output) must be equalTo uuids.sorted) and (stats.runs must be equalTo 1) and
+        (stats.tempBytesWritten must be equalTo 0L)
+    }
+
+    "accept blank lines, CRLF line ends and upper case" in {
+      val uuids = List.fill(3)(UUID.V4.random)
+      val input = tempFile()
+
+      Files.write(
+        input,
+        s"\n${uuids(0)}\r\n\r\n${uuids(1).toString.toUpperCase}\n${uuids(2)}".getBytes(StandardCharsets.US_ASCII)
+      )
+
+      val output = tempFile()
+
+      new UUIDExternalSort(2, tempDirectory()).sort(input, Format.TEXT, output, Format.TEXT)
+
+      readText(output) must be equalTo uuids.sorted
+    }
+
+    "reject malformed inputs, deleting temporary files" in {
+      val temp   = tempDirectory()
+      val sort   = new UUIDExternalSort(2, temp)
+      val input  = text(List.fill(5)(UUID.V4.random))
+      val output = tempFile()
+
+      Files.write(input, "not-a-uuid\n".getBytes(StandardCharsets.US_ASCII), java.nio.file.StandardOpenOption.APPEND)
+
+      val truncated = binary(List.fill(5)(UUID.V4.random))
+      Files.write(truncated, Array[Byte](1, 2, 3), java.nio.file.StandardOpenOption.APPEND)
+
+      (sort.sort(input, Format.TEXT, output, Format.TEXT) must throwAn[IOException]) and
+        (sort.sort(truncated, Format.BINARY, output, Format.TEXT) must throwAn[IOException]) and
+        (sort.sort(input, Format.INDEX, output, Format.TEXT) must throwAn[IllegalArgumentException]) and
+        (isEmpty(temp) must beTrue)
+    }
+
+  }
+
+}
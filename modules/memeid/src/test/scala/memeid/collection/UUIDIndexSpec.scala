@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection
+
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.Path
+
+import memeid.UUID
+import org.scalacheck.Arbitrary
+import org.scalacheck.Gen
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDIndexSpec extends Specification with ScalaCheck {
+
+  implicit val UUIDArbitraryInstance: Arbitrary[UUID] = Arbitrary {
+    Gen.oneOf(
+      Gen.zip(Arbitrary.arbitrary[Long], Arbitrary.arbitrary[Long]).map { case (msb, lsb) => UUID.from(msb, lsb) },
+      Gen.delay(Gen.const(UUID.V4.random)),
+      Gen.delay(Gen.const(UUID.V1.next))
+    )
+  }
+
+  def tempFile(): Path = {
+    val path = Files.createTempFile("uuids", ".idx")
+    path.toFile.deleteOnExit()
+    path
+  }
+
+  def index(uuids: Seq[UUID]): (Path, UUIDIndex) = {
+    val path   = tempFile()
+    val column = new UUIDColumn(uuids.size)
+
+    uuids.foreach(column.append)
+    UUIDIndexWriter.write(path, column)
+
+    (path, UUIDIndex.open(path))
+  }
+
+  def elements(index: UUIDIndex): List[UUID] = (0L until index.size).map(i => UUID.from(index.msb(i), index.lsb(i))).toList
+
+  "UUIDIndex" should {
+
+    "contain the written UUIDs, sorted and without duplicates" in prop { (uuids: List[UUID]) =>
+      val (path, idx) = index(uuids ++ uuids.take(3))
+
+      try {
+        (elements(idx) must be equalTo uuids.distinct.sorted) and
+          (Files.size(path) must be equalTo 32784L + 16L * uuids.distinct.size)
+      } finally idx.close()
+    }
+
+    "answer membership queries" in prop { (uuids: List[UUID], others: List[UUID]) =>
+      val (_, idx) = index(uuids)
+
+      try {
+        (uuids.forall(idx.contains) must beTrue) and
+          (others.map(idx.contains) must be equalTo others.map(uuids.contains))
+      } finally idx.close()
+    }
+
+    "answer range queries" in prop { (uuids: List[UUID], from: UUID, to: UUID) =>
+      val (_, idx) = index(uuids)
+      val builder  = List.newBuilder[UUID]
+
+      try {
+        idx.forEachInRange(from, to, (msb: Long, lsb: Long) => { builder += UUID.from(msb, lsb); () })
+
+        builder.result() must be equalTo uuids.distinct.sorted.filter(u => u.compareTo(from) >= 0 && u.compareTo(to) < 0)
+      } finally idx.close()
+    }
+
+    "be empty if nothing was written" in {
+      val (_, idx) = index(Nil)
+
+      try {
+        (idx.size must be equalTo 0L) and (idx.contains(UUID.NIL) must beFalse) and
+          (idx.lowerBound(0L, 0L) must be equalTo 0L)
+      } finally idx.close()
+    }
+
+    "reject UUIDs written out of order, deleting the incomplete index" in {
+      val path   = tempFile()
+      val writer = new UUIDIndexWriter(path)
+
+      try {
+        writer.write(UUID.V4.random)
+        writer.write(UUID.V1.next) must throwAn[IllegalArgumentException]
+      } finally writer.close()
+
+      Files.exists(path) must beFalse
+    }
+
+    "delete the index when aborted" in {
+      val path   = tempFile()
+      val writer = new UUIDIndexWriter(path)
+
+      writer.write(UUID.V4.random)
+      writer.abort()
+      writer.close()
+
+      Files.exists(path) must beFalse
+    }
+
+    "reject files that are not indexes" in {
+      val path = tempFile()
+
+      Files.write(path, "not an index".getBytes("UTF-8"))
+
+      UUIDIndex.open(path) must throwAn[IOException]
+    }
+
+    "reject truncated indexes" in {
+      val (path, idx) = index(List.fill(10)(UUID.V4.random))
+      idx.close()
+
+      val bytes = Files.readAllBytes(path)
+      Files.write(path, bytes.take(bytes.length - 16))
+
+      UUIDIndex.open(path) must throwAn[IOException]
+    }
+
+  }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection
+
+import memeid.UUID
+import org.scalacheck.Arbitrary
+import org.scalacheck.Gen
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDLongMapSpec extends Specification with ScalaCheck {
+
+  /** A small pool, including NIL, so operations keep hitting the same UUIDs. */
+  val pool: Vector[UUID] = UUID.NIL +: Vector.fill(99)(UUID.V4.random)
+
+  /** Puts the value for some UUID, or removes it if there is no value. */
+  implicit val OperationArbitraryInstance: Arbitrary[(UUID, Option[Long])] = Arbitrary {
+    Gen.zip(Gen.oneOf(pool), Gen.option(Arbitrary.arbitrary[Long]))
+  }
+
+  def entries(map: UUIDLongMap): List[(UUID, Long)] = {
+    val builder = List.newBuilder[(UUID, Long)]
+    map.forEach((msb: Long, lsb: Long, value: Long) => { builder += (UUID.from(msb, lsb) -> value); () })
+    builder.result()
+  }
+
+  "UUIDLongMap" should {
+
+    "behave like an immutable Map for puts and removals" in prop { (ops: List[(UUID, Option[Long])]) =>
+      val map = new UUIDLongMap()
+      val models = ops.scanLeft(Map.empty[UUID, Long]) {
+        case (model, (uuid, Some(value))) => model + (uuid -> value)
+        case (model, (uuid, None))        => model - uuid
+      }
+
+      val expected = ops.zip(models).map {
+        case ((uuid, Some(_)), model) => model.getOrElse(uuid, 0L)
+        case ((uuid, None), model)    => if (model.contains(uuid)) 1L else 0L
+      }
+      val actual = ops.map {
+        case (uuid, Some(value)) => map.put(uuid, value)
+        case (uuid, None)        => if (map.remove(uuid)) 1L else 0L
+      }
+      val model = models.lastOption.getOrElse(Map.empty[UUID, Long])
+
+      (actual must be equalTo expected) and
+        (map.size must be equalTo model.size) and
+        (entries(map).toMap must be equalTo model) and
+        (pool.map(map.get) must be equalTo pool.map(model.getOrElse(_, 0L))) and
+        (pool.map(map.containsKey) must be equalTo pool.map(model.contains))
+    }
+
+    "count occurrences with addTo" in {
+      val uuids = List.fill(5)(UUID.V4.random) :+ UUID.NIL
+      val map   = new UUIDLongMap()
+
+      (1 to 3).foreach(_ => uuids.foreach(uuid => map.addTo(uuid.getMostSignificantBits, uuid.getLeastSignificantBits, 2L)))
+
+      (map.size must be equalTo 6) and (uuids.map(map.get) must be equalTo List.fill(6)(6L))
+    }
+
+    "return the provided default for absent keys" in {
+      val map = new UUIDLongMap()
+
+      (map.getOrDefault(0L, 0L, -1L) must be equalTo -1L) and (map.getOrDefault(1L, 2L, -1L) must be equalTo -1L)
+    }
+
+    "keep values when growing past its expected size" in {
+      val uuids = List.fill(10000)(UUID.V1.next)
+      val map   = new UUIDLongMap(10)
+
+      uuids.zipWithIndex.foreach { case (uuid, i) => map.put(uuid, i.toLong) }
+
+      (map.size must be equalTo 10000) and (uuids.map(map.get) must be equalTo uuids.indices.map(_.toLong).toList)
+    }
+
+  }
+
+}
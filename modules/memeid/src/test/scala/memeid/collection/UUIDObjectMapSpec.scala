@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection
+
+import memeid.UUID
+import org.scalacheck.Arbitrary
+import org.scalacheck.Gen
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDObjectMapSpec extends Specification with ScalaCheck {
+
+  /** A small pool, including NIL, so operations keep hitting the same UUIDs. */
+  val pool: Vector[UUID] = UUID.NIL +: Vector.fill(99)(UUID.V4.random)
+
+  /** Puts the string for some UUID, or removes it if there is no string. */
+  implicit val OperationArbitraryInstance: Arbitrary[(UUID, Option[String])] = Arbitrary {
+    Gen.zip(Gen.oneOf(pool), Gen.option(Gen.alphaStr))
+  }
+
+  def entries[V](map: UUIDObjectMap[V]): List[(UUID, V)] = {
+    val builder = List.newBuilder[(UUID, V)]
+    map.forEach((msb: Long, lsb: Long, value: V) => { builder += (UUID.from(msb, lsb) -> value); () })
+    builder.result()
+  }
+
+  "UUIDObjectMap" should {
+
+    "behave like an immutable Map for puts and removals" in prop { (ops: List[(UUID, Option[String])]) =>
+      val map = new UUIDObjectMap[String]()
+      val models = ops.scanLeft(Map.empty[UUID, String]) {
+        case (model, (uuid, Some(value))) => model + (uuid -> value)
+        case (model, (uuid, None))        => model - uuid
+      }
+
+      val expected = ops.zip(models).map { case ((uuid, _), model) => model.get(uuid) }
+      val actual = ops.map {
+        case (uuid, Some(value)) => Option(map.put(uuid, value))
+        case (uuid, None)        => Option(map.remove(uuid))
+      }
+      val model = models.lastOption.getOrElse(Map.empty[UUID, String])
+
+      (actual must be equalTo expected) and
+        (map.size must be equalTo model.size) and
+        (entries(map).toMap must be equalTo model) and
+        (pool.map(uuid => Option(map.get(uuid))) must be equalTo pool.map(model.get)) and
+        (pool.map(map.containsKey) must be equalTo pool.map(model.contains))
+    }
+
+    "keep values when growing past its expected size" in {
+      val uuids = List.fill(10000)(UUID.V1.next)
+      val map   = new UUIDObjectMap[UUID](10)
+
+      uuids.foreach(uuid => map.put(uuid, uuid))
+
+      (map.size must be equalTo 10000) and (uuids.map(map.get) must be equalTo uuids)
+    }
+
+    "tell null values apart from absent keys" in {
+      val uuid = UUID.V4.random
+      val map  = new UUIDObjectMap[String]()
+
+      map.put(uuid.getMostSignificantBits, uuid.getLeastSignificantBits, Option.empty[String].orNull)
+
+      (map.containsKey(uuid) must beTrue) and (map.size must be equalTo 1) and
+        (map.containsKey(UUID.V4.random) must beFalse)
+    }
+
+    "be empty after clear" in {
+      val map = new UUIDObjectMap[String]()
+
+      map.put(UUID.NIL, "nil")
+      map.put(UUID.V4.random, "random")
+      map.clear()
+
+      (map.isEmpty must beTrue) and (entries(map) must beEmpty) and (Option(map.get(UUID.NIL)) must beNone)
+    }
+
+    "take less than half the memory of a HashMap" in {
+      val n     = 150000
+      val msbs  = Array.fill(n)(UUID.V4.random.getMostSignificantBits)
+      val lsbs  = Array.fill(n)(UUID.V4.random.getLeastSignificantBits)
+      val value = "value"
+
+      val footprints = for {
+        (map, mapBytes) <- Footprint.allocatedBy {
+                             val map = new UUIDObjectMap[String](n)
+                             Footprint.times(n)(i => map.put(msbs(i), lsbs(i), value))
+                             map
+                           }
+        (hashMap, hashMapBytes) <- Footprint.allocatedBy {
+                                     val hashMap = new java.util.HashMap[UUID, String](n * 4 / 3 + 1)
+                                     Footprint.times(n)(i => hashMap.put(UUID.from(msbs(i), lsbs(i)), value))
+                                     hashMap
+                                   }
+      } yield (map.size, hashMap.size, mapBytes, hashMapBytes)
+
+      footprints must beSome[(Int, Int, Long, Long)].like { case (size, hashMapSize, mapBytes, hashMapBytes) =>
+        (size must be equalTo n) and (hashMapSize must be equalTo n) and (mapBytes * 2 must be lessThan hashMapBytes)
+      }
+    }
+
+  }
+
+}
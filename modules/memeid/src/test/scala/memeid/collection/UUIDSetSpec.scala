@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid.collection
+
+import memeid.UUID
+import org.scalacheck.Arbitrary
+import org.scalacheck.Gen
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDSetSpec extends Specification with ScalaCheck {
+
+  /** A small pool, including NIL, so operations keep hitting the same UUIDs. */
+  val pool: Vector[UUID] = UUID.NIL +: Vector.fill(99)(UUID.V4.random)
+
+  implicit val OperationArbitraryInstance: Arbitrary[(Boolean, UUID)] = Arbitrary {
+    Gen.zip(Gen.oneOf(true, false), Gen.oneOf(pool))
+  }
+
+  def elements(set: UUIDSet): List[UUID] = {
+    val builder = List.newBuilder[UUID]
+    set.forEach((msb: Long, lsb: Long) => { builder += UUID.from(msb, lsb); () })
+    builder.result()
+  }
+
+  "UUIDSet" should {
+
+    "behave like an immutable Set for additions and removals" in prop { (ops: List[(Boolean, UUID)]) =>
+      val set    = new UUIDSet()
+      val models = ops.scanLeft(Set.empty[UUID]) { case (model, (add, uuid)) => if (add) model + uuid else model - uuid }
+
+      val expected = ops.zip(models).map { case ((add, uuid), model) => add ^ model.contains(uuid) }
+      val actual   = ops.map { case (add, uuid) => if (add) set.add(uuid) else set.remove(uuid) }
+      val model    = models.lastOption.getOrElse(Set.empty[UUID])
+
+      (actual must be equalTo expected) and
+        (set.size must be equalTo model.size) and
+        (elements(set).sorted must be equalTo model.toList.sorted) and
+        (pool.map(set.contains) must be equalTo pool.map(model.contains))
+    }
+
+    "grow past its expected size" in {
+      val uuids = List.fill(10000)(UUID.V1.next)
+      val set   = new UUIDSet(10)
+
+      uuids.foreach(set.add)
+
+      (set.size must be equalTo 10000) and (uuids.forall(set.contains) must beTrue) and
+        (set.contains(UUID.V4.random) must beFalse)
+    }
+
+    "find UUIDs by their bits" in {
+      val uuid = UUID.V4.random
+      val set  = new UUIDSet()
+
+      set.add(uuid.getMostSignificantBits, uuid.getLeastSignificantBits)
+
+      (set.contains(uuid) must beTrue) and (set.add(uuid) must beFalse)
+    }
+
+    "be empty after clear" in {
+      val set = new UUIDSet()
+
+      List(UUID.NIL, UUID.V4.random).foreach(set.add)
+      set.clear()
+
+      (set.isEmpty must beTrue) and (elements(set) must beEmpty) and (set.contains(UUID.NIL) must beFalse)
+    }
+
+    "reject a negative expected size" in {
+      new UUIDSet(-1) must throwAn[IllegalArgumentException]
+    }
+
+    "take less than half the memory of a HashSet" in {
+      val n    = 150000
+      val msbs = Array.fill(n)(UUID.V4.random.getMostSignificantBits)
+      val lsbs = Array.fill(n)(UUID.V4.random.getLeastSignificantBits)
+
+      val footprints = for {
+        (set, setBytes) <- Footprint.allocatedBy {
+                             val set = new UUIDSet(n)
+                             Footprint.times(n)(i => set.add(msbs(i), lsbs(i)))
+                             set
+                           }
+        (hashSet, hashSetBytes) <- Footprint.allocatedBy {
+                                     val hashSet = new java.util.HashSet[UUID](n * 4 / 3 + 1)
+                                     Footprint.times(n)(i => hashSet.add(UUID.from(msbs(i), lsbs(i))))
+                                     hashSet
+                                   }
+      } yield (set.size, hashSet.size, setBytes, hashSetBytes)
+
+      footprints must beSome[(Int, Int, Long, Long)].like { case (size, hashSetSize, setBytes, hashSetBytes) =>
+        (size must be equalTo n) and (hashSetSize must be equalTo n) and
+          (setBytes / n must be lessThan 32L) and (setBytes * 2 must be lessThan hashSetBytes)
+      }
+    }
+
+  }
+
+}
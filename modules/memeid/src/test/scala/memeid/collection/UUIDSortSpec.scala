@@ -0,0 +1,114 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package memeid.collection
+
+import memeid.UUID
+import org.scalacheck.Arbitrary
+import org.scalacheck.Gen
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDSortSpec extends Specification with ScalaCheck {
+
+  /** UUIDs of every version, sharing most significant bits often so that ties are broken by the least significant. */
+  val uuids: Gen[UUID] = for {
+    msb <- Gen.oneOf(Gen.oneOf(0x0L, 0x1000L, -1L, Long.MinValue), Arbitrary.arbitrary[Long])
+    lsb <- Gen.oneOf(Gen.oneOf(0L, 1L, -1L), Arbitrary.arbitrary[Long])
+  } yield UUID.from(msb, lsb)
+
+  implicit val UUIDArbitraryInstance: Arbitrary[UUID] = Arbitrary {
+    Gen.oneOf(uuids, Gen.oneOf(UUID.V1.next, UUID.V4.random, UUID.V6.next, UUID.V7.next))
+  }
+
+  /** Enough UUIDs of each version, plus ties, to go through every code path, the parallel one included. */
+  val large: List[UUID] = scala.util.Random.shuffle(
+    List.fill(100000)(UUID.V4.random) ++ UUID.V1.nextBatch(50000) ++ UUID.V7.nextBatch(50000) ++
+      List.fill(20000)(UUID.from(0x1000L, 0L)) ++ List.fill(20000)(UUID.from(0x1000L, 1L))
+  )
+
+  def bits(uuids: Seq[UUID]): (Array[Long], Array[Long]) =
+    (uuids.map(_.getMostSignificantBits).toArray, uuids.map(_.getLeastSignificantBits).toArray)
+
+  def uuids(msbs: Array[Long], lsbs: Array[Long]): List[UUID] = msbs.zip(lsbs).map { case (m, l) => UUID.from(m, l) }.toList
+
+  "UUIDSort" should {
+
+    "sort bits in the order of compareTo" in prop { (uuids: List[UUID]) =>
+      val (msbs, lsbs) = bits(uuids)
+
+      UUIDSort.sort(msbs, lsbs)
+
+      this.uuids(msbs, lsbs) must be equalTo uuids.sorted
+    }
+
+    "sort UUIDs in the order of compareTo" in prop { (uuids: List[UUID]) =>
+      val array = uuids.toArray
+
+      UUIDSort.sort(array)
+
+      array.toList must be equalTo uuids.sorted
+    }
+
+    "sort only the provided range" in prop { (before: List[UUID], uuids: List[UUID], after: List[UUID]) =>
+      val (msbs, lsbs) = bits(before ++ uuids ++ after)
+      val array        = (before ++ uuids ++ after).toArray
+
+      UUIDSort.sort(msbs, lsbs, before.size, before.size + uuids.size)
+      UUIDSort.sort(array, before.size, before.size + uuids.size)
+
+      (this.uuids(msbs, lsbs) must be equalTo before ++ uuids.sorted ++ after) and
+        (array.toList must be equalTo before ++ uuids.sorted ++ after)
+    }
+
+    "keep equal UUIDs in their original order" in {
+      val copies = List.fill(100)(UUID.from(0x1000L, 0L))
+      val input  = scala.util.Random.shuffle(copies ++ List.fill(100)(UUID.V4.random))
+      val array  = input.toArray
+
+      UUIDSort.sort(array)
+
+      def isCopy(uuid: UUID): Boolean = copies.exists(_ eq uuid)
+
+      array.toList.filter(isCopy).corresponds(input.filter(isCopy))(_ eq _) must beTrue
+    }
+
+    "sort large arrays, sequentially and in parallel" in {
+      val (msbs, lsbs)                 = bits(large)
+      val (parallelMsbs, parallelLsbs) = bits(large)
+      val array                        = large.toArray
+      val parallelArray                = large.toArray
+      val sorted                       = large.sorted
+
+      UUIDSort.sort(msbs, lsbs)
+      UUIDSort.parallelSort(parallelMsbs, parallelLsbs)
+      UUIDSort.sort(array)
+      UUIDSort.parallelSort(parallelArray)
+
+      (uuids(msbs, lsbs) must be equalTo sorted) and (uuids(parallelMsbs, parallelLsbs) must be equalTo sorted) and
+        (array.toList must be equalTo sorted) and (parallelArray.toList must be equalTo sorted)
+    }
+
+    "reject invalid ranges" in {
+      (UUIDSort.sort(new Array[Long](1), new Array[Long](2)) must throwAn[IllegalArgumentException]) and
+        (UUIDSort.sort(new Array[Long](2), new Array[Long](1), 0, 2) must throwAn[IndexOutOfBoundsException]) and
+        (UUIDSort.parallelSort(new Array[UUID](1), 1, 0) must throwAn[IndexOutOfBoundsException])
+    }
+
+  }
+
+}
@@ -40,6 +40,10 @@ trait syntax {
 
     def random[F[_]: Sync]: F[UUID] = Sync[F].delay(UUID.V4.random)
 
+    def v6[F[_]: Sync](implicit N: Node, T: Time): F[UUID] = Sync[F].delay(UUID.V6.next(N, T))
+
+    def v7[F[_]: Sync]: F[UUID] = Sync[F].delay(UUID.V7.next)
+
     def squuid[F[_]: Sync]: F[UUID] =
       Clock[F].realTime.map { d =>
         UUID.V4.squuid {
@@ -65,4 +65,20 @@ class SyntaxSpec extends Specification with IOMatchers {
 
   }
 
+  "v6 constructor" should {
+
+    "create version 6 UUIDs" >> {
+      UUID.v6[IO] must returnValue(anInstanceOf[UUID.V6])
+    }
+
+  }
+
+  "v7 constructor" should {
+
+    "create version 7 UUIDs" >> {
+      UUID.v7[IO] must returnValue(anInstanceOf[UUID.V7])
+    }
+
+  }
+
 }
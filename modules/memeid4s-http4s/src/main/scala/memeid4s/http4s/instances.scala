@@ -16,8 +16,6 @@
 
 package memeid4s.http4s
 
-import cats.syntax.either._
-
 import memeid4s.UUID
 import org.http4s.ParseFailure
 import org.http4s.QueryParamDecoder
@@ -27,10 +25,19 @@ import org.http4s.QueryParamEncoder
 trait instances {
 
   /** Allow reading UUIDs from a request's query params */
-  implicit val UUIDQueryParamDecoderInstance: QueryParamDecoder[UUID] =
+  implicit val UUIDQueryParamDecoderInstance: QueryParamDecoder[UUID] = uuidQueryParamDecoder(UUID.tryParse(_))
+
+  /** Allow reading UUIDs from a request's query params, sharing the instances of the provided cache.
+    *
+    * Use it instead of the implicit instance when the same ids are received over and over.
+    */
+  def cachedUUIDQueryParamDecoder(cache: memeid.UUIDParseCache): QueryParamDecoder[UUID] =
+    uuidQueryParamDecoder(UUID.tryParse(_, cache))
+
+  private def uuidQueryParamDecoder(parse: String => Option[UUID]): QueryParamDecoder[UUID] =
     QueryParamDecoder[String].emap { s =>
-      UUID.from(s).leftMap { e =>
-        ParseFailure(s"Failed to decode value: $s as UUID", e.getMessage)
+      parse(s).toRight {
+        ParseFailure(s"Failed to decode value: $s as UUID", s"Invalid UUID string: $s")
       }
     }
 
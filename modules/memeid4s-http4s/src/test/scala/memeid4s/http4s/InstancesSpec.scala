@@ -49,6 +49,27 @@ class InstancesSpec extends Specification with ScalaCheck {
 
   }
 
+  "cachedUUIDQueryParamDecoder" should {
+
+    "decode the same instance for the same UUID" in prop { (uuid: UUID) =>
+      val decoder = cachedUUIDQueryParamDecoder(new memeid.UUIDParseCache(16))
+
+      val first  = decoder.decode(QueryParameterValue(uuid.show)).toOption
+      val second = decoder.decode(QueryParameterValue(uuid.show)).toOption
+
+      (first must be some uuid) and ((first, second) must be like { case (Some(a), Some(b)) =>
+        a must beTheSameAs(b)
+      })
+    }
+
+    "fail given an invalid UUID" in prop { (string: String) =>
+      val decoder = cachedUUIDQueryParamDecoder(new memeid.UUIDParseCache(16))
+
+      decoder.decode(QueryParameterValue(string)).isInvalid must beTrue
+    }.setGen(Gen.alphaNumStr)
+
+  }
+
   "QueryParamEncoder[UUID]" should {
 
     "correctly encode a valid UUID" in prop { (uuid: UUID) =>
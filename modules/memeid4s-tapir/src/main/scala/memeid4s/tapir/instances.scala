@@ -26,9 +26,18 @@ import sttp.tapir.Schema
 trait instances {
 
   /** Allows reading `UUID` values from path, query params, or headers */
-  implicit val UUIDCodec: Codec[String, UUID, CodecFormat.TextPlain] =
+  implicit val UUIDCodec: Codec[String, UUID, CodecFormat.TextPlain] = uuidCodec(UUID.from(_))
+
+  /** Allows reading `UUID` values from path, query params, or headers, sharing the instances of the provided cache.
+    *
+    * Use it instead of the implicit instance when the same ids are received over and over.
+    */
+  def cachedUUIDCodec(cache: memeid.UUIDParseCache): Codec[String, UUID, CodecFormat.TextPlain] =
+    uuidCodec(s => UUID.tryParse(s, cache).toRight(new UUID.InvalidUUIDException(s)))
+
+  private def uuidCodec(parse: String => Either[Throwable, UUID]): Codec[String, UUID, CodecFormat.TextPlain] =
     Codec.string
-      .mapDecode(s => UUID.from(s).fold(DecodeResult.Error(s, _), DecodeResult.Value(_)))(_.toString) // scalafix:ok
+      .mapDecode(s => parse(s).fold(DecodeResult.Error(s, _), DecodeResult.Value(_)))(_.toString) // scalafix:ok
       .schema(_.format("uuid"))
 
   /** Provides a valid `Schema` for `UUID` type, to be used when generating documentation. */
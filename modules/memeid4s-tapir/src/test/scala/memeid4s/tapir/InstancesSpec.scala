@@ -81,6 +81,15 @@ class InstancesSpec extends Specification with ScalaCheck {
       }
     }
 
+    "validate with a cache like the implicit instance" in prop { (uuid: UUID) =>
+      val codec = cachedUUIDCodec(new memeid.UUIDParseCache(16))
+
+      (codec.decode(uuid.show) must be equalTo DecodeResult.Value(uuid)) and
+        (codec.decode("miau") must be like { case DecodeResult.Error("miau", e: IllegalArgumentException) =>
+          e.getMessage() must be equalTo "Invalid UUID string: miau"
+        })
+    }
+
   }
 
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s
+
+import memeid4s.digest.Digestible
+
+/** Generator of namespace name-based UUIDs bound to a single namespace.
+  *
+  * Keep and reuse an instance (obtained from [[UUID.V3.generator]] or [[UUID.V5.generator]]) when many UUIDs are
+  * created for the same namespace, so the namespace is only processed once and each thread reuses its own digest.
+  */
+final class NamespacedGenerator private[memeid4s] (generator: memeid.NamespacedGenerator) {
+
+  /** Construct a namespace name-based UUID for this generator's namespace.
+    *
+    * @param local
+    *   name used for the UUID generation
+    * @param D
+    *   implicit [[digest.Digestible Digestible]] parameter
+    * @tparam A
+    *   Sets the type for the local and Digestible parameters
+    * @return
+    *   [[UUID.V3 V3]] or [[UUID.V5 V5]] depending on how this generator was created
+    */
+  @inline def apply[A](local: A)(implicit D: Digestible[A]): UUID = generator.from(local, D.toByteArray)
+
+}
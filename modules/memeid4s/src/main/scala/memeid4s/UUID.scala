@@ -19,10 +19,11 @@ package memeid4s
 import java.util.{UUID => JUUID}
 
 import scala.reflect.ClassTag
-import scala.util.Try
+import scala.util.control.NoStackTrace
 
 import memeid4s.digest.Digestible
 import memeid4s.node.Node
+import memeid4s.random.RandomSource
 import memeid4s.time.Posix
 import memeid4s.time.Time
 
@@ -40,6 +41,10 @@ object UUID {
 
   type V5 = memeid.UUID.V5
 
+  type V6 = memeid.UUID.V6
+
+  type V7 = memeid.UUID.V7
+
   @SuppressWarnings(Array("scalafix:DisableSyntax.implicitConversion"))
   implicit def richUUID(uuid: memeid.UUID): RichUUID = new RichUUID(uuid)
 
@@ -80,7 +85,7 @@ object UUID {
   }
 
   def unapply(str: String): Option[UUID] =
-    if (str.nonEmpty) UUID.from(str).toOption
+    if (str.nonEmpty) UUID.tryParse(str)
     else None
 
   /** Creates a valid [[UUID]] from two [[_root_.scala.Long Long]] values representing the most/least significant bits.
@@ -117,7 +122,44 @@ object UUID {
     *   representation.
     */
   def from(s: String): Either[Throwable, UUID] =
-    Try(memeid.UUID.fromString(s)).toEither
+    tryParse(s).toRight(new InvalidUUIDException(s))
+
+  /** Creates a [[UUID UUID]] from the [[java.util.UUID#toString string standard representation]] wrapped in a
+    * [[_root_.scala.Some Some]].
+    *
+    * Returns [[_root_.scala.None None]] in case the string doesn't follow the string standard representation, without
+    * building any exception, so it is safe to use on hot paths that receive lots of invalid values.
+    *
+    * @param s
+    *   String for the [[java.util.UUID UUID]] to be generated as an [[UUID]]
+    * @return
+    *   [[_root_.scala.Option Option]] with the [[UUID UUID]] representation, or [[_root_.scala.None None]] if the
+    *   string doesn't follow the string standard representation.
+    */
+  @inline def tryParse(s: CharSequence): Option[UUID] = Option(memeid.UUID.tryParse(s))
+
+  /** Creates a [[UUID UUID]] from the [[java.util.UUID#toString string standard representation]] like
+    * [[UUID.tryParse(s:CharSequence)* tryParse]], returning the instance shared by the provided cache for the same
+    * UUID.
+    *
+    * @param s
+    *   String for the [[java.util.UUID UUID]] to be generated as an [[UUID]]
+    * @param cache
+    *   cache of the UUIDs parsed previously
+    * @return
+    *   [[_root_.scala.Option Option]] with the cached [[UUID UUID]], or [[_root_.scala.None None]] if the string doesn't
+    *   follow the string standard representation.
+    */
+  @inline def tryParse(s: CharSequence, cache: memeid.UUIDParseCache): Option[UUID] = Option(cache.tryParse(s))
+
+  /** Error returned by [[UUID.from(s:String)* UUID.from]] when the string doesn't follow the string standard
+    * representation.
+    *
+    * It doesn't record its stack trace, since it is an expected outcome when parsing untrusted input.
+    */
+  final class InvalidUUIDException private[memeid4s] (s: String)
+      extends IllegalArgumentException(s"Invalid UUID string: $s")
+      with NoStackTrace
 
   object V1 {
 
@@ -133,6 +175,62 @@ object UUID {
     @inline def next(implicit N: Node, T: Time): UUID =
       memeid.UUID.V1.next(N.value, () => T.monotonic)
 
+    /** Construct `n` [[UUID.V1 V1]] (time-based) UUIDs, reserving all their timestamps in a single step when the
+      * provided [[time.Time Time]] supports it.
+      *
+      * @param n
+      *   number of UUIDs to generate
+      * @param N
+      *   [[node.Node Node]] for the V1 UUID generation
+      * @param T
+      *   [[time.Time Time]] which assures the V1 UUID time is unique
+      * @return
+      *   an array with `n` [[UUID.V1 V1]]
+      */
+    def nextBatch(n: Int)(implicit N: Node, T: Time): Array[UUID] =
+      (if (n > 0) T.reserve(n) else Some(0L)) match {
+        case Some(first) => memeid.UUID.V1.nextBatch(N.value, (_: Int) => first, n)
+        case None        => Array.fill(n)(next)
+      }
+
+    /** Writes the bits of `n` [[UUID.V1 V1]] (time-based) UUIDs in the provided arrays, reserving all their
+      * timestamps in a single step when the provided [[time.Time Time]] supports it.
+      *
+      * @param n
+      *   number of UUIDs to generate
+      * @param msbOut
+      *   array where the most significant bits of each UUID are written, starting at index 0
+      * @param lsbOut
+      *   array where the least significant bits of each UUID are written, starting at index 0
+      * @param N
+      *   [[node.Node Node]] for the V1 UUID generation
+      * @param T
+      *   [[time.Time Time]] which assures the V1 UUID time is unique
+      */
+    def nextBatch(n: Int, msbOut: Array[Long], lsbOut: Array[Long])(implicit N: Node, T: Time): Unit =
+      (if (n > 0) T.reserve(n) else Some(0L)) match {
+        case Some(first) => memeid.UUID.V1.nextBatch(N.value, (_: Int) => first, n, msbOut, lsbOut)
+        case None =>
+          (0 until n).foreach { i =>
+            val uuid = next
+            msbOut(i) = uuid.getMostSignificantBits
+            lsbOut(i) = uuid.getLeastSignificantBits
+          }
+      }
+
+    /** Creates a [[V1Generator]] that splits [[UUID.V1 V1]] generation in `stripes`, each one with its own clock
+      * sequence and clock, so threads don't contend on a shared clock. Create a single generator per node and reuse it.
+      *
+      * @param stripes
+      *   number of stripes, usually the number of threads that will use the generator
+      * @param N
+      *   [[node.Node Node]] for the V1 UUID generation
+      * @return
+      *   a [[V1Generator]] of [[UUID.V1 V1]]
+      */
+    def generator(stripes: Int)(implicit N: Node): V1Generator =
+      new V1Generator(new memeid.V1Generator(N.value, stripes))
+
   }
 
   object V3 {
@@ -153,6 +251,17 @@ object UUID {
     @inline def apply[A](namespace: UUID, local: A)(implicit D: Digestible[A]): UUID =
       memeid.UUID.V3.from(namespace, local, D.toByteArray)
 
+    /** Creates a [[NamespacedGenerator]] of v3 UUIDs for the provided namespace, which should be reused to
+      * construct many UUIDs for the same namespace.
+      *
+      * @param namespace
+      *   [[UUID UUID]] used for the [[UUID.V3 V3]] generation
+      * @return
+      *   a [[NamespacedGenerator]] of [[UUID.V3 V3]]
+      */
+    def generator(namespace: UUID): NamespacedGenerator =
+      new NamespacedGenerator(memeid.NamespacedGenerator.v3(namespace))
+
   }
 
   object V4 {
@@ -171,9 +280,30 @@ object UUID {
     // Construct a v4 (random) UUID.
     @inline def random: UUID = memeid.UUID.V4.random
 
+    /** Construct a v4 (random) UUID using the provided source of random values.
+      *
+      * @param R
+      *   [[random.RandomSource RandomSource]] providing the random bits
+      * @return
+      *   [[UUID.V4 V4]]
+      */
+    @inline def random(R: RandomSource): UUID = memeid.UUID.V4.random(() => R.nextLong)
+
     // Construct a SQUUID (random, time-based) UUID.
     @inline def squuid(implicit P: Posix): UUID = memeid.UUID.V4.squuid(P.value)
 
+    /** Construct a SQUUID (random, time-based) UUID using the provided source of random values.
+      *
+      * @param R
+      *   [[random.RandomSource RandomSource]] providing the random bits
+      * @param P
+      *   [[time.Posix Posix]] timestamp for the time component
+      * @return
+      *   [[UUID.V4 V4]]
+      */
+    @inline def squuid(R: RandomSource)(implicit P: Posix): UUID =
+      memeid.UUID.V4.squuid(P.value, () => R.nextLong)
+
   }
 
   object V5 {
@@ -194,6 +324,77 @@ object UUID {
     @inline def apply[A](namespace: UUID, local: A)(implicit D: Digestible[A]): UUID =
       memeid.UUID.V5.from(namespace, local, D.toByteArray)
 
+    /** Creates a [[NamespacedGenerator]] of v5 UUIDs for the provided namespace, which should be reused to
+      * construct many UUIDs for the same namespace.
+      *
+      * @param namespace
+      *   [[UUID UUID]] used for the [[UUID.V5 V5]] generation
+      * @return
+      *   a [[NamespacedGenerator]] of [[UUID.V5 V5]]
+      */
+    def generator(namespace: UUID): NamespacedGenerator =
+      new NamespacedGenerator(memeid.NamespacedGenerator.v5(namespace))
+
+  }
+
+  object V6 {
+
+    /** Construct a [[UUID.V6 V6]] (reordered time-based) UUID.
+      *
+      * @param N
+      *   [[node.Node Node]] for the V6 UUID generation
+      * @param T
+      *   [[time.Time Time]] which assures the V6 UUID time is unique
+      * @return
+      *   [[UUID.V6 V6]]
+      */
+    @inline def next(implicit N: Node, T: Time): UUID =
+      memeid.UUID.V6.next(N.value, () => T.monotonic)
+
+  }
+
+  object V7 {
+
+    /** Construct a v7 (time-ordered) UUID. UUIDs constructed in the same JVM are strictly increasing, so they sort by
+      * creation time.
+      *
+      * @return
+      *   [[UUID.V7 V7]]
+      */
+    @inline def next: UUID = memeid.UUID.V7.next
+
+    /** Construct a v7 (time-ordered) UUID using the provided source of random values.
+      *
+      * @param R
+      *   [[random.RandomSource RandomSource]] providing the random bits
+      * @return
+      *   [[UUID.V7 V7]]
+      */
+    @inline def next(R: RandomSource): UUID =
+      memeid.UUID.V7.next(() => memeid.Timestamp.unixMillisWithCounter(), () => R.nextLong)
+
+    /** Construct `n` increasing v7 (time-ordered) UUIDs, reserving all their timestamps in a single step.
+      *
+      * @param n
+      *   number of UUIDs to generate
+      * @return
+      *   an array with `n` [[UUID.V7 V7]]
+      */
+    @inline def nextBatch(n: Int): Array[UUID] = memeid.UUID.V7.nextBatch(n)
+
+    /** Writes the bits of `n` increasing v7 (time-ordered) UUIDs in the provided arrays, reserving all their
+      * timestamps in a single step.
+      *
+      * @param n
+      *   number of UUIDs to generate
+      * @param msbOut
+      *   array where the most significant bits of each UUID are written, starting at index 0
+      * @param lsbOut
+      *   array where the least significant bits of each UUID are written, starting at index 0
+      */
+    @inline def nextBatch(n: Int, msbOut: Array[Long], lsbOut: Array[Long]): Unit =
+      memeid.UUID.V7.nextBatch(n, msbOut, lsbOut)
+
   }
 
 }
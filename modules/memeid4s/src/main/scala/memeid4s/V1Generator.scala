@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s
+
+/** Generator of time-based UUIDs split in stripes, so threads generating UUIDs concurrently don't contend on a single
+  * clock.
+  *
+  * Keep and reuse an instance (obtained from [[UUID.V1.generator]]), as the UUIDs of two generators for the same node
+  * may collide.
+  */
+final class V1Generator private[memeid4s] (generator: memeid.V1Generator) {
+
+  /** Construct a [[UUID.V1 V1]] (time-based) UUID from the stripe of the current thread.
+    *
+    * @return
+    *   [[UUID.V1 V1]]
+    */
+  @inline def next: UUID = generator.next()
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.collection
+
+import memeid4s.UUID
+
+/** Mutable map from UUIDs to `Long` values backed by a [[memeid.collection.UUIDLongMap]], which stores its keys and
+  * values in `Long` arrays, without keeping UUID objects nor boxing values.
+  *
+  * @param underlying
+  *   the Java map holding the entries
+  */
+final class UUIDLongMap(val underlying: memeid.collection.UUIDLongMap) extends AnyVal {
+
+  /** Maps the UUID to `value`. */
+  @inline def update(uuid: UUID, value: Long): Unit = { underlying.put(uuid, value); () }
+
+  /** Adds `delta` to the value mapped to the UUID (`0` if absent), returning the new value. */
+  @inline def addTo(uuid: UUID, delta: Long): Long =
+    underlying.addTo(uuid.getMostSignificantBits, uuid.getLeastSignificantBits, delta)
+
+  /** Returns the value mapped to the UUID, if any. */
+  def get(uuid: UUID): Option[Long] =
+    if (underlying.containsKey(uuid)) Some(underlying.get(uuid)) else None
+
+  /** Returns the value mapped to the UUID, or `default` if there is none. */
+  @inline def getOrElse(uuid: UUID, default: Long): Long =
+    underlying.getOrDefault(uuid.getMostSignificantBits, uuid.getLeastSignificantBits, default)
+
+  /** Returns `true` if this map contains the UUID as a key. */
+  @inline def contains(uuid: UUID): Boolean = underlying.containsKey(uuid)
+
+  /** Removes the UUID from this map, returning `true` if it was present. */
+  @inline def remove(uuid: UUID): Boolean = underlying.remove(uuid)
+
+  @inline def size: Int = underlying.size()
+
+  @inline def isEmpty: Boolean = underlying.isEmpty()
+
+  /** Applies `f` to every entry in this map, in no particular order. */
+  def foreach[U](f: (UUID, Long) => U): Unit =
+    underlying.forEach((msb: Long, lsb: Long, value: Long) => { f(UUID.from(msb, lsb), value); () })
+
+  /** Returns an immutable copy of this map. */
+  def toMap: Map[UUID, Long] = {
+    val builder = Map.newBuilder[UUID, Long]
+    foreach((uuid, value) => builder += (uuid -> value))
+    builder.result()
+  }
+
+}
+
+object UUIDLongMap {
+
+  /** Creates an empty [[UUIDLongMap]] that can hold `expectedSize` keys without growing. */
+  def withExpectedSize(expectedSize: Int): UUIDLongMap = new UUIDLongMap(new memeid.collection.UUIDLongMap(expectedSize))
+
+  /** Creates an empty [[UUIDLongMap]]. */
+  def empty: UUIDLongMap = withExpectedSize(0)
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.collection
+
+import memeid4s.UUID
+
+/** Mutable map from UUIDs to values backed by a [[memeid.collection.UUIDObjectMap]], which stores the bits of its keys
+  * in `Long` arrays instead of keeping each UUID object.
+  *
+  * @param underlying
+  *   the Java map holding the entries
+  */
+final class UUIDMap[V](val underlying: memeid.collection.UUIDObjectMap[V]) extends AnyVal {
+
+  /** Maps the UUID to `value`. */
+  @inline def update(uuid: UUID, value: V): Unit = { underlying.put(uuid, value); () }
+
+  /** Returns the value mapped to the UUID, if any. */
+  def get(uuid: UUID): Option[V] =
+    if (underlying.containsKey(uuid)) Some(underlying.get(uuid)) else None
+
+  /** Returns the value mapped to the UUID, or `default` if there is none. */
+  def getOrElse[V1 >: V](uuid: UUID, default: => V1): V1 =
+    if (underlying.containsKey(uuid)) underlying.get(uuid) else default
+
+  /** Returns `true` if this map contains the UUID as a key. */
+  @inline def contains(uuid: UUID): Boolean = underlying.containsKey(uuid)
+
+  /** Removes the UUID from this map, returning the value it was mapped to, if any. */
+  def remove(uuid: UUID): Option[V] =
+    if (underlying.containsKey(uuid)) Some(underlying.remove(uuid)) else None
+
+  @inline def size: Int = underlying.size()
+
+  @inline def isEmpty: Boolean = underlying.isEmpty()
+
+  /** Applies `f` to every entry in this map, in no particular order. */
+  def foreach[U](f: (UUID, V) => U): Unit =
+    underlying.forEach((msb: Long, lsb: Long, value: V) => { f(UUID.from(msb, lsb), value); () })
+
+  /** Returns an immutable copy of this map. */
+  def toMap: Map[UUID, V] = {
+    val builder = Map.newBuilder[UUID, V]
+    foreach((uuid, value) => builder += (uuid -> value))
+    builder.result()
+  }
+
+}
+
+object UUIDMap {
+
+  /** Creates an empty [[UUIDMap]] that can hold `expectedSize` keys without growing. */
+  def withExpectedSize[V](expectedSize: Int): UUIDMap[V] =
+    new UUIDMap(new memeid.collection.UUIDObjectMap[V](expectedSize))
+
+  /** Creates an empty [[UUIDMap]]. */
+  def empty[V]: UUIDMap[V] = withExpectedSize(0)
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.collection
+
+import memeid4s.UUID
+
+/** Mutable set of UUIDs backed by a [[memeid.collection.UUIDSet]], which stores their bits in `Long` arrays instead
+  * of keeping each UUID object.
+  *
+  * @param underlying
+  *   the Java set holding the UUIDs
+  */
+final class UUIDSet(val underlying: memeid.collection.UUIDSet) extends AnyVal {
+
+  /** Adds the UUID to this set, returning `true` if it wasn't already present. */
+  @inline def add(uuid: UUID): Boolean = underlying.add(uuid)
+
+  /** Returns `true` if this set contains the UUID. */
+  @inline def contains(uuid: UUID): Boolean = underlying.contains(uuid)
+
+  /** Removes the UUID from this set, returning `true` if it was present. */
+  @inline def remove(uuid: UUID): Boolean = underlying.remove(uuid)
+
+  @inline def size: Int = underlying.size()
+
+  @inline def isEmpty: Boolean = underlying.isEmpty()
+
+  /** Applies `f` to every UUID in this set, in no particular order. */
+  def foreach[U](f: UUID => U): Unit =
+    underlying.forEach((msb: Long, lsb: Long) => { f(UUID.from(msb, lsb)); () })
+
+  /** Returns an immutable copy of this set. */
+  def toSet: Set[UUID] = {
+    val builder = Set.newBuilder[UUID]
+    foreach(builder += _)
+    builder.result()
+  }
+
+}
+
+object UUIDSet {
+
+  /** Creates an empty [[UUIDSet]] that can hold `expectedSize` UUIDs without growing. */
+  def withExpectedSize(expectedSize: Int): UUIDSet = new UUIDSet(new memeid.collection.UUIDSet(expectedSize))
+
+  /** Creates an empty [[UUIDSet]]. */
+  def empty: UUIDSet = withExpectedSize(0)
+
+  /** Creates a [[UUIDSet]] with the provided UUIDs. */
+  def apply(uuids: UUID*): UUIDSet = {
+    val set = withExpectedSize(uuids.size)
+    uuids.foreach(set.add)
+    set
+  }
+
+}
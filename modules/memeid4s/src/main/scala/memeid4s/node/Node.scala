@@ -20,6 +20,6 @@ final case class Node(value: memeid.Node)
 
 object Node {
 
-  implicit val apply: Node = Node(new memeid.Node)
+  implicit val apply: Node = Node(memeid.Node.getInstance)
 
 }
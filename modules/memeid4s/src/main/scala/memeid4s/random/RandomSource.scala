@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.random
+
+/* A source of random `Long` values for the generation of random UUIDs. */
+trait RandomSource {
+
+  def nextLong: Long
+
+}
+
+object RandomSource {
+
+  /** A [[RandomSource]] backed by `ThreadLocalRandom`.
+    *
+    * It isn't cryptographically strong, so it must not be used for UUIDs that need to be unguessable.
+    */
+  val threadLocal: RandomSource =
+    new RandomSource {
+
+      override def nextLong: Long = memeid.RandomSource.threadLocal()
+
+    }
+
+  /* A cryptographically strong [[RandomSource]] that keeps a buffered `SecureRandom` per thread. */
+  val secure: RandomSource =
+    new RandomSource {
+
+      override def nextLong: Long = memeid.RandomSource.secure()
+
+    }
+
+}
@@ -23,6 +23,16 @@ trait Time {
   /* A gregorian time monotonic timestamp. */
   def monotonic: Long
 
+  /** Reserves `count` consecutive gregorian time monotonic timestamps in a single step, returning the first of them.
+    * `count` is always at least 1.
+    *
+    * Returns `None` if this clock is unable to reserve blocks of timestamps, which is the default.
+    */
+  def reserve(count: Int): Option[Long] = {
+    val _ = count // The default ignores it, but overrides need it
+    None
+  }
+
 }
 
 object Time {
@@ -32,6 +42,26 @@ object Time {
 
       override def monotonic: Long = Timestamp.monotonic()
 
+      override def reserve(count: Int): Option[Long] = Some(Timestamp.monotonic(count))
+
+    }
+
+  /** A [[Time]] counting 100-nanosecond ticks as described in RFC-4122, which never waits for the clock when many
+    * timestamps are requested in the same millisecond.
+    *
+    * To use it for V1 generation, bring it into implicit scope:
+    *
+    * {{{
+    * implicit val time: Time = Time.highResolution
+    * }}}
+    */
+  val highResolution: Time =
+    new Time {
+
+      override def monotonic: Long = Timestamp.highResolution()
+
+      override def reserve(count: Int): Option[Long] = Some(Timestamp.highResolution(count))
+
     }
 
 }
@@ -39,6 +39,32 @@ class UUIDSpec extends Specification with ScalaCheck {
       }
     }.setGen(Gen.alphaNumStr)
 
+    "return Left without a stack trace on invalid string" >> {
+      UUID.from("miau") must beLeft().like { case e: IllegalArgumentException =>
+        (e.getMessage must be equalTo "Invalid UUID string: miau") and (e.getStackTrace must beEmpty)
+      }
+    }
+
+    "return Left on null" >> {
+      UUID.from(null) must beLeft // scalafix:ok
+    }
+
+  }
+
+  "UUID.tryParse" should {
+
+    "return Some on valid UUID" in prop { (uuid: UUID) =>
+      UUID.tryParse(uuid.toString) must be some uuid
+    }
+
+    "return None on invalid string" in prop { (s: String) =>
+      UUID.tryParse(s) must beNone
+    }.setGen(Gen.alphaNumStr)
+
+    "return None on null" >> {
+      UUID.tryParse(null) must beNone // scalafix:ok
+    }
+
   }
 
   "UUID.as" should {
@@ -83,6 +109,18 @@ class UUIDSpec extends Specification with ScalaCheck {
         (uuid.as[UUID.V5] must beSome(uuid))
     }
 
+    "return Some[UUID.V6] only if version is 6" in prop { (uuid: UUID.V6) =>
+      (uuid.as[UUID.V1] must beNone) and
+        (uuid.as[UUID.V6] must beSome(uuid)) and
+        (uuid.as[UUID.V7] must beNone)
+    }
+
+    "return Some[UUID.V7] only if version is 7" in prop { (uuid: UUID.V7) =>
+      (uuid.as[UUID.V1] must beNone) and
+        (uuid.as[UUID.V4] must beNone) and
+        (uuid.as[UUID.V7] must beSome(uuid))
+    }
+
   }
 
   "UUID.is" should {
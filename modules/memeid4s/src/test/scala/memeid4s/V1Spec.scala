@@ -18,6 +18,7 @@ package memeid4s
 
 import scala.collection.parallel.immutable.ParRange
 
+import memeid4s.time.Time
 import org.specs2.mutable.Specification
 
 @SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel"))
@@ -50,6 +51,14 @@ class V1Spec extends Specification {
       ids.size must be equalTo 999
     }
 
+    "not generate the same UUID twice with a high resolution clock" in {
+      implicit val time: Time = Time.highResolution
+
+      val ids = new ParRange(1 to 5000).map(_ => UUID.V1.next).toSet
+
+      ids.size must be equalTo 5000
+    }
+
     "check time components" in {
       val uuid         = memeid.UUID.fromString("1cbf0782-3209-11ea-978f-2e728ce88125")
       val clockSeqLow  = 0x8f.toLong
@@ -67,4 +76,43 @@ class V1Spec extends Specification {
     }
   }
 
+  "V1 generator" should {
+
+    "not generate the same UUID twice with high concurrency" in {
+      val generator = UUID.V1.generator(4)
+
+      val ids = new ParRange(1 to 5000).map(_ => generator.next).toSet
+
+      (ids.size must be equalTo 5000) and (ids.map(_.version).seq must be equalTo Set(1))
+    }
+
+  }
+
+  "V1 batch constructor" should {
+
+    "create the requested number of distinct version 1 UUIDs" in {
+      val uuids = UUID.V1.nextBatch(1000)
+
+      (uuids.map(_.version).toSet must be equalTo Set(1)) and (uuids.toSet.size must be equalTo 1000)
+    }
+
+    "write the UUID bits in the provided arrays" in {
+      val msbs = new Array[Long](100)
+      val lsbs = new Array[Long](100)
+
+      UUID.V1.nextBatch(100, msbs, lsbs)
+
+      msbs.zip(lsbs).map { case (msb, lsb) => UUID.from(msb, lsb) }.toSet.size must be equalTo 100
+    }
+
+    "fall back to one by one generation if time can't reserve blocks" in {
+      implicit val time: Time = new Time {
+        override def monotonic: Long = memeid.Timestamp.monotonic()
+      }
+
+      UUID.V1.nextBatch(100).toSet.size must be equalTo 100
+    }
+
+  }
+
 }
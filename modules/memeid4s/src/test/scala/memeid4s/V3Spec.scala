@@ -16,8 +16,11 @@
 
 package memeid4s
 
+import scala.collection.parallel.immutable.ParRange
+
 import org.specs2.mutable.Specification
 
+@SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel"))
 class V3Spec extends Specification {
 
   "V3 constructor" should {
@@ -56,4 +59,26 @@ class V3Spec extends Specification {
 
   }
 
+  "V3 generator" should {
+
+    "create the same UUIDs as the V3 constructor" in {
+      val namespace = UUID.V4.random
+      val generator = UUID.V3.generator(namespace)
+
+      val names = (1 to 100).map(i => s"thing-$i")
+
+      names.map(generator(_)) must be equalTo names.map(UUID.V3(namespace, _))
+    }
+
+    "create the same UUIDs from different threads" in {
+      val namespace = UUID.V4.random
+      val generator = UUID.V3.generator(namespace)
+
+      val uuids = new ParRange(1 to 1000).map(i => generator(s"thing-${i % 10}")).toVector.toSet
+
+      uuids must be equalTo (0 until 10).map(i => UUID.V3(namespace, s"thing-$i")).toSet
+    }
+
+  }
+
 }
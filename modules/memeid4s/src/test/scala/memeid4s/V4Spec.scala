@@ -18,6 +18,7 @@ package memeid4s
 
 import scala.collection.parallel.immutable.ParRange
 
+import memeid4s.random.RandomSource
 import org.specs2.mutable.Specification
 
 @SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel"))
@@ -49,4 +50,20 @@ class V4Spec extends Specification {
 
   }
 
+  "V4 constructor with a random source" should {
+
+    "create version 4 UUIDs" in {
+      val sources = List(RandomSource.threadLocal, RandomSource.secure)
+
+      sources.flatMap(source => (1 to 100).map(_ => UUID.V4.random(source).version)).toSet must be equalTo Set(4)
+    }
+
+    "create version 4 SQUUIDs" in {
+      val uuids = new ParRange(1 to 100).map(_ => UUID.V4.squuid(RandomSource.secure)).toVector.toSet
+
+      (uuids.map(_.version) must be equalTo Set(4)) and (uuids.size must be equalTo 100)
+    }
+
+  }
+
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s
+
+import scala.collection.parallel.immutable.ParRange
+
+import memeid4s.random.RandomSource
+import org.specs2.mutable.Specification
+
+@SuppressWarnings(Array("scalafix:Disable.scala.collection.parallel"))
+class V7Spec extends Specification {
+
+  "V7 constructor" should {
+
+    "create version 7 UUIDs" in {
+      val uuids = new ParRange(1 to 10).map(_ => UUID.V7.next.version).toVector.toSet
+
+      uuids must contain(exactly(7))
+    }
+
+    "create increasing UUIDs" in {
+      val uuids = List.fill(1000)(UUID.V7.next)
+
+      uuids must be equalTo uuids.sorted.distinct
+    }
+
+    "create increasing UUIDs with a random source" in {
+      val uuids = List.fill(1000)(UUID.V7.next(RandomSource.threadLocal))
+
+      (uuids.map(_.version).toSet must be equalTo Set(7)) and (uuids must be equalTo uuids.sorted.distinct)
+    }
+
+  }
+
+  "V7 batch constructor" should {
+
+    "create the requested number of increasing version 7 UUIDs" in {
+      val uuids = UUID.V7.nextBatch(1000).toList
+
+      (uuids.map(_.version).toSet must be equalTo Set(7)) and (uuids must be equalTo uuids.sorted.distinct)
+    }
+
+    "write increasing version 7 UUIDs in the provided arrays" in {
+      val msbs = new Array[Long](1000)
+      val lsbs = new Array[Long](1000)
+
+      UUID.V7.nextBatch(1000, msbs, lsbs)
+
+      val uuids = msbs.zip(lsbs).map { case (msb, lsb) => UUID.from(msb, lsb) }.toList
+
+      (uuids.map(_.version).toSet must be equalTo Set(7)) and (uuids must be equalTo uuids.sorted.distinct)
+    }
+
+  }
+
+}
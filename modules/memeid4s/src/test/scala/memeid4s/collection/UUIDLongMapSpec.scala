@@ -0,0 +1,46 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.collection
+
+import memeid4s.UUID
+import memeid4s.scalacheck.arbitrary.instances._
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDLongMapSpec extends Specification with ScalaCheck {
+
+  "UUIDLongMap" should {
+
+    "contain the same entries as a Map" in prop { (entries: Map[UUID, Long], others: List[UUID]) =>
+      val map = UUIDLongMap.withExpectedSize(entries.size)
+
+      entries.foreach { case (uuid, value) => map(uuid) = value }
+
+      (map.toMap must be equalTo entries) and (map.size must be equalTo entries.size) and
+        (others.map(map.get) must be equalTo others.map(entries.get))
+    }
+
+    "count with addTo" in prop { (uuid: UUID) =>
+      val map = UUIDLongMap.empty
+
+      (map.addTo(uuid, 2L) must be equalTo 2L) and (map.addTo(uuid, 3L) must be equalTo 5L) and
+        (map.getOrElse(uuid, 0L) must be equalTo 5L) and (map.remove(uuid) must beTrue) and (map.isEmpty must beTrue)
+    }
+
+  }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.collection
+
+import memeid4s.UUID
+import memeid4s.scalacheck.arbitrary.instances._
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDMapSpec extends Specification with ScalaCheck {
+
+  "UUIDMap" should {
+
+    "contain the same entries as a Map" in prop { (entries: Map[UUID, String], others: List[UUID]) =>
+      val map = UUIDMap.withExpectedSize[String](entries.size)
+
+      entries.foreach { case (uuid, value) => map(uuid) = value }
+
+      (map.toMap must be equalTo entries) and (map.size must be equalTo entries.size) and
+        (others.map(map.get) must be equalTo others.map(entries.get))
+    }
+
+    "remove entries" in prop { (uuid: UUID, value: String) =>
+      val map = UUIDMap.empty[String]
+
+      map(uuid) = value
+
+      (map.remove(uuid) must beSome(value)) and (map.remove(uuid) must beNone) and (map.isEmpty must beTrue) and
+        (map.getOrElse(uuid, "default") must be equalTo "default")
+    }
+
+  }
+
+}
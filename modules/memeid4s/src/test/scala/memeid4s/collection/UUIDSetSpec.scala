@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019-2023 47 Degrees Open Source <https://www.47deg.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package memeid4s.collection
+
+import memeid4s.UUID
+import memeid4s.scalacheck.arbitrary.instances._
+import org.specs2.ScalaCheck
+import org.specs2.mutable.Specification
+
+class UUIDSetSpec extends Specification with ScalaCheck {
+
+  "UUIDSet" should {
+
+    "contain the same UUIDs as a Set" in prop { (uuids: List[UUID], others: List[UUID]) =>
+      val set = UUIDSet(uuids: _*)
+
+      (set.toSet must be equalTo uuids.toSet) and (set.size must be equalTo uuids.toSet.size) and
+        (others.map(set.contains) must be equalTo others.map(uuids.contains))
+    }
+
+    "add and remove UUIDs" in prop { (uuid: UUID) =>
+      val set = UUIDSet.empty
+
+      (set.add(uuid) must beTrue) and (set.add(uuid) must beFalse) and (set.remove(uuid) must beTrue) and
+        (set.isEmpty must beTrue)
+    }
+
+  }
+
+}